@@ -0,0 +1,78 @@
+package net.evilkingdom.commons.data.implementation.json;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import net.evilkingdom.commons.data.implementation.json.enums.JsonFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the size, write and read throughput of every format against plain json, which is what every file was written as before formats.
+ * The encoded size of the sample is printed once per trial, since it doesn't change between iterations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonEncodingBenchmark {
+
+    @Param({"PLAIN", "GZIP", "BINARY"})
+    public JsonFormat format;
+
+    @Param({"1", "50"})
+    public int entries;
+
+    private JsonObject jsonObject;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final JsonArray history = new JsonArray();
+        for (int index = 0; index < this.entries; index++) {
+            final JsonObject entry = new JsonObject();
+            entry.addProperty("timestamp", 1700000000000L + index * 60000L);
+            entry.addProperty("action", index % 2 == 0 ? "join" : "quit");
+            entry.addProperty("world", "world_" + (index % 3));
+            entry.addProperty("x", index * 1.25D);
+            entry.addProperty("z", -index * 3.5D);
+            history.add(entry);
+        }
+        final JsonObject statistics = new JsonObject();
+        statistics.addProperty("kills", 1204);
+        statistics.addProperty("deaths", 431);
+        statistics.addProperty("playtime", 9876543210L);
+        this.jsonObject = new JsonObject();
+        this.jsonObject.addProperty("uuid", "069a79f4-44e9-4726-a5be-fca90e38aaf5");
+        this.jsonObject.addProperty("name", "Notch");
+        this.jsonObject.addProperty("balance", 15230.75D);
+        this.jsonObject.add("statistics", statistics);
+        this.jsonObject.add("history", history);
+        this.encoded = JsonEncoding.encode(this.jsonObject, this.format);
+        System.out.println(this.format + " encodes " + this.entries + " history entries in " + this.encoded.length + " bytes.");
+    }
+
+    @Benchmark
+    public byte[] write() {
+        return JsonEncoding.encode(this.jsonObject, this.format);
+    }
+
+    @Benchmark
+    public JsonObject read() {
+        return JsonEncoding.decode(this.encoded);
+    }
+
+}
@@ -0,0 +1,163 @@
+package net.evilkingdom.commons.data.implementation.mapped;
+
+import com.google.gson.JsonObject;
+import net.evilkingdom.commons.data.implementation.json.JsonDatasite;
+import net.evilkingdom.commons.data.implementation.json.JsonDatapoint;
+import net.evilkingdom.commons.data.objects.Datapoint;
+import net.evilkingdom.commons.data.objects.Datasite;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Compares reads from a mapped datapoint against reads from a json datapoint, neither of which has a read-through cache.
+ * Warm reads keep hitting a small set of identifiers, cold reads go through identifiers a freshly registered datapoint hasn't touched yet.
+ * The operating system's page cache isn't dropped between invocations, so cold reads measure the datapoint rather than the disk.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappedDatapointBenchmark {
+
+    private static final int RECORDS = 10000;
+    private static final int HOT = 64;
+    private static final int COLD = 1000;
+
+    @State(Scope.Thread)
+    public static class Backend {
+
+        @Param({"mapped", "json"})
+        public String backend;
+
+        protected File folder;
+        protected Datasite datasite;
+        protected Datapoint datapoint;
+        protected String[] identifiers;
+        protected int next;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            this.folder = Files.createTempDirectory("evilcommons-benchmark").toFile();
+            final JavaPlugin plugin = Mockito.mock(JavaPlugin.class);
+            Mockito.when(plugin.getDataFolder()).thenReturn(this.folder);
+            Mockito.when(plugin.getLogger()).thenReturn(Logger.getLogger("benchmark"));
+            if (this.backend.equals("mapped")) {
+                this.datasite = new MappedDatasite(plugin, "benchmark");
+            } else {
+                this.datasite = new JsonDatasite(plugin, "benchmark");
+            }
+            this.datasite.initialize();
+            this.datapoint = this.open();
+            this.identifiers = new String[RECORDS];
+            final HashMap<String, JsonObject> jsonObjects = new HashMap<>();
+            for (int index = 0; index < RECORDS; index++) {
+                this.identifiers[index] = UUID.randomUUID().toString();
+                jsonObjects.put(this.identifiers[index], this.record(index));
+                if (jsonObjects.size() == COLD) {
+                    this.datapoint.saveAll(jsonObjects).join();
+                    jsonObjects.clear();
+                }
+            }
+            Collections.shuffle(Arrays.asList(this.identifiers), new Random(0L));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            this.datasite.terminate();
+            try (final Stream<Path> paths = Files.walk(this.folder.toPath())) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+
+        /**
+         * Allows you to replace the benchmarked datapoint with a freshly registered one.
+         */
+        protected void reopen() {
+            if (this.datapoint instanceof MappedDatapoint) {
+                ((MappedDatapoint) this.datapoint).close();
+            }
+            this.datasite.getPoints().remove(this.datapoint);
+            this.datapoint = this.open();
+        }
+
+        private Datapoint open() {
+            final Datapoint datapoint;
+            if (this.datasite instanceof MappedDatasite) {
+                datapoint = new MappedDatapoint((MappedDatasite) this.datasite, "players");
+            } else {
+                datapoint = new JsonDatapoint((JsonDatasite) this.datasite, "players");
+            }
+            datapoint.register();
+            return datapoint;
+        }
+
+        private JsonObject record(final int index) {
+            final JsonObject statistics = new JsonObject();
+            statistics.addProperty("kills", index * 3);
+            statistics.addProperty("deaths", index % 97);
+            statistics.addProperty("playtime", index * 60000L);
+            final JsonObject jsonObject = new JsonObject();
+            jsonObject.addProperty("name", "player-" + index);
+            jsonObject.addProperty("rank", index % 5 == 0 ? "vip" : "default");
+            jsonObject.addProperty("balance", index * 12.5D);
+            jsonObject.add("statistics", statistics);
+            return jsonObject;
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class Cold extends Backend {
+
+        @Setup(Level.Invocation)
+        public void register() {
+            this.reopen();
+        }
+
+    }
+
+    @Benchmark
+    public Optional<JsonObject> warm(final Backend backend) {
+        return backend.datapoint.get(backend.identifiers[backend.next++ & (HOT - 1)]).join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COLD)
+    public void cold(final Cold cold, final Blackhole blackhole) {
+        for (int index = 0; index < COLD; index++) {
+            blackhole.consume(cold.datapoint.get(cold.identifiers[cold.next++ % RECORDS]).join());
+        }
+    }
+
+}
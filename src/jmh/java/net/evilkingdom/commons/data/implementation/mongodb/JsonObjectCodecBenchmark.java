@@ -0,0 +1,107 @@
+package net.evilkingdom.commons.data.implementation.mongodb;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.evilkingdom.commons.data.codec.GsonCodec;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the codec against the path mongo datapoints took before it, which went through a json string and a document on every read and write.
+ * Both sides encode to and decode from the same bson bytes, so the driver's wire handling is left out and only the conversion is measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonObjectCodecBenchmark {
+
+    private static final JsonWriterSettings RELAXED = JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+    private static final EncoderContext ENCODER_CONTEXT = EncoderContext.builder().build();
+    private static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
+
+    @Param({"1", "50"})
+    public int entries;
+
+    private final JsonObjectCodec codec = new JsonObjectCodec();
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    private JsonObject jsonObject;
+    private byte[] bson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final JsonArray history = new JsonArray();
+        for (int index = 0; index < this.entries; index++) {
+            final JsonObject entry = new JsonObject();
+            entry.addProperty("timestamp", 1700000000000L + index * 60000L);
+            entry.addProperty("action", index % 2 == 0 ? "join" : "quit");
+            entry.addProperty("world", "world_" + (index % 3));
+            entry.addProperty("x", index * 1.25D);
+            entry.addProperty("z", -index * 3.5D);
+            history.add(entry);
+        }
+        final JsonObject statistics = new JsonObject();
+        statistics.addProperty("kills", 1204);
+        statistics.addProperty("deaths", 431);
+        statistics.addProperty("playtime", 9876543210L);
+        this.jsonObject = new JsonObject();
+        this.jsonObject.addProperty("_id", "069a79f4-44e9-4726-a5be-fca90e38aaf5");
+        this.jsonObject.addProperty("name", "Notch");
+        this.jsonObject.addProperty("balance", 15230.75D);
+        this.jsonObject.add("statistics", statistics);
+        this.jsonObject.add("history", history);
+        this.bson = this.encodeCodec();
+    }
+
+    @Benchmark
+    public byte[] encodeCodec() {
+        final BasicOutputBuffer basicOutputBuffer = new BasicOutputBuffer();
+        this.codec.encode(new BsonBinaryWriter(basicOutputBuffer), this.jsonObject, ENCODER_CONTEXT);
+        return basicOutputBuffer.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeDocument() {
+        final Document document = Document.parse(GsonCodec.GSON.toJson(this.jsonObject));
+        final BasicOutputBuffer basicOutputBuffer = new BasicOutputBuffer();
+        this.documentCodec.encode(new BsonBinaryWriter(basicOutputBuffer), document, ENCODER_CONTEXT);
+        return basicOutputBuffer.toByteArray();
+    }
+
+    @Benchmark
+    public JsonObject decodeCodec() {
+        return this.codec.decode(new BsonBinaryReader(ByteBuffer.wrap(this.bson)), DECODER_CONTEXT);
+    }
+
+    @Benchmark
+    public JsonObject decodeDocument() {
+        final Document document = this.documentCodec.decode(new BsonBinaryReader(ByteBuffer.wrap(this.bson)), DECODER_CONTEXT);
+        return JsonParser.parseString(document.toJson(RELAXED)).getAsJsonObject();
+    }
+
+}
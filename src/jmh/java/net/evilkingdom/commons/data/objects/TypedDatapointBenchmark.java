@@ -0,0 +1,123 @@
+package net.evilkingdom.commons.data.objects;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.evilkingdom.commons.data.codec.GsonCodec;
+import net.evilkingdom.commons.data.implementation.memory.MemoryDatapoint;
+import net.evilkingdom.commons.data.implementation.memory.MemoryDatasite;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares typed datapoints and their cached codecs against converting values by hand, which is what callers did before.
+ * The hand-written path builds a new gson instance on every conversion and goes through a json string to get a json object, like the backends and most plugins did.
+ * The datapoint is kept in memory, so only the conversion differs between the two, and the gc profiler shows the allocation per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TypedDatapointBenchmark {
+
+    private static final GsonCodec<Profile> CODEC = GsonCodec.of(Profile.class);
+
+    private MemoryDatasite datasite;
+    private MemoryDatapoint datapoint;
+    private TypedDatapoint<Profile> typedDatapoint;
+    private Profile profile;
+    private JsonObject jsonObject;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.datasite = new MemoryDatasite(null, "benchmark");
+        this.datapoint = new MemoryDatapoint(this.datasite, "profiles");
+        this.datapoint.register();
+        this.typedDatapoint = new TypedDatapoint<>(this.datapoint, CODEC);
+        this.profile = new Profile();
+        this.profile.name = "Notch";
+        this.profile.level = 42;
+        this.profile.balance = 15230.75D;
+        this.profile.friends = new ArrayList<>();
+        this.profile.statistics = new HashMap<>();
+        for (int index = 0; index < 20; index++) {
+            this.profile.friends.add("friend-" + index);
+            this.profile.statistics.put("statistic-" + index, (long) index * 1000L);
+        }
+        this.jsonObject = CODEC.encode(this.profile);
+        this.typedDatapoint.save(this.profile, "profile").join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.datasite.terminate();
+    }
+
+    @Benchmark
+    public JsonObject encodeTree() {
+        return JsonParser.parseString(new Gson().toJson(this.profile)).getAsJsonObject();
+    }
+
+    @Benchmark
+    public JsonObject encodeCodec() {
+        return CODEC.encode(this.profile);
+    }
+
+    @Benchmark
+    public Profile decodeTree() {
+        return new Gson().fromJson(this.jsonObject, Profile.class);
+    }
+
+    @Benchmark
+    public Profile decodeCodec() {
+        return CODEC.decode(this.jsonObject);
+    }
+
+    @Benchmark
+    public void saveTree() {
+        this.datapoint.save(JsonParser.parseString(new Gson().toJson(this.profile)).getAsJsonObject(), "profile").join();
+    }
+
+    @Benchmark
+    public void saveTyped() {
+        this.typedDatapoint.save(this.profile, "profile").join();
+    }
+
+    @Benchmark
+    public Optional<Profile> getTree() {
+        return this.datapoint.get("profile").join().map(jsonObject -> new Gson().fromJson(jsonObject, Profile.class));
+    }
+
+    @Benchmark
+    public Optional<Profile> getTyped() {
+        return this.typedDatapoint.get("profile").join();
+    }
+
+    public static class Profile {
+
+        private String name;
+        private int level;
+        private double balance;
+        private ArrayList<String> friends;
+        private HashMap<String, Long> statistics;
+
+    }
+
+}
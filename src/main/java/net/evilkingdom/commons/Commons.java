@@ -1,12 +1,19 @@
 package net.evilkingdom.commons;
 
+import net.evilkingdom.commons.command.CommonsCommand;
+import org.bukkit.command.PluginCommand;
 import org.bukkit.plugin.java.JavaPlugin;
 
 public final class Commons extends JavaPlugin {
 
     @Override
     public void onEnable() {
-        // Plugin startup logic
+        final PluginCommand command = this.getCommand("commons");
+        if (command != null) {
+            final CommonsCommand commonsCommand = new CommonsCommand();
+            command.setExecutor(commonsCommand);
+            command.setTabCompleter(commonsCommand);
+        }
     }
 
     @Override
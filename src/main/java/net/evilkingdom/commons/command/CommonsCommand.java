@@ -0,0 +1,164 @@
+package net.evilkingdom.commons.command;
+
+import me.lucko.spark.api.Spark;
+import me.lucko.spark.api.SparkProvider;
+import me.lucko.spark.api.statistic.StatisticWindow;
+import me.lucko.spark.api.statistic.types.DoubleStatistic;
+import net.evilkingdom.commons.data.DataImplementor;
+import net.evilkingdom.commons.data.metrics.DatapointMetrics;
+import net.evilkingdom.commons.data.metrics.Histogram;
+import net.evilkingdom.commons.data.metrics.OperationMetrics;
+import net.evilkingdom.commons.data.metrics.enums.DatapointOperation;
+import net.evilkingdom.commons.data.objects.Datapoint;
+import net.evilkingdom.commons.data.objects.Datasite;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public class CommonsCommand implements CommandExecutor, TabCompleter {
+
+    private static final String PERMISSION = "commons.data.stats";
+
+    /**
+     * Allows you to handle the command.
+     * "/commons data stats" shows every datapoint, and "/commons data stats <datapoint>" shows every operation of a datapoint.
+     */
+    @Override
+    public boolean onCommand(final CommandSender sender, final Command command, final String label, final String[] args) {
+        if (args.length < 2 || !args[0].equalsIgnoreCase("data") || !args[1].equalsIgnoreCase("stats")) {
+            sender.sendMessage(ChatColor.RED + "Usage: /" + label + " data stats [datapoint]");
+            return true;
+        }
+        if (!sender.hasPermission(PERMISSION)) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to do that.");
+            return true;
+        }
+        this.getSparkSummary().ifPresent(sender::sendMessage);
+        if (args.length == 2) {
+            final ArrayList<Datapoint> points = this.getPoints();
+            if (points.isEmpty()) {
+                sender.sendMessage(ChatColor.GRAY + "There aren't any datapoints registered.");
+            }
+            for (final Datapoint point : points) {
+                sender.sendMessage(ChatColor.GOLD + point.getSite().getName() + "/" + point.getName());
+                final OperationMetrics get = point.getMetrics().getOperation(DatapointOperation.GET);
+                final OperationMetrics save = point.getMetrics().getOperation(DatapointOperation.SAVE);
+                sender.sendMessage(ChatColor.GRAY + "  get " + this.summarize(get) + ChatColor.GRAY + " | save " + this.summarize(save));
+            }
+            return true;
+        }
+        final Optional<Datapoint> optionalPoint = this.getPoints().stream()
+                .filter(point -> point.getName().equalsIgnoreCase(args[2]) || (point.getSite().getName() + "/" + point.getName()).equalsIgnoreCase(args[2]))
+                .findFirst();
+        if (optionalPoint.isEmpty()) {
+            sender.sendMessage(ChatColor.RED + "There isn't a datapoint called " + args[2] + ".");
+            return true;
+        }
+        final Datapoint point = optionalPoint.get();
+        final DatapointMetrics metrics = point.getMetrics();
+        sender.sendMessage(ChatColor.GOLD + point.getSite().getName() + "/" + point.getName() + ChatColor.GRAY + " (executor: "
+                + point.getSite().getExecutor().getActive() + " active, " + point.getSite().getExecutor().getQueued() + " queued)");
+        point.getFilter().ifPresent(filter -> sender.sendMessage(ChatColor.YELLOW + "  filter" + ChatColor.GRAY + ": ~" + filter.getApproximateCount() + " ids, "
+                + String.format(Locale.ROOT, "%.1fKB", filter.getMemoryUsage() / 1024.0) + ", fpp " + String.format(Locale.ROOT, "%.4f", filter.getCurrentFalsePositiveRate())
+                + ", " + filter.getNegatives() + "/" + filter.getQueries() + " lookups skipped"));
+        for (final DatapointOperation operation : DatapointOperation.values()) {
+            final OperationMetrics operationMetrics = metrics.getOperation(operation);
+            final Histogram latency = operationMetrics.getLatency();
+            if (latency.getCount() == 0L && operationMetrics.getInFlight() == 0) {
+                continue;
+            }
+            sender.sendMessage(ChatColor.YELLOW + "  " + operation.name().toLowerCase(Locale.ROOT) + ChatColor.GRAY + ": "
+                    + latency.getCount() + " ops, " + String.format(Locale.ROOT, "%.1f", operationMetrics.getRate(10)) + "/s, "
+                    + operationMetrics.getErrors() + " errors, " + operationMetrics.getInFlight() + " in flight");
+            sender.sendMessage(ChatColor.GRAY + "    p50 " + this.toMillis(latency.getPercentile(50.0))
+                    + " p90 " + this.toMillis(latency.getPercentile(90.0))
+                    + " p99 " + this.toMillis(latency.getPercentile(99.0))
+                    + " p99.9 " + this.toMillis(latency.getPercentile(99.9))
+                    + " max " + this.toMillis(latency.getMaximum()));
+            final Histogram payload = operationMetrics.getPayload();
+            if (payload.getCount() > 0L) {
+                sender.sendMessage(ChatColor.GRAY + "    payload mean " + Math.round(payload.getMean()) + " p99 " + payload.getPercentile(99.0) + " max " + payload.getMaximum() + " chars");
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(final CommandSender sender, final Command command, final String label, final String[] args) {
+        if (args.length == 1) {
+            return List.of("data");
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("data")) {
+            return List.of("stats");
+        }
+        if (args.length == 3 && args[0].equalsIgnoreCase("data") && args[1].equalsIgnoreCase("stats")) {
+            return this.getPoints().stream()
+                    .map(Datapoint::getName)
+                    .filter(name -> name.toLowerCase(Locale.ROOT).startsWith(args[2].toLowerCase(Locale.ROOT)))
+                    .collect(Collectors.toList());
+        }
+        return List.of();
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the command.
+     */
+    private ArrayList<Datapoint> getPoints() {
+        final ArrayList<Datapoint> points = new ArrayList<>();
+        for (final DataImplementor implementor : new ArrayList<>(DataImplementor.getImplementors())) {
+            for (final Datasite site : new ArrayList<>(implementor.getSites())) {
+                points.addAll(new ArrayList<>(site.getPoints()));
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the command.
+     */
+    private String summarize(final OperationMetrics operationMetrics) {
+        final Histogram latency = operationMetrics.getLatency();
+        return ChatColor.WHITE + String.format(Locale.ROOT, "%.1f", operationMetrics.getRate(10)) + "/s"
+                + ChatColor.GRAY + " p99 " + ChatColor.WHITE + this.toMillis(latency.getPercentile(99.0))
+                + (operationMetrics.getErrors() > 0L ? ChatColor.RED + " " + operationMetrics.getErrors() + " errors" : "");
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the command.
+     */
+    private String toMillis(final long nanoseconds) {
+        return String.format(Locale.ROOT, "%.2fms", nanoseconds / 1000000.0);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the command.
+     * Spark's api has no way to take in custom metrics, so the server's tps and cpu usage are shown next to the datapoint metrics instead.
+     */
+    private Optional<String> getSparkSummary() {
+        if (Bukkit.getPluginManager().getPlugin("spark") == null) {
+            return Optional.empty();
+        }
+        try {
+            final Spark spark = SparkProvider.get();
+            final DoubleStatistic<StatisticWindow.TicksPerSecond> tps = spark.tps();
+            final DoubleStatistic<StatisticWindow.CpuUsage> cpu = spark.cpuProcess();
+            final StringBuilder summary = new StringBuilder(ChatColor.AQUA + "spark" + ChatColor.GRAY + ":");
+            if (tps != null) {
+                summary.append(String.format(Locale.ROOT, " tps %.2f (1m %.2f)", tps.poll(StatisticWindow.TicksPerSecond.SECONDS_10), tps.poll(StatisticWindow.TicksPerSecond.MINUTES_1)));
+            }
+            summary.append(String.format(Locale.ROOT, " cpu %.1f%%", cpu.poll(StatisticWindow.CpuUsage.SECONDS_10) * 100.0));
+            return Optional.of(summary.toString());
+        } catch (final IllegalStateException | NoClassDefFoundError ignored) {
+            return Optional.empty();
+        }
+    }
+}
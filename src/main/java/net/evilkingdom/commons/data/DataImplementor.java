@@ -3,14 +3,16 @@ package net.evilkingdom.commons.data;
 import net.evilkingdom.commons.data.objects.Datasite;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.util.HashSet;
-import java.util.Optional;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DataImplementor {
 
-    private static final HashSet<DataImplementor> cache = new HashSet<>();
+    private static final ConcurrentHashMap<JavaPlugin, DataImplementor> cache = new ConcurrentHashMap<>();
     private final JavaPlugin plugin;
-    private final HashSet<Datasite> sites;
+    private final Set<Datasite> sites;
 
     /**
      * Allows you to create a DataImplementor.
@@ -21,24 +23,47 @@ public class DataImplementor {
     public DataImplementor(final JavaPlugin plugin) {
         this.plugin = plugin;
 
-        this.sites = new HashSet<>();
+        this.sites = ConcurrentHashMap.newKeySet();
 
-        cache.add(this);
+        cache.putIfAbsent(plugin, this);
     }
 
     /**
      * Allows you to retrieve the DataImplementor for a plugin.
-     * It will either pull it out of the cache or look for one if it doesn't exist.
+     * It will either pull it out of the cache or create one if it doesn't exist, and is safe to call from any thread.
      *
      * @param plugin ~ The plugin the DataImplementor is for.
      * @return The self class.
      */
     public static DataImplementor get(final JavaPlugin plugin) {
-        final Optional<DataImplementor> optionalImplementor = cache
-                .stream()
-                .filter(implementor -> implementor.getPlugin() == plugin)
-                .findFirst();
-        return optionalImplementor.orElseGet(() -> new DataImplementor(plugin));
+        final DataImplementor implementor = cache.get(plugin);
+        if (implementor != null) {
+            return implementor;
+        }
+        new DataImplementor(plugin);
+        return cache.get(plugin);
+    }
+
+    /**
+     * Allows you to retrieve every DataImplementor.
+     *
+     * @return Every DataImplementor.
+     */
+    public static Collection<DataImplementor> getImplementors() {
+        return cache.values();
+    }
+
+    /**
+     * Allows you to initialize many datasites at once.
+     * Every datasite is initialized in parallel on its own executor.
+     *
+     * @param datasites ~ The datasites to initialize.
+     * @return When every datasite has been initialized, or the first failure that stopped one.
+     */
+    public static CompletableFuture<Void> initializeAll(final Collection<? extends Datasite> datasites) {
+        return CompletableFuture.allOf(datasites.stream()
+                .map(Datasite::initializeAsync)
+                .toArray(CompletableFuture[]::new));
     }
 
     /**
@@ -52,10 +77,11 @@ public class DataImplementor {
 
     /**
      * Allows you to retrieve the implementor's sites.
+     * The set is safe to iterate while datasites are being initialized.
      *
      * @return The implementor's sites.
      */
-    public HashSet<Datasite> getSites() {
+    public Set<Datasite> getSites() {
         return this.sites;
     }
 }
@@ -0,0 +1,365 @@
+package net.evilkingdom.commons.data;
+
+import com.google.gson.JsonObject;
+import net.evilkingdom.commons.data.objects.Datapoint;
+import net.evilkingdom.commons.data.objects.DatapointCursor;
+import net.evilkingdom.commons.data.objects.Datasite;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+public class DataMigrator {
+
+    private static final String FINISHED = "finished";
+
+    private final Datasite source;
+    private final Datasite target;
+    private int batchSize;
+    private int parallelism;
+    private File checkpoint;
+    private Consumer<Report> progressHandler;
+
+    /**
+     * Allows you to create a migrator between two datasites.
+     * Every datapoint of the source is copied into the datapoint with the same name in the target, so both should be registered first.
+     * The source is streamed a batch at a time and only a bounded amount of batches are written at once, so memory stays flat however large a datapoint is.
+     *
+     * @param source ~ The datasite to copy from.
+     * @param target ~ The datasite to copy into.
+     */
+    public DataMigrator(final Datasite source, final Datasite target) {
+        this.source = source;
+        this.target = target;
+        this.batchSize = 1000;
+        this.parallelism = 4;
+        this.progressHandler = report -> {};
+    }
+
+    /**
+     * Allows you to migrate every datapoint.
+     * Datapoints are migrated one after another, on a thread of the migrator's own.
+     *
+     * @return The reports of every datapoint, or the failure that stopped the migration.
+     */
+    public CompletableFuture<ArrayList<Report>> migrate() {
+        final CompletableFuture<ArrayList<Report>> future = new CompletableFuture<>();
+        final Thread thread = new Thread(() -> {
+            try {
+                final Properties properties = this.loadCheckpoint();
+                final ArrayList<Report> reports = new ArrayList<>();
+                for (final Datapoint sourcePoint : new ArrayList<>(this.source.getPoints())) {
+                    final Datapoint targetPoint = this.target.getPoints().stream()
+                            .filter(point -> point.getName().equals(sourcePoint.getName()))
+                            .findFirst()
+                            .orElseThrow(() -> new IllegalStateException("The datapoint " + sourcePoint.getName() + " isn't registered in the datasite " + this.target.getName() + "."));
+                    reports.add(this.migrate(sourcePoint, targetPoint, properties));
+                }
+                future.complete(reports);
+            } catch (final Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        }, "DataMigrator-" + this.source.getName() + "-" + this.target.getName());
+        thread.setDaemon(true);
+        thread.start();
+        return future;
+    }
+
+    /**
+     * Allows you to set the migrator's batch size.
+     * This is the amount of json objects read and written at a time.
+     *
+     * @param batchSize ~ The migrator's batch size.
+     */
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Allows you to set the migrator's parallelism.
+     * This is the maximum amount of batches being written at once, so at most (parallelism + 1) * batch size json objects are held in memory.
+     *
+     * @param parallelism ~ The migrator's parallelism.
+     */
+    public void setParallelism(final int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Allows you to set the migrator's checkpoint file.
+     * The file remembers which datapoints have been migrated and how far into the current one the migration got, so a stopped migration can be run again and resume.
+     * Resuming walks the current datapoint from the start again and only copies the json objects the target doesn't have yet, since the source's order isn't stable between runs.
+     *
+     * @param checkpoint ~ The migrator's checkpoint file.
+     */
+    public void setCheckpoint(final File checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * Allows you to set the migrator's progress handler.
+     * The handler is called every time a batch has been written, from whichever thread wrote it.
+     *
+     * @param progressHandler ~ The migrator's progress handler.
+     */
+    public void setProgressHandler(final Consumer<Report> progressHandler) {
+        this.progressHandler = progressHandler;
+    }
+
+    /**
+     * Allows you to retrieve the migrator's source.
+     *
+     * @return The migrator's source.
+     */
+    public Datasite getSource() {
+        return this.source;
+    }
+
+    /**
+     * Allows you to retrieve the migrator's target.
+     *
+     * @return The migrator's target.
+     */
+    public Datasite getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the migrate method.
+     * Batches can finish out of order, so the checkpoint only moves past a batch once every batch before it has finished too.
+     * When resuming, every batch is checked against the target by identifier, so nothing is skipped however the source orders its json objects.
+     */
+    private Report migrate(final Datapoint sourcePoint, final Datapoint targetPoint, final Properties properties) throws Exception {
+        final String name = sourcePoint.getName();
+        final long total = sourcePoint.countAll().join();
+        if (FINISHED.equals(properties.getProperty(name))) {
+            final Report report = new Report(name, total, total, Optional.of(targetPoint.countAll().join()));
+            this.progressHandler.accept(report);
+            return report;
+        }
+        final boolean resuming = Long.parseLong(properties.getProperty(name, "0")) > 0L;
+        final Semaphore semaphore = new Semaphore(this.parallelism);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final TreeMap<Long, Integer> finished = new TreeMap<>();
+        final long[] watermark = {0L, 0L};
+        long sequence = 0L;
+        try (final DatapointCursor cursor = sourcePoint.stream(this.batchSize)) {
+            while (cursor.hasNext() && failure.get() == null) {
+                final HashMap<String, JsonObject> batch = new HashMap<>();
+                while (batch.size() < this.batchSize && cursor.hasNext()) {
+                    final JsonObject jsonObject = cursor.next();
+                    batch.put(cursor.getIdentifier(), jsonObject);
+                }
+                semaphore.acquire();
+                final long batchSequence = sequence++;
+                final int size = batch.size();
+                final CompletableFuture<HashMap<String, JsonObject>> copying = resuming ? this.missing(targetPoint, batch) : CompletableFuture.completedFuture(batch);
+                final CompletableFuture<Void> write = copying.thenCompose(copied -> targetPoint.saveAll(copied).thenCompose(ignored -> this.written(targetPoint, copied)));
+                write.whenComplete((ignored, throwable) -> {
+                    try {
+                        if (throwable != null) {
+                            failure.compareAndSet(null, throwable);
+                            return;
+                        }
+                        final long copied;
+                        synchronized (finished) {
+                            finished.put(batchSequence, size);
+                            while (!finished.isEmpty() && finished.firstKey() == watermark[1]) {
+                                watermark[0] += finished.pollFirstEntry().getValue();
+                                watermark[1]++;
+                            }
+                            copied = watermark[0];
+                            properties.setProperty(name, String.valueOf(copied));
+                            this.saveCheckpoint(properties);
+                        }
+                        this.progressHandler.accept(new Report(name, copied, total, Optional.empty()));
+                    } catch (final Throwable callbackThrowable) {
+                        failure.compareAndSet(null, callbackThrowable);
+                    } finally {
+                        semaphore.release();
+                    }
+                });
+            }
+        }
+        semaphore.acquire(this.parallelism);
+        if (failure.get() != null) {
+            throw new IllegalStateException("The migration of the datapoint " + name + " failed.", failure.get());
+        }
+        targetPoint.flush();
+        final long targetCount = targetPoint.countAll().join();
+        synchronized (finished) {
+            properties.setProperty(name, FINISHED);
+            this.saveCheckpoint(properties);
+        }
+        final Report report = new Report(name, watermark[0], total, Optional.of(targetCount));
+        this.progressHandler.accept(report);
+        return report;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the migrate method.
+     * With write-behind enabled on the target a save is only staged, so the batch is flushed before it counts as copied.
+     * That keeps the amount of staged json objects bounded by the parallelism, and the checkpoint never moves past json objects that only exist in memory.
+     */
+    private CompletableFuture<Void> written(final Datapoint targetPoint, final HashMap<String, JsonObject> batch) {
+        if (targetPoint.getWriteBehindCache().isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return targetPoint.flushAsync().thenRun(() -> targetPoint.getWriteBehindCache().ifPresent(writeBehindCache -> {
+            if (batch.keySet().stream().anyMatch(writeBehindCache::isDirty)) {
+                throw new IllegalStateException("A batch couldn't be written to the datapoint " + targetPoint.getName() + ".");
+            }
+        }));
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the migrate method.
+     * Only the json objects the target doesn't have yet are kept, so a resumed migration doesn't copy anything twice.
+     */
+    private CompletableFuture<HashMap<String, JsonObject>> missing(final Datapoint targetPoint, final HashMap<String, JsonObject> batch) {
+        final HashMap<String, CompletableFuture<Boolean>> checks = new HashMap<>();
+        batch.keySet().forEach(identifier -> checks.put(identifier, targetPoint.exists(identifier)));
+        return CompletableFuture.allOf(checks.values().toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            final HashMap<String, JsonObject> missing = new HashMap<>();
+            checks.forEach((identifier, check) -> {
+                if (!check.join()) {
+                    missing.put(identifier, batch.get(identifier));
+                }
+            });
+            return missing;
+        });
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the checkpoint.
+     */
+    private Properties loadCheckpoint() throws IOException {
+        final Properties properties = new Properties();
+        if (this.checkpoint != null && this.checkpoint.exists()) {
+            try (final InputStream inputStream = new FileInputStream(this.checkpoint)) {
+                properties.load(inputStream);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the checkpoint.
+     * The checkpoint is written to a temporary file and renamed over the old one, so a crash never leaves it half-written.
+     */
+    private void saveCheckpoint(final Properties properties) {
+        if (this.checkpoint == null) {
+            return;
+        }
+        final File temporaryFile = new File(this.checkpoint.getPath() + ".tmp");
+        try {
+            if (this.checkpoint.getParentFile() != null) {
+                this.checkpoint.getParentFile().mkdirs();
+            }
+            try (final OutputStream outputStream = new FileOutputStream(temporaryFile)) {
+                properties.store(outputStream, "DataMigrator " + this.source.getName() + " -> " + this.target.getName());
+            }
+            try {
+                Files.move(temporaryFile.toPath(), this.checkpoint.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+                Files.move(temporaryFile.toPath(), this.checkpoint.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    public static class Report {
+
+        private final String point;
+        private final long copied;
+        private final long total;
+        private final Optional<Long> targetCount;
+
+        /**
+         * Allows you to create a report.
+         *
+         * @param point       ~ The name of the datapoint.
+         * @param copied      ~ The amount of json objects copied so far.
+         * @param total       ~ The amount of json objects in the source when the datapoint's migration started.
+         * @param targetCount ~ The amount of json objects in the target once the datapoint has been migrated.
+         */
+        public Report(final String point, final long copied, final long total, final Optional<Long> targetCount) {
+            this.point = point;
+            this.copied = copied;
+            this.total = total;
+            this.targetCount = targetCount;
+        }
+
+        /**
+         * Allows you to retrieve the name of the datapoint.
+         *
+         * @return The name of the datapoint.
+         */
+        public String getPoint() {
+            return this.point;
+        }
+
+        /**
+         * Allows you to retrieve the amount of json objects copied so far.
+         *
+         * @return The amount of json objects copied so far.
+         */
+        public long getCopied() {
+            return this.copied;
+        }
+
+        /**
+         * Allows you to retrieve the amount of json objects in the source.
+         *
+         * @return The amount of json objects in the source when the datapoint's migration started.
+         */
+        public long getTotal() {
+            return this.total;
+        }
+
+        /**
+         * Allows you to retrieve the amount of json objects in the target.
+         *
+         * @return The amount of json objects in the target if the datapoint has been migrated.
+         */
+        public Optional<Long> getTargetCount() {
+            return this.targetCount;
+        }
+
+        /**
+         * Allows you to retrieve if the datapoint has been migrated.
+         *
+         * @return If the datapoint has been migrated.
+         */
+        public boolean isFinished() {
+            return this.targetCount.isPresent();
+        }
+
+        /**
+         * Allows you to retrieve if the datapoint has been migrated and the target has at least as many json objects as the source.
+         * The target can have more if it already had json objects of its own.
+         *
+         * @return If the datapoint has been migrated and verified.
+         */
+        public boolean isVerified() {
+            return this.targetCount.isPresent() && this.targetCount.get() >= this.total;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package net.evilkingdom.commons.data.cache;
+
+import com.google.gson.JsonObject;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ReadThroughCache {
+
+    private static final int STRIPES = 64;
+
+    private final long maximumEntries;
+    private final long maximumBytes;
+    private final long expireAfterWrite;
+    private final long expireAfterAccess;
+    private final LinkedHashMap<String, Entry> entries;
+    private final AtomicLongArray generations;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private long bytes;
+
+    /**
+     * Allows you to create a read-through cache.
+     * Entries are evicted in least recently used order once either limit is reached.
+     *
+     * @param maximumEntries    ~ The maximum amount of entries, or 0 for no limit.
+     * @param maximumBytes      ~ The maximum approximate size (in bytes) of every entry combined, or 0 for no limit.
+     * @param expireAfterWrite  ~ The time (in milliseconds) an entry lives after it's written, or 0 for no expiry.
+     * @param expireAfterAccess ~ The time (in milliseconds) an entry lives after it's last accessed, or 0 for no expiry.
+     */
+    public ReadThroughCache(final long maximumEntries, final long maximumBytes, final long expireAfterWrite, final long expireAfterAccess) {
+        this.maximumEntries = maximumEntries;
+        this.maximumBytes = maximumBytes;
+        this.expireAfterWrite = expireAfterWrite;
+        this.expireAfterAccess = expireAfterAccess;
+        this.entries = new LinkedHashMap<>(16, 0.75F, true);
+        this.generations = new AtomicLongArray(STRIPES);
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * Allows you to retrieve a cached json object from an identifier.
+     * This counts towards the cache's hits and misses.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return A copy of the cached json object if there is one.
+     */
+    public Optional<JsonObject> get(final String identifier) {
+        final long now = System.currentTimeMillis();
+        synchronized (this.entries) {
+            final Entry entry = this.entries.get(identifier);
+            if (entry == null || this.isExpired(entry, now)) {
+                if (entry != null) {
+                    this.remove(identifier);
+                }
+                this.misses.increment();
+                return Optional.empty();
+            }
+            entry.accessed = now;
+            this.hits.increment();
+            return Optional.of(entry.jsonObject.deepCopy());
+        }
+    }
+
+    /**
+     * Allows you to retrieve if an identifier is cached.
+     * Unlike get, this doesn't count towards the cache's hits and misses or refresh the entry.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return If the identifier is cached.
+     */
+    public boolean contains(final String identifier) {
+        synchronized (this.entries) {
+            final Entry entry = this.entries.get(identifier);
+            return entry != null && !this.isExpired(entry, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Allows you to put a json object into the cache.
+     * This should be used whenever a json object is saved, so a read after the save returns the new value.
+     *
+     * @param jsonObject ~ The json object to put.
+     * @param identifier ~ The identifier of the json object.
+     */
+    public void put(final JsonObject jsonObject, final String identifier) {
+        this.generations.incrementAndGet(this.stripe(identifier));
+        synchronized (this.entries) {
+            this.insert(jsonObject, identifier);
+        }
+    }
+
+    /**
+     * Allows you to retrieve the identifier's current generation.
+     * This should be taken before a read is started and handed to load once it's done.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return The identifier's current generation.
+     */
+    public long getGeneration(final String identifier) {
+        return this.generations.get(this.stripe(identifier));
+    }
+
+    /**
+     * Allows you to load a json object that was read into the cache.
+     * It's ignored if the identifier was saved or invalidated since the generation was taken, so a stale read never overwrites a newer save.
+     *
+     * @param jsonObject ~ The json object that was read.
+     * @param identifier ~ The identifier of the json object.
+     * @param generation ~ The identifier's generation from before the read started.
+     */
+    public void load(final JsonObject jsonObject, final String identifier, final long generation) {
+        synchronized (this.entries) {
+            if (this.generations.get(this.stripe(identifier)) != generation) {
+                return;
+            }
+            this.insert(jsonObject, identifier);
+        }
+    }
+
+    /**
+     * Allows you to invalidate an identifier.
+     *
+     * @param identifier ~ The identifier of the json object.
+     */
+    public void invalidate(final String identifier) {
+        this.generations.incrementAndGet(this.stripe(identifier));
+        synchronized (this.entries) {
+            this.remove(identifier);
+        }
+    }
+
+    /**
+     * Allows you to invalidate every identifier.
+     */
+    public void invalidateAll() {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            this.generations.incrementAndGet(stripe);
+        }
+        synchronized (this.entries) {
+            this.entries.clear();
+            this.bytes = 0L;
+        }
+    }
+
+    /**
+     * Allows you to retrieve the amount of cached entries.
+     *
+     * @return The amount of cached entries.
+     */
+    public int getSize() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    /**
+     * Allows you to retrieve the approximate size of every cached entry combined.
+     * This is only tracked if the cache has a maximum size in bytes.
+     *
+     * @return The approximate size (in bytes) of every cached entry combined.
+     */
+    public long getBytes() {
+        synchronized (this.entries) {
+            return this.bytes;
+        }
+    }
+
+    /**
+     * Allows you to retrieve the cache's hits.
+     *
+     * @return The cache's hits.
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Allows you to retrieve the cache's misses.
+     *
+     * @return The cache's misses.
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Allows you to retrieve the cache's evictions.
+     *
+     * @return The cache's evictions.
+     */
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Allows you to retrieve the cache's hit rate.
+     *
+     * @return The cache's hit rate between 0 and 1.
+     */
+    public double getHitRate() {
+        final long hits = this.getHits();
+        final long requests = hits + this.getMisses();
+        return requests == 0L ? 0.0 : (double) hits / requests;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of put and load.
+     * The caller must hold the entries' lock.
+     */
+    private void insert(final JsonObject jsonObject, final String identifier) {
+        final long now = System.currentTimeMillis();
+        final long size = this.maximumBytes > 0L ? jsonObject.toString().length() : 0L;
+        final Entry previous = this.entries.put(identifier, new Entry(jsonObject.deepCopy(), size, now));
+        if (previous != null) {
+            this.bytes -= previous.size;
+        }
+        this.bytes += size;
+        this.evict(now);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of insert.
+     * The caller must hold the entries' lock.
+     */
+    private void evict(final long now) {
+        final Iterator<Map.Entry<String, Entry>> iterator = this.entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Entry entry = iterator.next().getValue();
+            final boolean overLimit = (this.maximumEntries > 0L && this.entries.size() > this.maximumEntries)
+                    || (this.maximumBytes > 0L && this.bytes > this.maximumBytes);
+            if (!overLimit && !this.isExpired(entry, now)) {
+                break;
+            }
+            iterator.remove();
+            this.bytes -= entry.size;
+            this.evictions.increment();
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of get and invalidate.
+     * The caller must hold the entries' lock.
+     */
+    private void remove(final String identifier) {
+        final Entry entry = this.entries.remove(identifier);
+        if (entry != null) {
+            this.bytes -= entry.size;
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the cache.
+     */
+    private boolean isExpired(final Entry entry, final long now) {
+        return (this.expireAfterWrite > 0L && now - entry.written >= this.expireAfterWrite)
+                || (this.expireAfterAccess > 0L && now - entry.accessed >= this.expireAfterAccess);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the cache.
+     */
+    private int stripe(final String identifier) {
+        return (identifier.hashCode() & 0x7FFFFFFF) % STRIPES;
+    }
+
+    private static class Entry {
+
+        private final JsonObject jsonObject;
+        private final long size;
+        private final long written;
+        private long accessed;
+
+        /**
+         * Allows you to create a cache entry.
+         *
+         * @param jsonObject ~ The cached json object.
+         * @param size       ~ The approximate size (in bytes) of the json object.
+         * @param now        ~ The time the entry was written.
+         */
+        private Entry(final JsonObject jsonObject, final long size, final long now) {
+            this.jsonObject = jsonObject;
+            this.size = size;
+            this.written = now;
+            this.accessed = now;
+        }
+    }
+}
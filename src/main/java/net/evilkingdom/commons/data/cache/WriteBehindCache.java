@@ -0,0 +1,217 @@
+package net.evilkingdom.commons.data.cache;
+
+import com.google.gson.JsonObject;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+public class WriteBehindCache {
+
+    private static final JsonObject DELETED = new JsonObject();
+
+    private final JavaPlugin plugin;
+    private final BiFunction<JsonObject, String, CompletableFuture<Void>> writer;
+    private final Function<String, CompletableFuture<Void>> remover;
+    private final long interval;
+    private final int threshold;
+    private final ConcurrentHashMap<String, JsonObject> dirty;
+    private final AtomicBoolean flushScheduled;
+    private final Object flushLock;
+    private CompletableFuture<Void> lastFlush;
+    private BukkitTask task;
+
+    /**
+     * Allows you to create a write-behind cache.
+     * Saves are kept in memory and written through the writer once the interval passes or the threshold is reached.
+     *
+     * @param plugin    ~ The plugin the cache's flushes are scheduled for.
+     * @param writer    ~ The writer that persists a json object for an identifier.
+     * @param remover   ~ The remover that deletes the json object of an identifier.
+     * @param interval  ~ The interval (in ticks) between flushes.
+     * @param threshold ~ The amount of dirty identifiers that will trigger an early flush.
+     */
+    public WriteBehindCache(final JavaPlugin plugin, final BiFunction<JsonObject, String, CompletableFuture<Void>> writer,
+                            final Function<String, CompletableFuture<Void>> remover, final long interval, final int threshold) {
+        this.plugin = plugin;
+        this.writer = writer;
+        this.remover = remover;
+        this.interval = interval;
+        this.threshold = threshold;
+        this.dirty = new ConcurrentHashMap<>();
+        this.flushScheduled = new AtomicBoolean(false);
+        this.flushLock = new Object();
+        this.lastFlush = CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Allows you to start the cache's flush timer.
+     */
+    public void start() {
+        this.task = Bukkit.getScheduler().runTaskTimerAsynchronously(this.plugin, this::flush, this.interval, this.interval);
+    }
+
+    /**
+     * Allows you to stop the cache's flush timer.
+     * This will force a final flush on the calling thread so nothing is lost.
+     */
+    public void stop() {
+        if (this.task != null) {
+            this.task.cancel();
+            this.task = null;
+        }
+        this.flush();
+    }
+
+    /**
+     * Allows you to stage a json object to be written.
+     * Staging the same identifier multiple times before a flush will only result in the latest json object being written.
+     *
+     * @param jsonObject ~ The json object to stage.
+     * @param identifier ~ The identifier of the json object.
+     */
+    public void stage(final JsonObject jsonObject, final String identifier) {
+        this.dirty.put(identifier, jsonObject.deepCopy());
+        this.checkThreshold();
+    }
+
+    /**
+     * Allows you to stage a deletion.
+     * The deletion replaces anything staged for the identifier, and is carried out on the next flush.
+     *
+     * @param identifier ~ The identifier of the json object.
+     */
+    public void stageDeletion(final String identifier) {
+        this.dirty.put(identifier, DELETED);
+        this.checkThreshold();
+    }
+
+    /**
+     * Allows you to retrieve a staged json object from an identifier.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return The staged json object if there is one and it isn't a deletion.
+     */
+    public Optional<JsonObject> get(final String identifier) {
+        final JsonObject jsonObject = this.dirty.get(identifier);
+        if (jsonObject == null || jsonObject == DELETED) {
+            return Optional.empty();
+        }
+        return Optional.of(jsonObject.deepCopy());
+    }
+
+    /**
+     * Allows you to retrieve if an identifier has a staged deletion.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return If the identifier has a staged deletion.
+     */
+    public boolean isDeleted(final String identifier) {
+        return this.dirty.get(identifier) == DELETED;
+    }
+
+    /**
+     * Allows you to retrieve if an identifier has a staged json object.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return If the identifier has a staged json object.
+     */
+    public boolean isDirty(final String identifier) {
+        return this.dirty.containsKey(identifier);
+    }
+
+    /**
+     * Allows you to retrieve the amount of dirty identifiers.
+     *
+     * @return The amount of dirty identifiers.
+     */
+    public int getDirtyCount() {
+        return this.dirty.size();
+    }
+
+    /**
+     * Allows you to write every staged json object.
+     * A staged json object stays readable until it has been written, and it's only cleared if it wasn't replaced during the write.
+     * This will block until every write has completed, so it should never be called from the datasite's executor.
+     */
+    public void flush() {
+        this.flushAsync().join();
+    }
+
+    /**
+     * Allows you to write every staged json object without blocking.
+     * Flushes run one after another, so a flush starts once the one before it has finished and writes whatever is staged by then.
+     *
+     * @return When every write has completed, which never fails since a failed write stays staged for the next flush.
+     */
+    public CompletableFuture<Void> flushAsync() {
+        synchronized (this.flushLock) {
+            this.lastFlush = this.lastFlush.thenCompose(ignored -> this.writeStaged());
+            return this.lastFlush;
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the flush methods.
+     */
+    private CompletableFuture<Void> writeStaged() {
+        this.flushScheduled.set(false);
+        final ArrayList<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (final Map.Entry<String, JsonObject> entry : this.dirty.entrySet()) {
+            final JsonObject jsonObject = entry.getValue();
+            CompletableFuture<Void> write;
+            try {
+                write = jsonObject == DELETED ? this.remover.apply(entry.getKey()) : this.writer.apply(jsonObject, entry.getKey());
+            } catch (final RuntimeException runtimeException) {
+                write = CompletableFuture.failedFuture(runtimeException);
+            }
+            writes.add(write.thenRun(() -> this.dirty.computeIfPresent(entry.getKey(), (identifier, staged) -> staged == jsonObject ? null : staged)));
+        }
+        return CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).exceptionally(throwable -> null);
+    }
+
+    /**
+     * Allows you to retrieve the staged identifiers.
+     * Identifiers with a staged deletion are included.
+     *
+     * @return The staged identifiers.
+     */
+    public ArrayList<String> getDirtyIdentifiers() {
+        return new ArrayList<>(this.dirty.keySet());
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the stage methods.
+     */
+    private void checkThreshold() {
+        if (this.dirty.size() >= this.threshold && this.flushScheduled.compareAndSet(false, true)) {
+            Bukkit.getScheduler().runTaskAsynchronously(this.plugin, this::flush);
+        }
+    }
+
+    /**
+     * Allows you to retrieve the cache's flush interval.
+     *
+     * @return The cache's flush interval (in ticks).
+     */
+    public long getInterval() {
+        return this.interval;
+    }
+
+    /**
+     * Allows you to retrieve the cache's flush threshold.
+     *
+     * @return The cache's flush threshold.
+     */
+    public int getThreshold() {
+        return this.threshold;
+    }
+}
@@ -0,0 +1,22 @@
+package net.evilkingdom.commons.data.codec;
+
+import com.google.gson.JsonObject;
+
+public interface DatapointCodec<T> {
+
+    /**
+     * Called to turn a value into the json object that's saved for it.
+     *
+     * @param value ~ The value.
+     * @return The json object.
+     */
+    JsonObject encode(final T value);
+
+    /**
+     * Called to turn a json object that was read back into a value.
+     *
+     * @param jsonObject ~ The json object.
+     * @return The value.
+     */
+    T decode(final JsonObject jsonObject);
+}
@@ -0,0 +1,89 @@
+package net.evilkingdom.commons.data.codec;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+public class GsonCodec<T> implements DatapointCodec<T> {
+
+    public static final Gson GSON = new Gson();
+
+    private static final ConcurrentHashMap<Class<?>, GsonCodec<?>> cache = new ConcurrentHashMap<>();
+
+    private final TypeToken<T> type;
+    private final TypeAdapter<T> adapter;
+
+    /**
+     * Allows you to create a codec for a type.
+     * The type's adapter is looked up once, so its fields are only reflected on when the codec is created, and values are walked straight into and out of json trees without going through strings.
+     *
+     * @param gson ~ The gson instance to look the type's adapter up from.
+     * @param type ~ The type.
+     */
+    public GsonCodec(final Gson gson, final TypeToken<T> type) {
+        this.type = type;
+        this.adapter = gson.getAdapter(type);
+    }
+
+    /**
+     * Allows you to create a codec for a type.
+     * The type's adapter is looked up from the shared gson instance.
+     *
+     * @param type ~ The type.
+     */
+    public GsonCodec(final TypeToken<T> type) {
+        this(GSON, type);
+    }
+
+    /**
+     * Allows you to retrieve the codec for a class.
+     * It will either pull it out of the cache or create one if it doesn't exist, and is safe to call from any thread.
+     *
+     * @param clazz ~ The class.
+     * @return The codec for the class.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> GsonCodec<T> of(final Class<T> clazz) {
+        return (GsonCodec<T>) cache.computeIfAbsent(clazz, ignored -> new GsonCodec<>(TypeToken.get(clazz)));
+    }
+
+    /**
+     * Allows you to retrieve the codec's type.
+     *
+     * @return The codec's type.
+     */
+    public TypeToken<T> getType() {
+        return this.type;
+    }
+
+    /**
+     * Called to turn a value into the json object that's saved for it.
+     *
+     * @param value ~ The value.
+     * @return The json object.
+     * @throws IllegalArgumentException If the value doesn't turn into a json object.
+     */
+    @Override
+    public JsonObject encode(final T value) {
+        final JsonElement jsonElement = this.adapter.toJsonTree(value);
+        if (!jsonElement.isJsonObject()) {
+            throw new IllegalArgumentException("The type " + this.type + " can't be saved, since it isn't encoded as an object.");
+        }
+        return jsonElement.getAsJsonObject();
+    }
+
+    /**
+     * Called to turn a json object that was read back into a value.
+     *
+     * @param jsonObject ~ The json object.
+     * @return The value.
+     */
+    @Override
+    public T decode(final JsonObject jsonObject) {
+        return this.adapter.fromJsonTree(jsonObject);
+    }
+}
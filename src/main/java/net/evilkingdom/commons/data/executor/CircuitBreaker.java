@@ -0,0 +1,135 @@
+package net.evilkingdom.commons.data.executor;
+
+import net.evilkingdom.commons.data.executor.enums.CircuitState;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public class CircuitBreaker {
+
+    private final String name;
+    private final int failureThreshold;
+    private final long cooldown;
+    private CircuitState state;
+    private int failures;
+    private long openedAt;
+    private boolean trialing;
+
+    /**
+     * Allows you to create a circuit breaker.
+     * The circuit opens once enough calls in a row have failed, and every call then fails straight away until the cooldown has passed.
+     * After the cooldown a single trial call is let through, which closes the circuit if it succeeds or opens it again if it fails.
+     *
+     * @param name             ~ The name of the circuit, used in its failures.
+     * @param failureThreshold ~ The amount of failed calls in a row that opens the circuit.
+     * @param cooldown         ~ The time (in milliseconds) the circuit stays open before a trial call.
+     */
+    public CircuitBreaker(final String name, final int failureThreshold, final long cooldown) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.cooldown = cooldown;
+        this.state = CircuitState.CLOSED;
+    }
+
+    /**
+     * Allows you to ask the circuit if a call may go through.
+     * Every call that's allowed must report its outcome through success or failure.
+     *
+     * @return If the call may go through.
+     */
+    public synchronized boolean allow() {
+        switch (this.state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() - this.openedAt < this.cooldown) {
+                    return false;
+                }
+                this.state = CircuitState.HALF_OPEN;
+                this.trialing = true;
+                return true;
+            default:
+                if (this.trialing) {
+                    return false;
+                }
+                this.trialing = true;
+                return true;
+        }
+    }
+
+    /**
+     * Allows you to report that a call succeeded.
+     */
+    public synchronized void success() {
+        this.state = CircuitState.CLOSED;
+        this.failures = 0;
+        this.trialing = false;
+    }
+
+    /**
+     * Allows you to report that a call failed.
+     */
+    public synchronized void failure() {
+        this.failures++;
+        this.trialing = false;
+        if (this.state == CircuitState.HALF_OPEN || this.failures >= this.failureThreshold) {
+            this.state = CircuitState.OPEN;
+            this.openedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Allows you to make a call through the circuit.
+     * If the circuit is open the call isn't made and the future fails straight away.
+     *
+     * @param supplier ~ The supplier that makes the call.
+     * @return The call's future.
+     */
+    public <T> CompletableFuture<T> guard(final Supplier<CompletableFuture<T>> supplier) {
+        if (!this.allow()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("The circuit " + this.name + " is open."));
+        }
+        final CompletableFuture<T> future;
+        try {
+            future = supplier.get();
+        } catch (final RuntimeException runtimeException) {
+            this.failure();
+            throw runtimeException;
+        }
+        future.whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                this.failure();
+            } else {
+                this.success();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Allows you to retrieve the circuit's state.
+     *
+     * @return The circuit's state.
+     */
+    public synchronized CircuitState getState() {
+        return this.state;
+    }
+
+    /**
+     * Allows you to retrieve the amount of calls in a row that have failed.
+     *
+     * @return The amount of calls in a row that have failed.
+     */
+    public synchronized int getFailures() {
+        return this.failures;
+    }
+
+    /**
+     * Allows you to retrieve the circuit's cooldown.
+     *
+     * @return The time (in milliseconds) the circuit stays open before a trial call.
+     */
+    public long getCooldown() {
+        return this.cooldown;
+    }
+}
@@ -0,0 +1,312 @@
+package net.evilkingdom.commons.data.executor;
+
+import net.evilkingdom.commons.data.executor.enums.RejectionPolicy;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class DatasiteExecutor implements Executor {
+
+    private final String name;
+    private final int threads;
+    private final int queueCapacity;
+    private final RejectionPolicy rejectionPolicy;
+    private final boolean virtual;
+    private final ExecutorService executorService;
+    private final Semaphore permits;
+    private final AtomicInteger queued, active;
+    private final LongAdder completed, rejected;
+    private final ThreadLocal<Boolean> running;
+
+    /**
+     * Allows you to create an executor for a datasite.
+     * Every blocking call a datasite makes runs here instead of the common pool, so slow disk or database work can't starve other plugins.
+     *
+     * @param name            ~ The name of the executor's threads.
+     * @param threads         ~ The amount of threads (at least 2).
+     * @param queueCapacity   ~ The amount of tasks that can wait for a thread.
+     * @param rejectionPolicy ~ What happens to a task once the queue is full.
+     * @param virtual         ~ If virtual threads should be used when the runtime supports them.
+     */
+    public DatasiteExecutor(final String name, final int threads, final int queueCapacity, final RejectionPolicy rejectionPolicy, final boolean virtual) {
+        this.name = name;
+        this.threads = Math.max(2, threads);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.rejectionPolicy = rejectionPolicy;
+        this.queued = new AtomicInteger();
+        this.active = new AtomicInteger();
+        this.completed = new LongAdder();
+        this.rejected = new LongAdder();
+        this.running = ThreadLocal.withInitial(() -> false);
+        final ExecutorService virtualExecutorService = virtual ? createVirtualExecutorService() : null;
+        if (virtualExecutorService != null) {
+            this.virtual = true;
+            this.executorService = virtualExecutorService;
+            this.permits = new Semaphore(this.threads + this.queueCapacity);
+        } else {
+            this.virtual = false;
+            final AtomicInteger threadCount = new AtomicInteger();
+            final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(this.threads, this.threads, 60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(this.queueCapacity), runnable -> {
+                final Thread thread = new Thread(runnable, this.name + "-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, this::reject);
+            threadPoolExecutor.allowCoreThreadTimeOut(true);
+            this.executorService = threadPoolExecutor;
+            this.permits = null;
+        }
+    }
+
+    /**
+     * Allows you to create an executor for a datasite with the default settings.
+     * This is a bounded platform pool sized to the processors, with a queue of 10,000 tasks that runs overflow on the caller.
+     *
+     * @param name ~ The name of the executor's threads.
+     */
+    public DatasiteExecutor(final String name) {
+        this(name, Math.max(4, Runtime.getRuntime().availableProcessors()), 10000, RejectionPolicy.CALLER_RUNS, false);
+    }
+
+    /**
+     * Allows you to execute a task on the executor.
+     *
+     * @param runnable ~ The task to execute.
+     * @throws RejectedExecutionException If the queue is full and the rejection policy is abort, or the executor is shut down.
+     */
+    @Override
+    public void execute(final Runnable runnable) {
+        if (this.permits == null) {
+            this.queued.incrementAndGet();
+            try {
+                this.executorService.execute(this.wrap(runnable, false));
+            } catch (final RejectedExecutionException rejectedExecutionException) {
+                this.queued.decrementAndGet();
+                throw rejectedExecutionException;
+            }
+            return;
+        }
+        if (!this.permits.tryAcquire()) {
+            this.rejected.increment();
+            if (this.executorService.isShutdown()) {
+                throw new RejectedExecutionException("The executor " + this.name + " has been shut down.");
+            }
+            switch (this.rejectionPolicy) {
+                case CALLER_RUNS:
+                    this.queued.incrementAndGet();
+                    this.wrap(runnable, false).run();
+                    return;
+                case BLOCK:
+                    try {
+                        this.permits.acquire();
+                    } catch (final InterruptedException interruptedException) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("The executor " + this.name + " was interrupted while waiting for room.");
+                    }
+                    break;
+                default:
+                    throw new RejectedExecutionException("The executor " + this.name + " is full (" + this.queueCapacity + " queued tasks).");
+            }
+        }
+        this.queued.incrementAndGet();
+        try {
+            this.executorService.execute(this.wrap(runnable, true));
+        } catch (final RejectedExecutionException rejectedExecutionException) {
+            this.queued.decrementAndGet();
+            this.permits.release();
+            throw rejectedExecutionException;
+        }
+    }
+
+    /**
+     * Allows you to shut the executor down.
+     * Queued tasks still run in the order they were submitted, and this waits for them for up to the timeout.
+     *
+     * @param timeout ~ The maximum time (in milliseconds) to wait for queued tasks.
+     * @return If every queued task finished within the timeout.
+     */
+    public boolean shutdown(final long timeout) {
+        this.executorService.shutdown();
+        try {
+            if (this.executorService.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        this.executorService.shutdownNow();
+        return false;
+    }
+
+    /**
+     * Allows you to retrieve if the executor has been shut down.
+     *
+     * @return If the executor has been shut down.
+     */
+    public boolean isShutdown() {
+        return this.executorService.isShutdown();
+    }
+
+    /**
+     * Allows you to retrieve if the calling thread is running one of the executor's tasks.
+     * Code running here must never wait on other tasks of the executor, since every thread could end up waiting and none would be left to run them.
+     *
+     * @return If the calling thread is running one of the executor's tasks.
+     */
+    public boolean isExecutorThread() {
+        return this.running.get();
+    }
+
+    /**
+     * Allows you to retrieve the executor's name.
+     *
+     * @return The executor's name.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Allows you to retrieve the executor's amount of threads.
+     * With virtual threads this is only used to size the queue limit.
+     *
+     * @return The executor's amount of threads.
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /**
+     * Allows you to retrieve the executor's queue capacity.
+     *
+     * @return The executor's queue capacity.
+     */
+    public int getQueueCapacity() {
+        return this.queueCapacity;
+    }
+
+    /**
+     * Allows you to retrieve the executor's rejection policy.
+     *
+     * @return The executor's rejection policy.
+     */
+    public RejectionPolicy getRejectionPolicy() {
+        return this.rejectionPolicy;
+    }
+
+    /**
+     * Allows you to retrieve if the executor runs on virtual threads.
+     * This is false when virtual threads were asked for but the runtime doesn't support them.
+     *
+     * @return If the executor runs on virtual threads.
+     */
+    public boolean isVirtual() {
+        return this.virtual;
+    }
+
+    /**
+     * Allows you to retrieve the amount of tasks waiting for a thread.
+     *
+     * @return The amount of tasks waiting for a thread.
+     */
+    public int getQueued() {
+        return this.queued.get();
+    }
+
+    /**
+     * Allows you to retrieve the amount of tasks currently running.
+     *
+     * @return The amount of tasks currently running.
+     */
+    public int getActive() {
+        return this.active.get();
+    }
+
+    /**
+     * Allows you to retrieve the amount of tasks that have finished.
+     *
+     * @return The amount of tasks that have finished.
+     */
+    public long getCompleted() {
+        return this.completed.sum();
+    }
+
+    /**
+     * Allows you to retrieve the amount of tasks that hit a full queue.
+     * This counts every task the rejection policy had to deal with, including ones that were then run on the caller or waited.
+     *
+     * @return The amount of tasks that hit a full queue.
+     */
+    public long getRejected() {
+        return this.rejected.sum();
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the executor.
+     * The wrapped task keeps the queue and activity metrics up to date, and gives back its permit if it held one.
+     */
+    private Runnable wrap(final Runnable runnable, final boolean permitted) {
+        return () -> {
+            this.queued.decrementAndGet();
+            this.active.incrementAndGet();
+            final boolean nested = this.running.get();
+            this.running.set(true);
+            try {
+                runnable.run();
+            } finally {
+                this.running.set(nested);
+                this.active.decrementAndGet();
+                this.completed.increment();
+                if (permitted) {
+                    this.permits.release();
+                }
+            }
+        };
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the constructor.
+     * This is the rejection handler of the platform pool, which is called once its queue is full.
+     */
+    private void reject(final Runnable task, final ThreadPoolExecutor executor) {
+        this.rejected.increment();
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("The executor " + this.name + " has been shut down.");
+        }
+        switch (this.rejectionPolicy) {
+            case CALLER_RUNS:
+                task.run();
+                return;
+            case BLOCK:
+                try {
+                    executor.getQueue().put(task);
+                } catch (final InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException("The executor " + this.name + " was interrupted while waiting for room.");
+                }
+                return;
+            default:
+                throw new RejectedExecutionException("The executor " + this.name + " is full (" + this.queueCapacity + " queued tasks).");
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the constructor.
+     * Virtual threads are looked up reflectively since the plugin is built for runtimes that don't have them.
+     */
+    private static ExecutorService createVirtualExecutorService() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (final ReflectiveOperationException reflectiveOperationException) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package net.evilkingdom.commons.data.executor;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+public class KeyedPipeline {
+
+    private final ConcurrentHashMap<String, Lane> lanes;
+
+    /**
+     * Allows you to create a keyed pipeline.
+     * Operations on the same key run one at a time in the order they were submitted, while different keys run fully in parallel.
+     * A key only holds a lane while it has operations running or waiting, so idle keys cost nothing.
+     */
+    public KeyedPipeline() {
+        this.lanes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Allows you to submit an operation for a key.
+     * If nothing is running for the key the operation is started straight away on the calling thread, otherwise it waits for the operations before it.
+     * A replacing operation (like a full save or a deletion) makes every replacing operation still waiting for the key pointless, so they're dropped and complete alongside it.
+     * Operations that aren't replacing (like a patch) are never dropped, since they may depend on what ran before them.
+     *
+     * @param key       ~ The key of the operation.
+     * @param operation ~ The operation, which starts the work and returns when it's finished.
+     * @param replacing ~ If the operation fully replaces the key's value.
+     * @return When the operation has finished, or the failure that stopped it.
+     */
+    public CompletableFuture<Void> submit(final String key, final Supplier<CompletableFuture<Void>> operation, final boolean replacing) {
+        final Operation submitted = new Operation(operation, replacing);
+        final boolean[] start = new boolean[1];
+        this.lanes.compute(key, (ignored, lane) -> {
+            if (lane == null) {
+                start[0] = true;
+                return new Lane();
+            }
+            if (replacing) {
+                lane.waiting.removeIf(waiting -> {
+                    if (waiting.replacing) {
+                        waiting.follow(submitted);
+                    }
+                    return waiting.replacing;
+                });
+            }
+            lane.waiting.add(submitted);
+            return lane;
+        });
+        if (start[0]) {
+            this.run(key, submitted);
+        }
+        return submitted.future;
+    }
+
+    /**
+     * Allows you to retrieve the amount of keys with operations running or waiting.
+     *
+     * @return The amount of keys with operations running or waiting.
+     */
+    public int getBusy() {
+        return this.lanes.size();
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the pipeline.
+     * Once the operation finishes the next waiting operation of the key is started, or the key's lane is removed if there isn't one.
+     * Operations that finish straight away are handled in a loop, so a long run of them can't overflow the stack.
+     */
+    private void run(final String key, final Operation first) {
+        Operation operation = first;
+        while (operation != null) {
+            CompletableFuture<Void> future;
+            try {
+                future = operation.operation.get();
+            } catch (final RuntimeException runtimeException) {
+                future = CompletableFuture.failedFuture(runtimeException);
+            }
+            if (!future.isDone()) {
+                final Operation running = operation;
+                future.whenComplete((ignored, throwable) -> {
+                    final Operation next = this.finish(key, running, throwable);
+                    if (next != null) {
+                        this.run(key, next);
+                    }
+                });
+                return;
+            }
+            operation = this.finish(key, operation, future.handle((ignored, throwable) -> throwable).join());
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the run method.
+     */
+    private Operation finish(final String key, final Operation operation, final Throwable throwable) {
+        final Operation[] next = new Operation[1];
+        this.lanes.computeIfPresent(key, (ignored, lane) -> {
+            next[0] = lane.waiting.poll();
+            return next[0] == null ? null : lane;
+        });
+        if (throwable != null) {
+            operation.future.completeExceptionally(throwable);
+        } else {
+            operation.future.complete(null);
+        }
+        return next[0];
+    }
+
+    private static class Lane {
+
+        private final ArrayDeque<Operation> waiting;
+
+        /**
+         * Allows you to create a lane.
+         * The lane's running operation isn't kept, only the ones waiting behind it.
+         */
+        private Lane() {
+            this.waiting = new ArrayDeque<>();
+        }
+    }
+
+    private static class Operation {
+
+        private final Supplier<CompletableFuture<Void>> operation;
+        private final boolean replacing;
+        private final CompletableFuture<Void> future;
+
+        /**
+         * Allows you to create an operation.
+         *
+         * @param operation ~ The operation.
+         * @param replacing ~ If the operation fully replaces the key's value.
+         */
+        private Operation(final Supplier<CompletableFuture<Void>> operation, final boolean replacing) {
+            this.operation = operation;
+            this.replacing = replacing;
+            this.future = new CompletableFuture<>();
+        }
+
+        /**
+         * Allows you to complete the operation alongside another one.
+         * This is used once the operation has been superseded before it started.
+         *
+         * @param operation ~ The operation that superseded it.
+         */
+        private void follow(final Operation operation) {
+            operation.future.whenComplete((ignored, throwable) -> {
+                if (throwable != null) {
+                    this.future.completeExceptionally(throwable);
+                } else {
+                    this.future.complete(null);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package net.evilkingdom.commons.data.executor.enums;
+
+public enum CircuitState {
+
+    /**
+     * Calls go through as normal.
+     */
+    CLOSED,
+
+    /**
+     * Calls fail straight away, without reaching the backend.
+     */
+    OPEN,
+
+    /**
+     * A single trial call is let through to find out if the backend has recovered.
+     */
+    HALF_OPEN
+}
@@ -0,0 +1,19 @@
+package net.evilkingdom.commons.data.executor.enums;
+
+public enum RejectionPolicy {
+
+    /**
+     * The task is refused and a RejectedExecutionException is thrown to whoever submitted it.
+     */
+    ABORT,
+
+    /**
+     * The task is run on the thread that submitted it, which slows the submitter down until the queue catches up.
+     */
+    CALLER_RUNS,
+
+    /**
+     * The submitter waits until there is room in the queue.
+     */
+    BLOCK
+}
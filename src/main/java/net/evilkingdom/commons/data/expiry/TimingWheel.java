@@ -0,0 +1,203 @@
+package net.evilkingdom.commons.data.expiry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TimingWheel {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tick;
+    private final ConcurrentHashMap<String, Long> deadlines;
+    private final ArrayList<ArrayList<ArrayList<Timer>>> levels;
+    private long currentTick;
+
+    /**
+     * Allows you to create a timing wheel.
+     * Deadlines are kept in 4 levels of 64 slots, each level's slot spanning a whole turn of the level below, so scheduling and expiring are constant time however many deadlines there are.
+     * With a tick of a second the wheel spans about 194 days, and anything further out is simply carried around the top level until it's due.
+     *
+     * @param tick ~ The resolution (in milliseconds) of the wheel.
+     */
+    public TimingWheel(final long tick) {
+        this.tick = Math.max(1L, tick);
+        this.deadlines = new ConcurrentHashMap<>();
+        this.levels = new ArrayList<>();
+        for (int level = 0; level < LEVELS; level++) {
+            final ArrayList<ArrayList<Timer>> slots = new ArrayList<>();
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots.add(new ArrayList<>());
+            }
+            this.levels.add(slots);
+        }
+        this.currentTick = System.currentTimeMillis() / this.tick;
+    }
+
+    /**
+     * Allows you to schedule an identifier to expire.
+     * Whatever was scheduled for the identifier before is replaced.
+     *
+     * @param identifier ~ The identifier.
+     * @param deadline   ~ The time (in epoch milliseconds) the identifier expires at.
+     */
+    public void schedule(final String identifier, final long deadline) {
+        this.deadlines.put(identifier, deadline);
+        synchronized (this.levels) {
+            this.place(new Timer(identifier, deadline));
+        }
+    }
+
+    /**
+     * Allows you to cancel an identifier's expiry.
+     * The identifier is left in its slot and skipped once the slot comes around, so this never takes the wheel's lock.
+     *
+     * @param identifier ~ The identifier.
+     */
+    public void cancel(final String identifier) {
+        this.deadlines.remove(identifier);
+    }
+
+    /**
+     * Allows you to retrieve an identifier's deadline.
+     *
+     * @param identifier ~ The identifier.
+     * @return The time (in epoch milliseconds) the identifier expires at if it's scheduled.
+     */
+    public Optional<Long> getDeadline(final String identifier) {
+        return Optional.ofNullable(this.deadlines.get(identifier));
+    }
+
+    /**
+     * Allows you to check if an identifier has expired.
+     *
+     * @param identifier ~ The identifier.
+     * @param now        ~ The current time (in epoch milliseconds).
+     * @return If the identifier is scheduled and its deadline has passed.
+     */
+    public boolean isExpired(final String identifier, final long now) {
+        final Long deadline = this.deadlines.get(identifier);
+        return deadline != null && deadline <= now;
+    }
+
+    /**
+     * Allows you to advance the wheel.
+     * Every tick up to now is walked, cascading the higher levels down as their turn comes, and the identifiers that expired are returned.
+     * The identifiers stay scheduled until they're cancelled, so they keep reading as expired until they've been purged.
+     *
+     * @param now ~ The current time (in epoch milliseconds).
+     * @return The identifiers that expired, in the order they expired.
+     */
+    public ArrayList<String> advance(final long now) {
+        final LinkedHashSet<String> expired = new LinkedHashSet<>();
+        final long targetTick = now / this.tick;
+        synchronized (this.levels) {
+            while (this.currentTick < targetTick) {
+                this.currentTick++;
+                for (int level = 1; level < LEVELS && (this.currentTick & ((1L << (SLOT_BITS * level)) - 1L)) == 0L; level++) {
+                    for (final Timer timer : this.takeSlot(level, (int) ((this.currentTick >>> (SLOT_BITS * level)) & SLOT_MASK))) {
+                        if (!timer.isCurrent(this.deadlines)) {
+                            continue;
+                        }
+                        if (timer.deadline / this.tick <= this.currentTick) {
+                            this.levels.get(0).get((int) (this.currentTick & SLOT_MASK)).add(timer);
+                        } else {
+                            this.place(timer);
+                        }
+                    }
+                }
+                for (final Timer timer : this.takeSlot(0, (int) (this.currentTick & SLOT_MASK))) {
+                    if (!timer.isCurrent(this.deadlines)) {
+                        continue;
+                    }
+                    if (timer.deadline / this.tick > this.currentTick) {
+                        this.place(timer);
+                        continue;
+                    }
+                    expired.add(timer.identifier);
+                }
+            }
+        }
+        return new ArrayList<>(expired);
+    }
+
+    /**
+     * Allows you to retrieve the amount of scheduled identifiers.
+     *
+     * @return The amount of scheduled identifiers.
+     */
+    public int size() {
+        return this.deadlines.size();
+    }
+
+    /**
+     * Allows you to retrieve the wheel's resolution.
+     *
+     * @return The wheel's resolution (in milliseconds).
+     */
+    public long getTick() {
+        return this.tick;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the wheel.
+     * Anything already due goes in the next tick's slot, and anything past the top level's span goes in the top level's last reachable slot.
+     * The caller is expected to hold the wheel's lock.
+     */
+    private void place(final Timer timer) {
+        final long deadlineTick = Math.max(this.currentTick + 1L, timer.deadline / this.tick);
+        final long delta = deadlineTick - this.currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1)) || level == LEVELS - 1) {
+                final long slotTick = level == LEVELS - 1 ? Math.min(deadlineTick, this.currentTick + (1L << (SLOT_BITS * LEVELS)) - 1L) : deadlineTick;
+                this.levels.get(level).get((int) ((slotTick >>> (SLOT_BITS * level)) & SLOT_MASK)).add(timer);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the wheel.
+     * The caller is expected to hold the wheel's lock.
+     */
+    private ArrayList<Timer> takeSlot(final int level, final int slot) {
+        final ArrayList<Timer> timers = this.levels.get(level).get(slot);
+        if (timers.isEmpty()) {
+            return timers;
+        }
+        this.levels.get(level).set(slot, new ArrayList<>());
+        return timers;
+    }
+
+    private static class Timer {
+
+        private final String identifier;
+        private final long deadline;
+
+        /**
+         * Allows you to create a timer.
+         *
+         * @param identifier ~ The identifier of the timer.
+         * @param deadline   ~ The time (in epoch milliseconds) the timer expires at.
+         */
+        private Timer(final String identifier, final long deadline) {
+            this.identifier = identifier;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Allows you to check if the timer is still the identifier's latest.
+         *
+         * @param deadlines ~ The deadlines of every scheduled identifier.
+         * @return If the timer hasn't been cancelled or replaced.
+         */
+        private boolean isCurrent(final ConcurrentHashMap<String, Long> deadlines) {
+            final Long deadline = deadlines.get(this.identifier);
+            return deadline != null && deadline == this.deadline;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package net.evilkingdom.commons.data.implementation.json;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public class JsonCommitter {
+
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    private static final Request SHUTDOWN = new Request(null, null);
+
+    private final String name;
+    private final int maximumBatch;
+    private final LinkedBlockingQueue<Request> queue;
+    private final ConcurrentHashMap<File, Request> pending;
+    private volatile boolean force;
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * Allows you to create a committer.
+     * Writes are handed to a single thread that commits them in batches, so a burst of saves shares its file system work.
+     * Writes to the same file within a batch collapse into the latest one.
+     *
+     * @param name         ~ The name of the committer's thread.
+     * @param maximumBatch ~ The maximum amount of writes committed in a single batch.
+     */
+    public JsonCommitter(final String name, final int maximumBatch) {
+        this.name = name;
+        this.maximumBatch = maximumBatch;
+        this.queue = new LinkedBlockingQueue<>();
+        this.pending = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Allows you to start the committer.
+     */
+    public void start() {
+        if (this.running) {
+            return;
+        }
+        this.running = true;
+        this.thread = new Thread(this::run, this.name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Allows you to stop the committer.
+     * Every write that has already been submitted will be committed before this returns.
+     */
+    public void stop() {
+        if (!this.running) {
+            return;
+        }
+        this.running = false;
+        this.queue.add(SHUTDOWN);
+        try {
+            this.thread.join();
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Allows you to submit a write.
+     * The content is written to a temporary file which is then atomically renamed over the file, so a crash never leaves a half-written file behind.
+     *
+     * @param file    ~ The file to write.
+     * @param content ~ The content to write, or null to delete the file.
+     * @return When the content has been committed, or the failure that stopped it.
+     */
+    public CompletableFuture<Void> submit(final File file, final byte[] content) {
+        final Request request = new Request(file, content);
+        if (!this.running) {
+            request.future.completeExceptionally(new IllegalStateException("The committer " + this.name + " isn't running."));
+            return request.future;
+        }
+        this.pending.put(file, request);
+        this.queue.add(request);
+        return request.future;
+    }
+
+    /**
+     * Allows you to submit a deletion.
+     * Deletions are committed in order with writes, so whichever was submitted last wins.
+     *
+     * @param file ~ The file to delete.
+     * @return When the file has been deleted, or the failure that stopped it.
+     */
+    public CompletableFuture<Void> submitDeletion(final File file) {
+        return this.submit(file, null);
+    }
+
+    /**
+     * Allows you to retrieve the content of a write that hasn't been committed yet.
+     *
+     * @param file ~ The file of the write.
+     * @return The pending content if there is any and it isn't a deletion.
+     */
+    public Optional<byte[]> getPending(final File file) {
+        return Optional.ofNullable(this.pending.get(file)).map(request -> request.content);
+    }
+
+    /**
+     * Allows you to retrieve if a file has a deletion that hasn't been committed yet.
+     *
+     * @param file ~ The file of the deletion.
+     * @return If the file has a pending deletion.
+     */
+    public boolean isPendingDeletion(final File file) {
+        final Request request = this.pending.get(file);
+        return request != null && request.content == null;
+    }
+
+    /**
+     * Allows you to set if the committer should fsync.
+     * When enabled, every committed file is forced to disk and its folder is forced once per batch.
+     *
+     * @param force ~ If the committer should fsync.
+     */
+    public void setForce(final boolean force) {
+        this.force = force;
+    }
+
+    /**
+     * Allows you to retrieve if the committer will fsync.
+     *
+     * @return If the committer will fsync.
+     */
+    public boolean isForce() {
+        return this.force;
+    }
+
+    /**
+     * Allows you to retrieve the amount of writes waiting to be committed.
+     *
+     * @return The amount of writes waiting to be committed.
+     */
+    public int getQueued() {
+        return this.queue.size();
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the committer's thread.
+     */
+    private void run() {
+        final ArrayList<Request> drained = new ArrayList<>();
+        boolean shutdown = false;
+        while (!shutdown) {
+            try {
+                drained.add(this.queue.take());
+            } catch (final InterruptedException interruptedException) {
+                continue;
+            }
+            this.queue.drainTo(drained, this.maximumBatch - 1);
+            final LinkedHashMap<File, Request> batch = new LinkedHashMap<>();
+            for (final Request request : drained) {
+                if (request == SHUTDOWN) {
+                    shutdown = true;
+                    continue;
+                }
+                final Request previous = batch.remove(request.file);
+                if (previous != null) {
+                    request.future.whenComplete((ignored, throwable) -> {
+                        if (throwable != null) {
+                            previous.future.completeExceptionally(throwable);
+                        } else {
+                            previous.future.complete(null);
+                        }
+                    });
+                }
+                batch.put(request.file, request);
+            }
+            drained.clear();
+            this.commit(batch);
+        }
+        Request request;
+        while ((request = this.queue.poll()) != null) {
+            if (request != SHUTDOWN) {
+                request.future.completeExceptionally(new IllegalStateException("The committer " + this.name + " was stopped."));
+            }
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the committer's thread.
+     * Every file is written to its temporary file and renamed, then each folder is forced once for the whole batch.
+     * Not every platform allows a folder to be forced, in which case the renames are still atomic.
+     * A folder that doesn't exist yet (like a new shard) is created the first time a write into it fails.
+     */
+    private void commit(final LinkedHashMap<File, Request> batch) {
+        final boolean force = this.force;
+        final ArrayList<Request> written = new ArrayList<>();
+        for (final Request request : batch.values()) {
+            try {
+                if (request.content == null) {
+                    Files.deleteIfExists(request.file.toPath());
+                    written.add(request);
+                    continue;
+                }
+                final Path temporaryPath = new File(request.file.getPath() + TEMPORARY_EXTENSION).toPath();
+                try {
+                    this.writeTemporary(temporaryPath, request.content, force);
+                } catch (final NoSuchFileException noSuchFileException) {
+                    Files.createDirectories(temporaryPath.getParent());
+                    this.writeTemporary(temporaryPath, request.content, force);
+                }
+                try {
+                    Files.move(temporaryPath, request.file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (final AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+                    Files.move(temporaryPath, request.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                written.add(request);
+            } catch (final IOException ioException) {
+                this.pending.remove(request.file, request);
+                request.future.completeExceptionally(ioException);
+            }
+        }
+        if (force) {
+            final HashSet<File> folders = new HashSet<>();
+            written.forEach(request -> folders.add(request.file.getParentFile()));
+            for (final File folder : folders) {
+                try (final FileChannel fileChannel = FileChannel.open(folder.toPath(), StandardOpenOption.READ)) {
+                    fileChannel.force(true);
+                } catch (final IOException ignored) {
+                }
+            }
+        }
+        for (final Request request : written) {
+            this.pending.remove(request.file, request);
+            request.future.complete(null);
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the committer's thread.
+     */
+    private void writeTemporary(final Path temporaryPath, final byte[] content, final boolean force) throws IOException {
+        try (final FileChannel fileChannel = FileChannel.open(temporaryPath,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final ByteBuffer byteBuffer = ByteBuffer.wrap(content);
+            while (byteBuffer.hasRemaining()) {
+                fileChannel.write(byteBuffer);
+            }
+            if (force) {
+                fileChannel.force(true);
+            }
+        }
+    }
+
+    private static class Request {
+
+        private final File file;
+        private final byte[] content;
+        private final CompletableFuture<Void> future;
+
+        /**
+         * Allows you to create a request.
+         *
+         * @param file    ~ The file to write.
+         * @param content ~ The content to write, or null to delete the file.
+         */
+        private Request(final File file, final byte[] content) {
+            this.file = file;
+            this.content = content;
+            this.future = new CompletableFuture<>();
+        }
+    }
+}
@@ -1,25 +1,55 @@
 package net.evilkingdom.commons.data.implementation.json;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import net.evilkingdom.commons.data.implementation.json.enums.JsonFormat;
+import net.evilkingdom.commons.data.implementation.json.enums.JsonLayout;
 import net.evilkingdom.commons.data.objects.Datapoint;
+import net.evilkingdom.commons.data.objects.DatapointCursor;
+import net.evilkingdom.commons.data.objects.KeyedDatapointCursor;
+import net.evilkingdom.commons.data.objects.Projection;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @SuppressWarnings("ConstantConditions")
 public class JsonDatapoint extends Datapoint {
 
+    private static final String EXTENSION = ".json";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    private static final char[] HEXADECIMAL = "0123456789abcdef".toCharArray();
+
     private final JsonDatasite site;
+    private final Object indexLock;
+    private volatile Set<String> identifiers;
+    private HashMap<String, Boolean> rescanChanges;
     private File folder;
+    private WatchService watchService;
+    private int parallelism;
+    private JsonFormat format;
+    private JsonLayout layout;
 
     /**
      * Allows you to create a datapoint for a plugin.
@@ -30,10 +60,17 @@ public class JsonDatapoint extends Datapoint {
     public JsonDatapoint(JsonDatasite datasite, String name) {
         super(datasite, name);
         this.site = datasite;
+        this.indexLock = new Object();
+        this.identifiers = ConcurrentHashMap.newKeySet();
+        this.parallelism = 8;
+        this.format = JsonFormat.PLAIN;
+        this.layout = JsonLayout.FLAT;
     }
 
     /**
      * Allows you to register the datapoint.
+     * This will clean up any temporary files left by a crash and build the datapoint's identifier index from the files in its folder.
+     * The folder and its shards are scanned in parallel, and any file that isn't where the datapoint's layout expects it is moved there, so switching layouts migrates the files transparently.
      */
     @Override
     public void register() {
@@ -43,96 +80,534 @@ public class JsonDatapoint extends Datapoint {
         if (!this.folder.exists()) {
             this.folder.mkdirs();
         }
+        this.rescan(true);
+        this.buildIndexes();
     }
 
     /**
-     * Allows you to retrieve all the json objects.
+     * Allows you to watch the datapoint's folder.
+     * Files that are created or deleted outside the plugin will be picked up by the identifier index.
+     * Only the flat layout can be watched, since the sharded layout spreads its files over too many folders.
+     *
+     * @throws IllegalStateException If the datapoint's layout is sharded.
+     */
+    public void watch() {
+        if (this.layout == JsonLayout.SHARDED) {
+            throw new IllegalStateException("The datapoint " + this.name + " can't be watched, since its layout is sharded.");
+        }
+        if (this.watchService != null) {
+            return;
+        }
+        try {
+            this.watchService = this.folder.toPath().getFileSystem().newWatchService();
+            this.folder.toPath().register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.OVERFLOW);
+        } catch (final IOException ioException) {
+            this.watchService = null;
+            return;
+        }
+        final WatchService watchService = this.watchService;
+        final Thread thread = new Thread(() -> this.poll(watchService), "JsonDatapoint-" + this.name + "-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Allows you to stop watching the datapoint's folder.
+     */
+    public void unwatch() {
+        if (this.watchService == null) {
+            return;
+        }
+        try {
+            this.watchService.close();
+        } catch (final IOException ignored) {
+        }
+        this.watchService = null;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the watch method.
+     */
+    private void poll(final WatchService watchService) {
+        try {
+            while (true) {
+                final WatchKey watchKey = watchService.take();
+                for (final WatchEvent<?> watchEvent : watchKey.pollEvents()) {
+                    if (watchEvent.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        this.rescan(false);
+                        this.buildIndexes();
+                        this.buildFilter();
+                        continue;
+                    }
+                    final String fileName = ((Path) watchEvent.context()).getFileName().toString();
+                    if (!fileName.endsWith(EXTENSION)) {
+                        continue;
+                    }
+                    final String identifier = fileName.substring(0, fileName.length() - EXTENSION.length());
+                    if (watchEvent.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                        this.index(identifier);
+                        this.addToFilter(identifier);
+                    } else {
+                        this.unindex(identifier);
+                    }
+                }
+                if (!watchKey.reset()) {
+                    return;
+                }
+            }
+        } catch (final InterruptedException | ClosedWatchServiceException ignored) {
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the register and watch methods.
+     * The folder is scanned into a new identifier index, which replaces the live one in a single step once it's complete, so identifiers never go missing while the scan runs.
+     * Saves and deletions made during the scan are applied over what it found, as are writes the committer hasn't committed yet.
+     * Temporary files are only swept when the datapoint is registered, since on a live rescan they can belong to a commit that's still being made.
+     */
+    private synchronized void rescan(final boolean sweeping) {
+        final Set<String> scanned = ConcurrentHashMap.newKeySet();
+        final Set<String> previous;
+        synchronized (this.indexLock) {
+            this.rescanChanges = new HashMap<>();
+            previous = this.identifiers;
+        }
+        final ForkJoinPool forkJoinPool = new ForkJoinPool(Math.max(1, this.parallelism));
+        try {
+            forkJoinPool.invoke(new ScanTask(this.folder.toPath(), 0, scanned, sweeping));
+        } finally {
+            forkJoinPool.shutdown();
+        }
+        previous.stream()
+                .filter(identifier -> !scanned.contains(identifier) && this.site.getCommitter().getPending(this.getFile(identifier)).isPresent())
+                .forEach(scanned::add);
+        synchronized (this.indexLock) {
+            this.rescanChanges.forEach((identifier, present) -> {
+                if (present) {
+                    scanned.add(identifier);
+                } else {
+                    scanned.remove(identifier);
+                }
+            });
+            this.rescanChanges = null;
+            this.identifiers = scanned;
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the identifier index.
+     */
+    private void index(final String identifier) {
+        synchronized (this.indexLock) {
+            this.identifiers.add(identifier);
+            if (this.rescanChanges != null) {
+                this.rescanChanges.put(identifier, true);
+            }
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the identifier index.
+     */
+    private void unindex(final String identifier) {
+        synchronized (this.indexLock) {
+            this.identifiers.remove(identifier);
+            if (this.rescanChanges != null) {
+                this.rescanChanges.put(identifier, false);
+            }
+        }
+    }
+
+    /**
+     * Allows the datapoint to read all the json objects from its backend.
+     * The files are split between at most the datapoint's parallelism of reader tasks.
      *
      * @return All the json objects.
      */
     @Override
-    public CompletableFuture<ArrayList<JsonObject>> getAll() {
-        return CompletableFuture.supplyAsync(() -> Arrays.stream(this.folder.listFiles()).map(file -> {
-            String jsonString = null;
-            try {
-                jsonString = Files.readString(file.toPath());
-            } catch (final IOException ignored) {
-            }
-            assert jsonString != null;
-            return JsonParser.parseString(jsonString).getAsJsonObject();
-        }).collect(Collectors.toCollection(ArrayList::new)));
+    protected CompletableFuture<ArrayList<JsonObject>> readAll() {
+        return this.readFiles(new ArrayList<>(this.identifiers), JsonEncoding::decode).thenApply(jsonObjects -> jsonObjects.values().stream()
+                .flatMap(Optional::stream)
+                .collect(Collectors.toCollection(ArrayList::new)));
     }
 
     /**
-     * Allows you to retrieve the total number of json objects.
+     * Allows the datapoint to count all the json objects in its backend.
+     * This is answered straight from the identifier index.
      *
      * @return The total number of json objects.
      */
     @Override
-    public CompletableFuture<Long> countAll() {
-        return CompletableFuture.supplyAsync(() -> Arrays.stream(this.folder.listFiles()).count());
+    protected CompletableFuture<Long> count() {
+        return CompletableFuture.completedFuture((long) this.identifiers.size());
     }
 
     /**
-     * Allows you to retrieve a json object from an identifier.
+     * Allows the datapoint to read a json object from its backend.
+     * The file is resolved directly from the identifier instead of listing the folder.
      *
      * @param identifier ~ The identifier of the json object.
      * @return The json object.
      */
     @Override
-    public CompletableFuture<Optional<JsonObject>> get(String identifier) {
-        return CompletableFuture.supplyAsync(() -> {
-            final Optional<File> optionalFile = Arrays.stream(this.folder.listFiles())
-                    .filter(file -> file.getName().equals(identifier + ".json"))
-                    .findFirst();
-            if (optionalFile.isPresent()) {
-                final File file = optionalFile.get();
-                String jsonString = null;
-                try {
-                    jsonString = Files.readString(file.toPath());
-                } catch (final IOException ignored) {
-                }
-                return Optional.of(JsonParser.parseString(jsonString).getAsJsonObject());
-            }
-            return Optional.empty();
-        });
+    protected CompletableFuture<Optional<JsonObject>> read(String identifier) {
+        if (!this.identifiers.contains(identifier)) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return CompletableFuture.supplyAsync(() -> this.readFile(identifier), this.site.getExecutor());
     }
 
     /**
-     * Allows you to save a json object.
+     * Allows the datapoint to write a json object to its backend.
+     * The write is encoded in the datapoint's format and handed to the datasite's committer, which replaces the file atomically.
      *
-     * @param jsonObject ~ The json object to save.
+     * @param jsonObject ~ The json object to write.
      * @param identifier ~ The identifier of the json object.
+     * @return When the json object has been written.
      */
     @Override
-    public void save(JsonObject jsonObject, String identifier) {
-        final File file = new File(this.folder, identifier + ".json");
-        if (file.exists()) {
-            file.delete();
-        }
-        try {
-            file.createNewFile();
-            final FileWriter fileWriter = new FileWriter(file);
-            fileWriter.write(new Gson().toJson(jsonObject));
-            fileWriter.flush();
-            fileWriter.close();
-        } catch (final IOException ignored) {
-        }
+    protected CompletableFuture<Void> write(JsonObject jsonObject, String identifier) {
+        final byte[] bytes = JsonEncoding.encode(jsonObject, this.format);
+        this.index(identifier);
+        return this.site.getCommitter().submit(this.getFile(identifier), bytes);
+    }
+
+    /**
+     * Allows the datapoint to check if its backend contains a json object from an identifier.
+     * This is answered straight from the identifier index.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return If the backend contains a json object from the identifier.
+     */
+    @Override
+    protected CompletableFuture<Boolean> contains(String identifier) {
+        return CompletableFuture.completedFuture(this.identifiers.contains(identifier));
+    }
+
+    /**
+     * Allows the datapoint to delete a json object from its backend.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return When the json object has been deleted.
+     */
+    @Override
+    protected CompletableFuture<Void> remove(final String identifier) {
+        this.unindex(identifier);
+        return this.site.getCommitter().submitDeletion(this.getFile(identifier));
+    }
+
+    /**
+     * Allows the datapoint to walk the identifiers in its backend.
+     * This walks the identifier index, so the folder is never listed.
+     *
+     * @return An iterator over the identifiers.
+     */
+    @Override
+    protected Iterator<String> keys() {
+        return this.identifiers.iterator();
     }
 
     /**
-     * Allows you to retrieve if a json object exists from an identifier.
+     * Allows the datapoint to read many json objects from its backend.
+     * The identifiers are split between at most the datapoint's parallelism of reader tasks.
+     *
+     * @param identifiers ~ The identifiers of the json objects.
+     * @return The json objects that were found, mapped by their identifiers.
+     */
+    @Override
+    protected CompletableFuture<HashMap<String, Optional<JsonObject>>> readMany(final Collection<String> identifiers) {
+        return this.readFiles(identifiers, JsonEncoding::decode);
+    }
+
+    /**
+     * Allows the datapoint to read a json object from its backend with only some of its fields.
+     * The file is read in a single streaming pass that skips every field that isn't kept.
      *
      * @param identifier ~ The identifier of the json object.
-     * @return If a json object exists from the identifier.
+     * @param projection ~ The fields to keep.
+     * @return The json object with only the kept fields.
      */
     @Override
-    public CompletableFuture<Boolean> exists(String identifier) {
-        return CompletableFuture.supplyAsync(() -> {
-            final Optional<File> optionalFile = Arrays.stream(this.folder.listFiles())
-                    .filter(file -> file.getName().equals(identifier + ".json"))
-                    .findFirst();
-            return optionalFile.isPresent();
+    protected CompletableFuture<Optional<JsonObject>> readProjected(final String identifier, final Projection projection) {
+        if (!this.identifiers.contains(identifier)) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return CompletableFuture.supplyAsync(() -> this.readFile(identifier, bytes -> JsonEncoding.decode(bytes, projection)), this.site.getExecutor());
+    }
+
+    /**
+     * Allows the datapoint to stream the json objects in its backend with only some of their fields.
+     * Every batch is read by the datapoint's parallel readers, each skipping the fields that aren't kept.
+     *
+     * @param batchSize  ~ The amount of json objects loaded at a time.
+     * @param projection ~ The fields to keep.
+     * @return A cursor over all the json objects with only the kept fields.
+     */
+    @Override
+    protected DatapointCursor iterateProjected(final int batchSize, final Projection projection) {
+        return new KeyedDatapointCursor(this.keys(), identifiers -> this.readFiles(identifiers, bytes -> JsonEncoding.decode(bytes, projection)), batchSize);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the read methods.
+     * The identifiers are split between at most the datapoint's parallelism of reader tasks.
+     */
+    private CompletableFuture<HashMap<String, Optional<JsonObject>>> readFiles(final Collection<String> identifiers, final Function<byte[], JsonObject> decoder) {
+        final ArrayList<String> indexedIdentifiers = identifiers.stream()
+                .filter(this.identifiers::contains)
+                .collect(Collectors.toCollection(ArrayList::new));
+        final int readers = Math.max(1, Math.min(this.parallelism, indexedIdentifiers.size()));
+        final ArrayList<CompletableFuture<HashMap<String, Optional<JsonObject>>>> reads = new ArrayList<>();
+        for (int reader = 0; reader < readers; reader++) {
+            final int firstIndex = reader;
+            reads.add(CompletableFuture.supplyAsync(() -> {
+                final HashMap<String, Optional<JsonObject>> jsonObjects = new HashMap<>();
+                for (int index = firstIndex; index < indexedIdentifiers.size(); index += readers) {
+                    final String identifier = indexedIdentifiers.get(index);
+                    jsonObjects.put(identifier, this.readFile(identifier, decoder));
+                }
+                return jsonObjects;
+            }, this.site.getExecutor()));
+        }
+        return CompletableFuture.allOf(reads.toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            final HashMap<String, Optional<JsonObject>> jsonObjects = new HashMap<>();
+            reads.forEach(read -> jsonObjects.putAll(read.join()));
+            return jsonObjects;
         });
     }
+
+    /**
+     * Allows the datapoint to write many json objects to its backend.
+     * Every write is handed to the datasite's committer at once, so they're committed in as few batches as possible.
+     *
+     * @param jsonObjects ~ The json objects to write, mapped by their identifiers.
+     * @return When every json object has been written.
+     */
+    @Override
+    protected CompletableFuture<Void> writeMany(final HashMap<String, JsonObject> jsonObjects) {
+        final JsonFormat format = this.format;
+        return CompletableFuture.allOf(jsonObjects.entrySet().stream().map(entry -> {
+            this.index(entry.getKey());
+            return this.site.getCommitter().submit(this.getFile(entry.getKey()), JsonEncoding.encode(entry.getValue(), format));
+        }).toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Allows you to set the datapoint's parallelism.
+     * This is the maximum amount of files that are read at once by a batch read, and of folders that are scanned at once when the datapoint is registered.
+     *
+     * @param parallelism ~ The datapoint's parallelism.
+     */
+    public void setParallelism(final int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Allows you to set the datapoint's format.
+     * Files are read in whichever format they were written in, so existing files are converted as they're next saved.
+     *
+     * @param format ~ The datapoint's format.
+     */
+    public void setFormat(final JsonFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * Allows you to retrieve the datapoint's format.
+     *
+     * @return The datapoint's format.
+     */
+    public JsonFormat getFormat() {
+        return this.format;
+    }
+
+    /**
+     * Allows you to set the datapoint's layout.
+     * The sharded layout spreads the files over 65536 folders (like "3f/a2/identifier.json") picked from a hash of the identifier, so no folder grows large enough to slow the filesystem down.
+     * This should be set before the datapoint is registered, which moves any existing files over to the layout.
+     *
+     * @param layout ~ The datapoint's layout.
+     */
+    public void setLayout(final JsonLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * Allows you to retrieve the datapoint's layout.
+     *
+     * @return The datapoint's layout.
+     */
+    public JsonLayout getLayout() {
+        return this.layout;
+    }
+
+    /**
+     * Allows you to retrieve the file of an identifier.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return The file of the identifier.
+     */
+    public File getFile(final String identifier) {
+        if (this.layout == JsonLayout.FLAT) {
+            return new File(this.folder, identifier + EXTENSION);
+        }
+        int hash = identifier.hashCode();
+        hash = (hash ^ (hash >>> 16)) * 0x85EBCA6B;
+        hash = (hash ^ (hash >>> 13)) * 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        final String shard = new String(new char[]{HEXADECIMAL[(hash >>> 28) & 0xF], HEXADECIMAL[(hash >>> 24) & 0xF], File.separatorChar,
+                HEXADECIMAL[(hash >>> 20) & 0xF], HEXADECIMAL[(hash >>> 16) & 0xF]});
+        return new File(new File(this.folder, shard), identifier + EXTENSION);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the read methods.
+     */
+    private Optional<JsonObject> readFile(final String identifier) {
+        return this.readFile(identifier, JsonEncoding::decode);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the read methods.
+     * Writes and deletions that haven't been committed yet are answered by the committer, and if the file has disappeared the identifier is dropped from the index.
+     */
+    private Optional<JsonObject> readFile(final String identifier, final Function<byte[], JsonObject> decoder) {
+        final File file = this.getFile(identifier);
+        if (this.site.getCommitter().isPendingDeletion(file)) {
+            return Optional.empty();
+        }
+        final Optional<byte[]> optionalPendingBytes = this.site.getCommitter().getPending(file);
+        final byte[] bytes;
+        if (optionalPendingBytes.isPresent()) {
+            bytes = optionalPendingBytes.get();
+        } else {
+            try {
+                bytes = Files.readAllBytes(file.toPath());
+            } catch (final IOException ioException) {
+                if (!file.exists() && this.site.getCommitter().getPending(file).isEmpty()) {
+                    this.unindex(identifier);
+                }
+                return Optional.empty();
+            }
+        }
+        return Optional.of(decoder.apply(bytes));
+    }
+
+    private class ScanTask extends RecursiveAction {
+
+        private final Path path;
+        private final int depth;
+        private final Set<String> scanned;
+        private final boolean sweeping;
+
+        /**
+         * Allows you to create a scan task.
+         *
+         * @param path     ~ The folder to scan.
+         * @param depth    ~ How many shards deep the folder is.
+         * @param scanned  ~ The identifiers that have been found.
+         * @param sweeping ~ If temporary files should be deleted.
+         */
+        private ScanTask(final Path path, final int depth, final Set<String> scanned, final boolean sweeping) {
+            this.path = path;
+            this.depth = depth;
+            this.scanned = scanned;
+            this.sweeping = sweeping;
+        }
+
+        /**
+         * Called to scan the folder.
+         * Files are told apart from shards by their names, so the folder is listed without checking what every entry is, and each shard is forked off to be scanned in parallel.
+         */
+        @Override
+        protected void compute() {
+            final ArrayList<ScanTask> shards = new ArrayList<>();
+            try (final DirectoryStream<Path> directoryStream = Files.newDirectoryStream(this.path)) {
+                for (final Path entry : directoryStream) {
+                    final String fileName = entry.getFileName().toString();
+                    if (fileName.endsWith(TEMPORARY_EXTENSION)) {
+                        if (this.sweeping) {
+                            entry.toFile().delete();
+                        }
+                    } else if (fileName.endsWith(EXTENSION)) {
+                        this.add(entry, fileName.substring(0, fileName.length() - EXTENSION.length()));
+                    } else if (this.depth < 2 && isShard(fileName) && Files.isDirectory(entry)) {
+                        shards.add(new ScanTask(entry, this.depth + 1, this.scanned, this.sweeping));
+                    }
+                }
+            } catch (final IOException ioException) {
+                return;
+            }
+            invokeAll(shards);
+            if (this.depth > 0 && JsonDatapoint.this.layout == JsonLayout.FLAT) {
+                try {
+                    Files.deleteIfExists(this.path);
+                } catch (final IOException ignored) {
+                }
+            }
+        }
+
+        /**
+         * Ignore this method, it's just an inner-working of the scan task.
+         * A file that was written under a different layout is moved to where the datapoint's layout expects it.
+         * If there's already a file there the one modified last is kept, unless the committer is still writing the expected one, which makes it the newest either way.
+         * If both were modified at the same time there's no telling which is newer, so both are left in place and the conflict is logged.
+         * If the file can't be moved it's left out of the identifier index, and moving it is tried again the next time the datapoint is registered.
+         */
+        private void add(final Path path, final String identifier) {
+            final File expectedFile = JsonDatapoint.this.getFile(identifier);
+            if (JsonDatapoint.this.site.getCommitter().isPendingDeletion(expectedFile)) {
+                return;
+            }
+            final Path expectedPath = expectedFile.toPath();
+            if (!expectedPath.equals(path)) {
+                try {
+                    if (!Files.exists(expectedPath)) {
+                        Files.createDirectories(expectedPath.getParent());
+                        try {
+                            Files.move(path, expectedPath, StandardCopyOption.ATOMIC_MOVE);
+                        } catch (final AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+                            Files.move(path, expectedPath);
+                        }
+                    } else if (JsonDatapoint.this.site.getCommitter().getPending(expectedFile).isPresent()) {
+                        Files.deleteIfExists(path);
+                    } else {
+                        final int comparison = Long.compare(Files.getLastModifiedTime(path).toMillis(), Files.getLastModifiedTime(expectedPath).toMillis());
+                        if (comparison > 0) {
+                            this.replace(path, expectedPath);
+                        } else if (comparison < 0) {
+                            Files.deleteIfExists(path);
+                        } else {
+                            JsonDatapoint.this.site.getPlugin().getLogger().warning("The datapoint " + JsonDatapoint.this.name + " has two files for " + identifier
+                                    + " (" + path + " and " + expectedPath + "), so both were left in place and " + expectedPath + " is used.");
+                        }
+                    }
+                } catch (final FileAlreadyExistsException ignored) {
+                } catch (final IOException ioException) {
+                    return;
+                }
+            }
+            this.scanned.add(identifier);
+        }
+
+        /**
+         * Ignore this method, it's just an inner-working of the scan task.
+         * This should only be called once it's been decided the moved file is newer than the target.
+         */
+        private void replace(final Path path, final Path target) throws IOException {
+            try {
+                Files.move(path, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+                Files.move(path, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        /**
+         * Ignore this method, it's just an inner-working of the scan task.
+         */
+        private static boolean isShard(final String fileName) {
+            return fileName.length() == 2 && Character.digit(fileName.charAt(0), 16) >= 0 && Character.digit(fileName.charAt(1), 16) >= 0;
+        }
+    }
 }
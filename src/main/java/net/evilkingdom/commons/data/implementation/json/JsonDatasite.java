@@ -1,6 +1,7 @@
 package net.evilkingdom.commons.data.implementation.json;
 
 import net.evilkingdom.commons.data.DataImplementor;
+import net.evilkingdom.commons.data.objects.Datapoint;
 import net.evilkingdom.commons.data.objects.Datasite;
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -8,6 +9,8 @@ import java.io.File;
 
 public class JsonDatasite extends Datasite {
 
+    private final JsonCommitter committer;
+
     /**
      * Allows you to create a datasite for a plugin.
      * This is used for datasites that don't require any extra parameters.
@@ -17,6 +20,7 @@ public class JsonDatasite extends Datasite {
      */
     public JsonDatasite(JavaPlugin plugin, String name) {
         super(plugin, name);
+        this.committer = new JsonCommitter("JsonDatasite-" + name + "-committer", 256);
     }
 
     /**
@@ -29,6 +33,7 @@ public class JsonDatasite extends Datasite {
      */
     public JsonDatasite(JavaPlugin plugin, String name, String[] parameters) {
         super(plugin, name, parameters);
+        this.committer = new JsonCommitter("JsonDatasite-" + name + "-committer", 256);
     }
 
     /**
@@ -42,12 +47,27 @@ public class JsonDatasite extends Datasite {
         if (!dataFolder.exists()) {
             dataFolder.mkdirs();
         }
+        this.committer.start();
     }
 
     /**
      * Allows you to terminate the datasite.
+     * Any datapoint with write-behind enabled will be flushed first, then the executor's queued tasks are drained and every pending write is committed.
      */
     @Override
     public void terminate() {
+        this.points.forEach(Datapoint::disableWriteBehind);
+        this.executor.shutdown(TERMINATION_TIMEOUT);
+        this.committer.stop();
+        this.points.forEach(point -> ((JsonDatapoint) point).unwatch());
+    }
+
+    /**
+     * Allows you to retrieve the datasite's committer.
+     *
+     * @return The datasite's committer.
+     */
+    public JsonCommitter getCommitter() {
+        return this.committer;
     }
 }
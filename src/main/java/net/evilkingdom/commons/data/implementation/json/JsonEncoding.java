@@ -0,0 +1,439 @@
+package net.evilkingdom.commons.data.implementation.json;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import net.evilkingdom.commons.data.codec.GsonCodec;
+import net.evilkingdom.commons.data.implementation.json.enums.JsonFormat;
+import net.evilkingdom.commons.data.objects.Projection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class JsonEncoding {
+
+    private static final byte[] BINARY_MAGIC = {'E', 'V', 'J', 'B'};
+    private static final byte BINARY_VERSION = 1;
+
+    private static final byte NULL = 0, TRUE = 1, FALSE = 2, INTEGER = 3, DOUBLE = 4, STRING = 5, ARRAY = 6, OBJECT = 7, DECIMAL = 8;
+
+    /**
+     * Allows you to encode a json object in a format.
+     * Binary json objects store every field name once in a dictionary at the start, and refer to it by index from then on.
+     *
+     * @param jsonObject ~ The json object.
+     * @param format     ~ The format.
+     * @return The encoded json object.
+     */
+    public static byte[] encode(final JsonObject jsonObject, final JsonFormat format) {
+        switch (format) {
+            case GZIP:
+                final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+                try (final Writer writer = new OutputStreamWriter(new GZIPOutputStream(byteArrayOutputStream), StandardCharsets.UTF_8)) {
+                    GsonCodec.GSON.toJson(jsonObject, writer);
+                } catch (final IOException ioException) {
+                    throw new UncheckedIOException(ioException);
+                }
+                return byteArrayOutputStream.toByteArray();
+            case BINARY:
+                return encodeBinary(jsonObject);
+            default:
+                return GsonCodec.GSON.toJson(jsonObject).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Allows you to decode a json object.
+     * The format is detected from the bytes, so files written in any format can be read.
+     *
+     * @param bytes ~ The encoded json object.
+     * @return The json object.
+     */
+    public static JsonObject decode(final byte[] bytes) {
+        switch (detect(bytes)) {
+            case GZIP:
+                try (final InputStreamReader reader = new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(bytes)), StandardCharsets.UTF_8)) {
+                    return JsonParser.parseReader(reader).getAsJsonObject();
+                } catch (final IOException ioException) {
+                    throw new UncheckedIOException(ioException);
+                }
+            case BINARY:
+                return decodeBinary(bytes);
+            default:
+                return JsonParser.parseString(new String(bytes, StandardCharsets.UTF_8)).getAsJsonObject();
+        }
+    }
+
+    /**
+     * Allows you to decode only some fields of a json object.
+     * Text is read with a streaming reader and binary is walked in place, so the fields that aren't kept are skipped without ever being built.
+     *
+     * @param bytes      ~ The encoded json object.
+     * @param projection ~ The fields to keep.
+     * @return The json object with only the kept fields.
+     */
+    public static JsonObject decode(final byte[] bytes, final Projection projection) {
+        final JsonFormat format = detect(bytes);
+        if (format == JsonFormat.BINARY) {
+            return decodeBinary(bytes, projection);
+        }
+        try (final Reader reader = format == JsonFormat.GZIP
+                ? new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(bytes)), StandardCharsets.UTF_8)
+                : new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8)) {
+            return readProjected(new JsonReader(reader), projection);
+        } catch (final IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    /**
+     * Allows you to detect the format of an encoded json object.
+     *
+     * @param bytes ~ The encoded json object.
+     * @return The format of the encoded json object.
+     */
+    public static JsonFormat detect(final byte[] bytes) {
+        if (bytes.length >= 2 && bytes[0] == (byte) 0x1f && bytes[1] == (byte) 0x8b) {
+            return JsonFormat.GZIP;
+        }
+        if (bytes.length > BINARY_MAGIC.length) {
+            boolean binary = true;
+            for (int index = 0; index < BINARY_MAGIC.length && binary; index++) {
+                binary = bytes[index] == BINARY_MAGIC[index];
+            }
+            if (binary) {
+                return JsonFormat.BINARY;
+            }
+        }
+        return JsonFormat.PLAIN;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the encode method.
+     * The dictionary is collected first, then the tree is written in a single pass.
+     */
+    private static byte[] encodeBinary(final JsonObject jsonObject) {
+        final HashMap<String, Integer> dictionary = new HashMap<>();
+        final ArrayList<String> names = new ArrayList<>();
+        collectNames(jsonObject, dictionary, names);
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        byteArrayOutputStream.write(BINARY_MAGIC, 0, BINARY_MAGIC.length);
+        byteArrayOutputStream.write(BINARY_VERSION);
+        writeVarint(byteArrayOutputStream, names.size());
+        names.forEach(name -> writeString(byteArrayOutputStream, name));
+        writeElement(byteArrayOutputStream, jsonObject, dictionary);
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the encode method.
+     */
+    private static void collectNames(final JsonElement jsonElement, final HashMap<String, Integer> dictionary, final ArrayList<String> names) {
+        if (jsonElement.isJsonObject()) {
+            for (final Map.Entry<String, JsonElement> entry : jsonElement.getAsJsonObject().entrySet()) {
+                if (!dictionary.containsKey(entry.getKey())) {
+                    dictionary.put(entry.getKey(), names.size());
+                    names.add(entry.getKey());
+                }
+                collectNames(entry.getValue(), dictionary, names);
+            }
+        } else if (jsonElement.isJsonArray()) {
+            jsonElement.getAsJsonArray().forEach(arrayedElement -> collectNames(arrayedElement, dictionary, names));
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the encode method.
+     * Integral numbers are written as zigzag varints, and numbers a double can't hold exactly keep their text.
+     */
+    private static void writeElement(final ByteArrayOutputStream byteArrayOutputStream, final JsonElement jsonElement, final HashMap<String, Integer> dictionary) {
+        if (jsonElement == null || jsonElement.isJsonNull()) {
+            byteArrayOutputStream.write(NULL);
+        } else if (jsonElement.isJsonObject()) {
+            final JsonObject jsonObject = jsonElement.getAsJsonObject();
+            byteArrayOutputStream.write(OBJECT);
+            writeVarint(byteArrayOutputStream, jsonObject.size());
+            for (final Map.Entry<String, JsonElement> entry : jsonObject.entrySet()) {
+                writeVarint(byteArrayOutputStream, dictionary.get(entry.getKey()));
+                writeElement(byteArrayOutputStream, entry.getValue(), dictionary);
+            }
+        } else if (jsonElement.isJsonArray()) {
+            final JsonArray jsonArray = jsonElement.getAsJsonArray();
+            byteArrayOutputStream.write(ARRAY);
+            writeVarint(byteArrayOutputStream, jsonArray.size());
+            jsonArray.forEach(arrayedElement -> writeElement(byteArrayOutputStream, arrayedElement, dictionary));
+        } else {
+            final JsonPrimitive jsonPrimitive = jsonElement.getAsJsonPrimitive();
+            if (jsonPrimitive.isBoolean()) {
+                byteArrayOutputStream.write(jsonPrimitive.getAsBoolean() ? TRUE : FALSE);
+            } else if (jsonPrimitive.isNumber()) {
+                final String number = jsonPrimitive.getAsString();
+                final Long integer = parseInteger(number);
+                if (integer != null) {
+                    byteArrayOutputStream.write(INTEGER);
+                    writeVarint(byteArrayOutputStream, (integer << 1) ^ (integer >> 63));
+                } else if (isExactDouble(number)) {
+                    byteArrayOutputStream.write(DOUBLE);
+                    byteArrayOutputStream.write(ByteBuffer.allocate(8).putDouble(Double.parseDouble(number)).array(), 0, 8);
+                } else {
+                    byteArrayOutputStream.write(DECIMAL);
+                    writeString(byteArrayOutputStream, number);
+                }
+            } else {
+                byteArrayOutputStream.write(STRING);
+                writeString(byteArrayOutputStream, jsonPrimitive.getAsString());
+            }
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the decode method.
+     */
+    private static JsonObject decodeBinary(final byte[] bytes) {
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+        byteBuffer.position(BINARY_MAGIC.length);
+        final byte version = byteBuffer.get();
+        if (version != BINARY_VERSION) {
+            throw new IllegalStateException("The binary json version " + version + " isn't supported.");
+        }
+        final String[] names = new String[(int) readVarint(byteBuffer)];
+        for (int index = 0; index < names.length; index++) {
+            names[index] = readString(byteBuffer);
+        }
+        return readElement(byteBuffer, names).getAsJsonObject();
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the decode methods.
+     */
+    private static JsonObject readProjected(final JsonReader jsonReader, final Projection projection) throws IOException {
+        final JsonObject jsonObject = new JsonObject();
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            final String name = jsonReader.nextName();
+            final Optional<Projection> optionalChild = projection.getChild(name);
+            if (projection.includes(name)) {
+                jsonObject.add(name, JsonParser.parseReader(jsonReader));
+            } else if (optionalChild.isPresent() && jsonReader.peek() == JsonToken.BEGIN_OBJECT) {
+                jsonObject.add(name, readProjected(jsonReader, optionalChild.get()));
+            } else {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+        return jsonObject;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the decode methods.
+     */
+    private static JsonObject decodeBinary(final byte[] bytes, final Projection projection) {
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+        byteBuffer.position(BINARY_MAGIC.length);
+        final byte version = byteBuffer.get();
+        if (version != BINARY_VERSION) {
+            throw new IllegalStateException("The binary json version " + version + " isn't supported.");
+        }
+        final String[] names = new String[(int) readVarint(byteBuffer)];
+        for (int index = 0; index < names.length; index++) {
+            names[index] = readString(byteBuffer);
+        }
+        if (byteBuffer.get() != OBJECT) {
+            throw new IllegalStateException("The binary json doesn't hold an object.");
+        }
+        return readProjectedObject(byteBuffer, names, projection);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the decode methods.
+     * The object's tag is expected to have been read already.
+     */
+    private static JsonObject readProjectedObject(final ByteBuffer byteBuffer, final String[] names, final Projection projection) {
+        final int objectSize = (int) readVarint(byteBuffer);
+        final JsonObject jsonObject = new JsonObject();
+        for (int index = 0; index < objectSize; index++) {
+            final String name = names[(int) readVarint(byteBuffer)];
+            final Optional<Projection> optionalChild = projection.getChild(name);
+            if (projection.includes(name)) {
+                jsonObject.add(name, readElement(byteBuffer, names));
+            } else if (optionalChild.isPresent() && byteBuffer.get(byteBuffer.position()) == OBJECT) {
+                byteBuffer.get();
+                jsonObject.add(name, readProjectedObject(byteBuffer, names, optionalChild.get()));
+            } else {
+                skipElement(byteBuffer);
+            }
+        }
+        return jsonObject;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the decode methods.
+     */
+    private static void skipElement(final ByteBuffer byteBuffer) {
+        final byte tag = byteBuffer.get();
+        switch (tag) {
+            case NULL:
+            case TRUE:
+            case FALSE:
+                return;
+            case INTEGER:
+                readVarint(byteBuffer);
+                return;
+            case DOUBLE:
+                byteBuffer.position(byteBuffer.position() + Double.BYTES);
+                return;
+            case DECIMAL:
+            case STRING:
+                final int length = (int) readVarint(byteBuffer);
+                byteBuffer.position(byteBuffer.position() + length);
+                return;
+            case ARRAY:
+                final int arraySize = (int) readVarint(byteBuffer);
+                for (int index = 0; index < arraySize; index++) {
+                    skipElement(byteBuffer);
+                }
+                return;
+            case OBJECT:
+                final int objectSize = (int) readVarint(byteBuffer);
+                for (int index = 0; index < objectSize; index++) {
+                    readVarint(byteBuffer);
+                    skipElement(byteBuffer);
+                }
+                return;
+            default:
+                throw new IllegalStateException("The binary json tag " + tag + " isn't known.");
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the decode methods.
+     */
+    private static JsonElement readElement(final ByteBuffer byteBuffer, final String[] names) {
+        final byte tag = byteBuffer.get();
+        switch (tag) {
+            case NULL:
+                return JsonNull.INSTANCE;
+            case TRUE:
+                return new JsonPrimitive(true);
+            case FALSE:
+                return new JsonPrimitive(false);
+            case INTEGER:
+                final long zigzag = readVarint(byteBuffer);
+                return new JsonPrimitive((zigzag >>> 1) ^ -(zigzag & 1));
+            case DOUBLE:
+                return new JsonPrimitive(byteBuffer.getDouble());
+            case DECIMAL:
+                return new JsonPrimitive(new BigDecimal(readString(byteBuffer)));
+            case STRING:
+                return new JsonPrimitive(readString(byteBuffer));
+            case ARRAY:
+                final int arraySize = (int) readVarint(byteBuffer);
+                final JsonArray jsonArray = new JsonArray(arraySize);
+                for (int index = 0; index < arraySize; index++) {
+                    jsonArray.add(readElement(byteBuffer, names));
+                }
+                return jsonArray;
+            case OBJECT:
+                final int objectSize = (int) readVarint(byteBuffer);
+                final JsonObject jsonObject = new JsonObject();
+                for (int index = 0; index < objectSize; index++) {
+                    final String name = names[(int) readVarint(byteBuffer)];
+                    jsonObject.add(name, readElement(byteBuffer, names));
+                }
+                return jsonObject;
+            default:
+                throw new IllegalStateException("The binary json tag " + tag + " isn't known.");
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the binary format.
+     */
+    private static Long parseInteger(final String number) {
+        if (number.indexOf('.') >= 0 || number.indexOf('e') >= 0 || number.indexOf('E') >= 0) {
+            return null;
+        }
+        try {
+            return Long.parseLong(number);
+        } catch (final NumberFormatException numberFormatException) {
+            return null;
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the binary format.
+     */
+    private static boolean isExactDouble(final String number) {
+        try {
+            return Double.toString(Double.parseDouble(number)).equals(number);
+        } catch (final NumberFormatException numberFormatException) {
+            return false;
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the binary format.
+     */
+    private static void writeVarint(final ByteArrayOutputStream byteArrayOutputStream, final long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0L) {
+            byteArrayOutputStream.write((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        byteArrayOutputStream.write((int) remaining);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the binary format.
+     */
+    private static long readVarint(final ByteBuffer byteBuffer) {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte current = byteBuffer.get();
+            value |= (long) (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("The binary json has a malformed varint.");
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the binary format.
+     */
+    private static void writeString(final ByteArrayOutputStream byteArrayOutputStream, final String string) {
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarint(byteArrayOutputStream, bytes.length);
+        byteArrayOutputStream.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the binary format.
+     */
+    private static String readString(final ByteBuffer byteBuffer) {
+        final int length = (int) readVarint(byteBuffer);
+        final String string = new String(byteBuffer.array(), byteBuffer.position(), length, StandardCharsets.UTF_8);
+        byteBuffer.position(byteBuffer.position() + length);
+        return string;
+    }
+}
@@ -0,0 +1,7 @@
+package net.evilkingdom.commons.data.implementation.json.enums;
+
+public enum JsonFormat {
+    PLAIN,
+    GZIP,
+    BINARY,
+}
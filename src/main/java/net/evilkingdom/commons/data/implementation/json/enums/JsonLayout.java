@@ -0,0 +1,6 @@
+package net.evilkingdom.commons.data.implementation.json.enums;
+
+public enum JsonLayout {
+    FLAT,
+    SHARDED,
+}
@@ -0,0 +1,446 @@
+package net.evilkingdom.commons.data.implementation.log;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.evilkingdom.commons.data.codec.GsonCodec;
+import net.evilkingdom.commons.data.objects.Datapoint;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+@SuppressWarnings("ConstantConditions")
+public class LogDatapoint extends Datapoint {
+
+    private static final String EXTENSION = ".log";
+
+    private final LogDatasite site;
+    private final ConcurrentHashMap<String, Location> index;
+    private final ConcurrentSkipListMap<Long, LogSegment> segments;
+    private final Object writeLock;
+    private File folder;
+    private LogSegment active;
+    private BukkitTask compactionTask;
+    private long maximumSegmentSize;
+    private double compactionThreshold;
+    private long compactionInterval;
+    private boolean force;
+
+    /**
+     * Allows you to create a datapoint for a plugin.
+     *
+     * @param datasite ~ The datasite of the datapoint.
+     * @param name     ~ The type of datapoint.
+     */
+    public LogDatapoint(final LogDatasite datasite, final String name) {
+        super(datasite, name);
+        this.site = datasite;
+        this.index = new ConcurrentHashMap<>();
+        this.segments = new ConcurrentSkipListMap<>();
+        this.writeLock = new Object();
+        this.maximumSegmentSize = 64L * 1024L * 1024L;
+        this.compactionThreshold = 0.5;
+        this.compactionInterval = 6000L;
+    }
+
+    /**
+     * Allows you to register the datapoint.
+     * This will open every segment, rebuild the index from their footers (or by scanning them if they weren't sealed) and start compaction.
+     */
+    @Override
+    public void register() {
+        this.site.getPoints().add(this);
+        final File logFolder = new File(this.site.getPlugin().getDataFolder(), "log");
+        this.folder = new File(logFolder, this.name);
+        if (!this.folder.exists()) {
+            this.folder.mkdirs();
+        }
+        synchronized (this.writeLock) {
+            this.index.clear();
+            this.segments.values().forEach(LogSegment::close);
+            this.segments.clear();
+            final File[] files = Arrays.stream(this.folder.listFiles())
+                    .filter(file -> file.getName().endsWith(EXTENSION))
+                    .sorted(Comparator.comparing(File::getName))
+                    .toArray(File[]::new);
+            for (final File file : files) {
+                final long id = Long.parseLong(file.getName().substring(0, file.getName().length() - EXTENSION.length()));
+                try {
+                    final LogSegment segment = new LogSegment(id, file);
+                    this.segments.put(id, segment);
+                    segment.getEntries().forEach((identifier, entry) -> {
+                        if (entry.isDeletion()) {
+                            this.index.remove(identifier);
+                        } else {
+                            this.index.put(identifier, new Location(segment, entry.getOffset(), entry.getSize()));
+                        }
+                    });
+                } catch (final IOException ioException) {
+                    this.site.getPlugin().getLogger().severe("Couldn't open the segment " + file.getName() + " of " + this.name + ": " + ioException.getMessage());
+                }
+            }
+            this.index.values().forEach(location -> location.segment.getLive().addAndGet(location.size));
+            if (this.segments.isEmpty() || this.segments.lastEntry().getValue().isSealed()) {
+                this.roll();
+            } else {
+                this.active = this.segments.lastEntry().getValue();
+            }
+        }
+        this.buildIndexes();
+        this.compactionTask = Bukkit.getScheduler().runTaskTimerAsynchronously(this.site.getPlugin(), this::compact,
+                this.compactionInterval, this.compactionInterval);
+    }
+
+    /**
+     * Allows you to close the datapoint.
+     * This will stop compaction, force the active segment to disk and close every segment.
+     */
+    public void close() {
+        if (this.compactionTask != null) {
+            this.compactionTask.cancel();
+            this.compactionTask = null;
+        }
+        synchronized (this.writeLock) {
+            if (this.active != null) {
+                try {
+                    this.active.force();
+                } catch (final IOException ignored) {
+                }
+            }
+            this.segments.values().forEach(LogSegment::close);
+        }
+    }
+
+    /**
+     * Allows you to compact the datapoint.
+     * Every sealed segment whose live records take up less than the compaction threshold has them rewritten to the active segment, and is then deleted.
+     * Deletions are carried over as long as an older segment could still hold a record they hide.
+     */
+    public void compact() {
+        for (final LogSegment segment : this.segments.values()) {
+            if (segment == this.active || !segment.isSealed()) {
+                continue;
+            }
+            if (segment.getSize() > 0L && (double) segment.getLive().get() / segment.getSize() >= this.compactionThreshold) {
+                continue;
+            }
+            try {
+                for (final Map.Entry<String, LogSegment.Entry> entry : new ArrayList<>(segment.getEntries().entrySet())) {
+                    synchronized (this.writeLock) {
+                        final Location location = this.index.get(entry.getKey());
+                        if (entry.getValue().isDeletion()) {
+                            if (location == null && this.segments.firstKey() < segment.getId()) {
+                                this.append(entry.getKey(), null, false);
+                            }
+                            continue;
+                        }
+                        if (location == null || location.segment != segment || location.offset != entry.getValue().getOffset()) {
+                            continue;
+                        }
+                        this.append(entry.getKey(), segment.read(location.offset, location.size), false);
+                    }
+                }
+            } catch (final IOException ioException) {
+                this.site.getPlugin().getLogger().warning("Couldn't compact the segment " + segment.getId() + " of " + this.name + ": " + ioException.getMessage());
+                continue;
+            }
+            synchronized (this.writeLock) {
+                this.segments.remove(segment.getId());
+            }
+            segment.delete();
+        }
+    }
+
+    /**
+     * Allows the datapoint to read all the json objects from its backend.
+     *
+     * @return All the json objects.
+     */
+    @Override
+    protected CompletableFuture<ArrayList<JsonObject>> readAll() {
+        return CompletableFuture.supplyAsync(() -> this.index.keySet().stream()
+                .map(this::readRecord)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toCollection(ArrayList::new)), this.site.getExecutor());
+    }
+
+    /**
+     * Allows the datapoint to count all the json objects in its backend.
+     * This is answered straight from the index.
+     *
+     * @return The total number of json objects.
+     */
+    @Override
+    protected CompletableFuture<Long> count() {
+        return CompletableFuture.completedFuture((long) this.index.size());
+    }
+
+    /**
+     * Allows the datapoint to read a json object from its backend.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return The json object.
+     */
+    @Override
+    protected CompletableFuture<Optional<JsonObject>> read(final String identifier) {
+        if (!this.index.containsKey(identifier)) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return CompletableFuture.supplyAsync(() -> this.readRecord(identifier), this.site.getExecutor());
+    }
+
+    /**
+     * Allows the datapoint to write a json object to its backend.
+     * The json object is appended to the active segment as a new record.
+     *
+     * @param jsonObject ~ The json object to write.
+     * @param identifier ~ The identifier of the json object.
+     * @return When the json object has been written.
+     */
+    @Override
+    protected CompletableFuture<Void> write(final JsonObject jsonObject, final String identifier) {
+        final byte[] value = GsonCodec.GSON.toJson(jsonObject).getBytes(StandardCharsets.UTF_8);
+        return CompletableFuture.runAsync(() -> {
+            try {
+                synchronized (this.writeLock) {
+                    this.append(identifier, value, this.force);
+                }
+            } catch (final IOException ioException) {
+                throw new CompletionException(ioException);
+            }
+        }, this.site.getExecutor());
+    }
+
+    /**
+     * Allows the datapoint to check if its backend contains a json object from an identifier.
+     * This is answered straight from the index.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return If the backend contains a json object from the identifier.
+     */
+    @Override
+    protected CompletableFuture<Boolean> contains(final String identifier) {
+        return CompletableFuture.completedFuture(this.index.containsKey(identifier));
+    }
+
+    /**
+     * Allows the datapoint to delete a json object from its backend.
+     * A deletion record is appended to the active segment.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return When the json object has been deleted.
+     */
+    @Override
+    protected CompletableFuture<Void> remove(final String identifier) {
+        return this.removeMany(List.of(identifier));
+    }
+
+    /**
+     * Allows the datapoint to walk the identifiers in its backend.
+     * This walks the index, so no segment is read.
+     *
+     * @return An iterator over the identifiers.
+     */
+    @Override
+    protected Iterator<String> keys() {
+        return this.index.keySet().iterator();
+    }
+
+    /**
+     * Allows the datapoint to write many json objects to its backend.
+     * Every record is appended while holding the write lock once, and forced to disk once.
+     *
+     * @param jsonObjects ~ The json objects to write, mapped by their identifiers.
+     * @return When every json object has been written.
+     */
+    @Override
+    protected CompletableFuture<Void> writeMany(final HashMap<String, JsonObject> jsonObjects) {
+        final HashMap<String, byte[]> values = new HashMap<>();
+        jsonObjects.forEach((identifier, jsonObject) -> values.put(identifier, GsonCodec.GSON.toJson(jsonObject).getBytes(StandardCharsets.UTF_8)));
+        return this.appendAll(values);
+    }
+
+    /**
+     * Allows the datapoint to delete many json objects from its backend.
+     * Every deletion record is appended while holding the write lock once, and forced to disk once.
+     *
+     * @param identifiers ~ The identifiers of the json objects.
+     * @return When every json object has been deleted.
+     */
+    @Override
+    protected CompletableFuture<Void> removeMany(final Collection<String> identifiers) {
+        final HashMap<String, byte[]> values = new HashMap<>();
+        identifiers.stream().filter(this.index::containsKey).forEach(identifier -> values.put(identifier, null));
+        if (values.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return this.appendAll(values);
+    }
+
+    /**
+     * Allows you to set the maximum size of a segment before a new one is started.
+     *
+     * @param maximumSegmentSize ~ The maximum size (in bytes) of a segment.
+     */
+    public void setMaximumSegmentSize(final long maximumSegmentSize) {
+        this.maximumSegmentSize = maximumSegmentSize;
+    }
+
+    /**
+     * Allows you to set the ratio of live records below which a sealed segment is compacted.
+     *
+     * @param compactionThreshold ~ The ratio of live records between 0 and 1.
+     */
+    public void setCompactionThreshold(final double compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Allows you to set the interval between compactions.
+     * This only takes effect if it's set before the datapoint is registered.
+     *
+     * @param compactionInterval ~ The interval (in ticks) between compactions.
+     */
+    public void setCompactionInterval(final long compactionInterval) {
+        this.compactionInterval = compactionInterval;
+    }
+
+    /**
+     * Allows you to set if every write should be forced to disk before it completes.
+     *
+     * @param force ~ If every write should be forced to disk.
+     */
+    public void setForce(final boolean force) {
+        this.force = force;
+    }
+
+    /**
+     * Allows you to retrieve the amount of segments.
+     *
+     * @return The amount of segments.
+     */
+    public int getSegmentCount() {
+        return this.segments.size();
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the batch methods.
+     */
+    private CompletableFuture<Void> appendAll(final HashMap<String, byte[]> values) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                synchronized (this.writeLock) {
+                    for (final Map.Entry<String, byte[]> entry : values.entrySet()) {
+                        this.append(entry.getKey(), entry.getValue(), false);
+                    }
+                    if (this.force) {
+                        this.active.force();
+                    }
+                }
+            } catch (final IOException ioException) {
+                throw new CompletionException(ioException);
+            }
+        }, this.site.getExecutor());
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the write methods.
+     * The caller must hold the write lock.
+     */
+    private void append(final String identifier, final byte[] value, final boolean force) throws IOException {
+        final ByteBuffer record = LogSegment.encode(identifier, value);
+        final int size = record.remaining();
+        final LogSegment segment = this.active;
+        final long offset = segment.append(identifier, record, value == null);
+        if (force) {
+            segment.force();
+        }
+        final Location previous = value == null ? this.index.remove(identifier) : this.index.put(identifier, new Location(segment, offset, size));
+        if (previous != null) {
+            previous.segment.getLive().addAndGet(-previous.size);
+        }
+        if (value != null) {
+            segment.getLive().addAndGet(size);
+        }
+        if (segment.getSize() >= this.maximumSegmentSize) {
+            segment.seal();
+            this.roll();
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the write methods.
+     * The caller must hold the write lock.
+     */
+    private void roll() {
+        final long id = this.segments.isEmpty() ? 0L : this.segments.lastKey() + 1L;
+        try {
+            this.active = new LogSegment(id, new File(this.folder, String.format("%020d", id) + EXTENSION));
+        } catch (final IOException ioException) {
+            throw new CompletionException(ioException);
+        }
+        this.segments.put(id, this.active);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the read methods.
+     * If the record was moved by a compaction while it was being read, the read is retried at its new location.
+     */
+    private Optional<JsonObject> readRecord(final String identifier) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            final Location location = this.index.get(identifier);
+            if (location == null) {
+                return Optional.empty();
+            }
+            try {
+                final byte[] value = location.segment.read(location.offset, location.size);
+                if (value == null) {
+                    return Optional.empty();
+                }
+                return Optional.of(JsonParser.parseString(new String(value, StandardCharsets.UTF_8)).getAsJsonObject());
+            } catch (final IOException ioException) {
+                if (this.index.get(identifier) == location) {
+                    return Optional.empty();
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static class Location {
+
+        private final LogSegment segment;
+        private final long offset;
+        private final int size;
+
+        /**
+         * Allows you to create a location.
+         *
+         * @param segment ~ The segment of the record.
+         * @param offset  ~ The offset of the record.
+         * @param size    ~ The size of the record.
+         */
+        private Location(final LogSegment segment, final long offset, final int size) {
+            this.segment = segment;
+            this.offset = offset;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package net.evilkingdom.commons.data.implementation.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+public class LogSegment {
+
+    /**
+     * Every record starts with its checksum, its key length and its value length (-1 for a deletion).
+     */
+    public static final int HEADER = 12;
+
+    private static final int FOOTER_TRAILER = 16;
+    private static final int FOOTER_MAGIC = 0x45564C47;
+
+    private final long id;
+    private final File file;
+    private final FileChannel fileChannel;
+    private final AtomicLong live;
+    private final LinkedHashMap<String, Entry> entries;
+    private volatile long size;
+    private volatile boolean sealed;
+
+    /**
+     * Allows you to open a segment.
+     * If the segment was sealed its entries are loaded from its footer, otherwise its records are scanned and a torn tail is truncated.
+     *
+     * @param id   ~ The id of the segment.
+     * @param file ~ The file of the segment.
+     * @throws IOException If the segment couldn't be opened.
+     */
+    public LogSegment(final long id, final File file) throws IOException {
+        this.id = id;
+        this.file = file;
+        this.fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.live = new AtomicLong();
+        this.entries = new LinkedHashMap<>();
+        if (!this.readFooter()) {
+            this.size = this.scan();
+            this.fileChannel.truncate(this.size);
+        }
+    }
+
+    /**
+     * Allows you to encode a record.
+     *
+     * @param identifier ~ The identifier of the record.
+     * @param value      ~ The value of the record, or null for a deletion.
+     * @return The encoded record.
+     */
+    public static ByteBuffer encode(final String identifier, final byte[] value) {
+        final byte[] identifierBytes = identifier.getBytes(StandardCharsets.UTF_8);
+        final int valueLength = value == null ? -1 : value.length;
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(HEADER + identifierBytes.length + Math.max(0, valueLength));
+        byteBuffer.putInt(0).putInt(identifierBytes.length).putInt(valueLength).put(identifierBytes);
+        if (value != null) {
+            byteBuffer.put(value);
+        }
+        final CRC32 crc32 = new CRC32();
+        crc32.update(byteBuffer.array(), 4, byteBuffer.capacity() - 4);
+        byteBuffer.putInt(0, (int) crc32.getValue());
+        byteBuffer.flip();
+        return byteBuffer;
+    }
+
+    /**
+     * Allows you to append a record to the segment.
+     * The caller is expected to serialize appends.
+     *
+     * @param identifier ~ The identifier of the record.
+     * @param record     ~ The encoded record.
+     * @param deletion   ~ If the record is a deletion.
+     * @return The offset the record was appended at.
+     * @throws IOException If the record couldn't be appended.
+     */
+    public long append(final String identifier, final ByteBuffer record, final boolean deletion) throws IOException {
+        if (this.sealed) {
+            throw new IllegalStateException("The segment " + this.id + " is sealed.");
+        }
+        final long offset = this.size;
+        final int recordSize = record.remaining();
+        long position = offset;
+        while (record.hasRemaining()) {
+            position += this.fileChannel.write(record, position);
+        }
+        this.size = position;
+        this.entries.put(identifier, new Entry(offset, recordSize, deletion));
+        return offset;
+    }
+
+    /**
+     * Allows you to truncate the segment back to a size.
+     * Records past the size are dropped and forced off the disk, and the entries are scanned again so they hold the latest record of every identifier that's left.
+     * The caller is expected to serialize this with appends.
+     *
+     * @param size ~ The size (in bytes) to truncate the segment's records to.
+     * @throws IOException If the segment couldn't be truncated.
+     */
+    public void truncate(final long size) throws IOException {
+        if (this.sealed) {
+            throw new IllegalStateException("The segment " + this.id + " is sealed.");
+        }
+        this.fileChannel.truncate(size);
+        this.fileChannel.force(false);
+        this.entries.clear();
+        this.size = this.scan();
+    }
+
+    /**
+     * Allows you to read a record's value from the segment.
+     *
+     * @param offset ~ The offset of the record.
+     * @param size   ~ The size of the record.
+     * @return The record's value, or null if the record is a deletion.
+     * @throws IOException If the record couldn't be read or is corrupt.
+     */
+    public byte[] read(final long offset, final int size) throws IOException {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(size);
+        long position = offset;
+        while (byteBuffer.hasRemaining()) {
+            final int read = this.fileChannel.read(byteBuffer, position);
+            if (read < 0) {
+                throw new IOException("The segment " + this.id + " ended before the record at " + offset + ".");
+            }
+            position += read;
+        }
+        if (!isValid(byteBuffer.array(), size)) {
+            throw new IOException("The record at " + offset + " in segment " + this.id + " is corrupt.");
+        }
+        final int identifierLength = byteBuffer.getInt(4);
+        final int valueLength = byteBuffer.getInt(8);
+        if (valueLength < 0) {
+            return null;
+        }
+        final byte[] value = new byte[valueLength];
+        byteBuffer.position(HEADER + identifierLength);
+        byteBuffer.get(value);
+        return value;
+    }
+
+    /**
+     * Allows you to seal the segment.
+     * A footer with every entry is appended and forced to disk, so the segment can be loaded without scanning it on the next start.
+     *
+     * @throws IOException If the footer couldn't be written.
+     */
+    public void seal() throws IOException {
+        if (this.sealed) {
+            return;
+        }
+        int footerSize = FOOTER_TRAILER;
+        for (final String identifier : this.entries.keySet()) {
+            footerSize += 4 + identifier.getBytes(StandardCharsets.UTF_8).length + 13;
+        }
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(footerSize);
+        for (final Map.Entry<String, Entry> entry : this.entries.entrySet()) {
+            final byte[] identifierBytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            byteBuffer.putInt(identifierBytes.length).put(identifierBytes)
+                    .putLong(entry.getValue().offset)
+                    .putInt(entry.getValue().size)
+                    .put((byte) (entry.getValue().deletion ? 1 : 0));
+        }
+        byteBuffer.putLong(this.size).putInt(this.entries.size()).putInt(FOOTER_MAGIC);
+        byteBuffer.flip();
+        long position = this.size;
+        while (byteBuffer.hasRemaining()) {
+            position += this.fileChannel.write(byteBuffer, position);
+        }
+        this.fileChannel.force(true);
+        this.sealed = true;
+    }
+
+    /**
+     * Allows you to force the segment to disk.
+     *
+     * @throws IOException If the segment couldn't be forced.
+     */
+    public void force() throws IOException {
+        this.fileChannel.force(false);
+    }
+
+    /**
+     * Allows you to close the segment.
+     */
+    public void close() {
+        try {
+            this.fileChannel.close();
+        } catch (final IOException ignored) {
+        }
+    }
+
+    /**
+     * Allows you to close and delete the segment.
+     */
+    public void delete() {
+        this.close();
+        this.file.delete();
+    }
+
+    /**
+     * Allows you to retrieve the segment's id.
+     *
+     * @return The segment's id.
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * Allows you to retrieve the size of the segment's records.
+     *
+     * @return The size (in bytes) of the segment's records.
+     */
+    public long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Allows you to retrieve the size of the segment's live records.
+     *
+     * @return The size (in bytes) of the segment's live records.
+     */
+    public AtomicLong getLive() {
+        return this.live;
+    }
+
+    /**
+     * Allows you to retrieve if the segment is sealed.
+     *
+     * @return If the segment is sealed.
+     */
+    public boolean isSealed() {
+        return this.sealed;
+    }
+
+    /**
+     * Allows you to retrieve the segment's entries.
+     * This holds the latest record of every identifier in the segment, in the order they were written.
+     *
+     * @return The segment's entries.
+     */
+    public LinkedHashMap<String, Entry> getEntries() {
+        return this.entries;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the constructor.
+     */
+    private boolean readFooter() throws IOException {
+        final long fileSize = this.fileChannel.size();
+        if (fileSize < FOOTER_TRAILER) {
+            return false;
+        }
+        final ByteBuffer trailer = ByteBuffer.allocate(FOOTER_TRAILER);
+        this.fileChannel.read(trailer, fileSize - FOOTER_TRAILER);
+        trailer.flip();
+        final long recordsSize = trailer.getLong();
+        final int entryCount = trailer.getInt();
+        if (trailer.getInt() != FOOTER_MAGIC || recordsSize < 0L || recordsSize > fileSize - FOOTER_TRAILER) {
+            return false;
+        }
+        final ByteBuffer footer = ByteBuffer.allocate((int) (fileSize - FOOTER_TRAILER - recordsSize));
+        this.fileChannel.read(footer, recordsSize);
+        footer.flip();
+        try {
+            for (int index = 0; index < entryCount; index++) {
+                final byte[] identifierBytes = new byte[footer.getInt()];
+                footer.get(identifierBytes);
+                this.entries.put(new String(identifierBytes, StandardCharsets.UTF_8), new Entry(footer.getLong(), footer.getInt(), footer.get() == 1));
+            }
+        } catch (final RuntimeException runtimeException) {
+            this.entries.clear();
+            return false;
+        }
+        this.size = recordsSize;
+        this.sealed = true;
+        return true;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the constructor.
+     * Scanning stops at the first record that is incomplete or fails its checksum.
+     */
+    private long scan() throws IOException {
+        final long fileSize = this.fileChannel.size();
+        final ByteBuffer header = ByteBuffer.allocate(HEADER);
+        long position = 0L;
+        while (position + HEADER <= fileSize) {
+            header.clear();
+            this.fileChannel.read(header, position);
+            final int identifierLength = header.getInt(4);
+            final int valueLength = header.getInt(8);
+            if (identifierLength < 0 || valueLength < -1) {
+                break;
+            }
+            final long recordSize = (long) HEADER + identifierLength + Math.max(0, valueLength);
+            if (position + recordSize > fileSize || recordSize > Integer.MAX_VALUE) {
+                break;
+            }
+            final ByteBuffer record = ByteBuffer.allocate((int) recordSize);
+            this.fileChannel.read(record, position);
+            if (!isValid(record.array(), (int) recordSize)) {
+                break;
+            }
+            final String identifier = new String(record.array(), HEADER, identifierLength, StandardCharsets.UTF_8);
+            this.entries.remove(identifier);
+            this.entries.put(identifier, new Entry(position, (int) recordSize, valueLength < 0));
+            position += recordSize;
+        }
+        return position;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the segment.
+     */
+    private static boolean isValid(final byte[] record, final int size) {
+        final CRC32 crc32 = new CRC32();
+        crc32.update(record, 4, size - 4);
+        return ByteBuffer.wrap(record).getInt(0) == (int) crc32.getValue();
+    }
+
+    public static class Entry {
+
+        private final long offset;
+        private final int size;
+        private final boolean deletion;
+
+        /**
+         * Allows you to create a segment entry.
+         *
+         * @param offset   ~ The offset of the record.
+         * @param size     ~ The size of the record.
+         * @param deletion ~ If the record is a deletion.
+         */
+        public Entry(final long offset, final int size, final boolean deletion) {
+            this.offset = offset;
+            this.size = size;
+            this.deletion = deletion;
+        }
+
+        /**
+         * Allows you to retrieve the offset of the record.
+         *
+         * @return The offset of the record.
+         */
+        public long getOffset() {
+            return this.offset;
+        }
+
+        /**
+         * Allows you to retrieve the size of the record.
+         *
+         * @return The size of the record.
+         */
+        public int getSize() {
+            return this.size;
+        }
+
+        /**
+         * Allows you to retrieve if the record is a deletion.
+         *
+         * @return If the record is a deletion.
+         */
+        public boolean isDeletion() {
+            return this.deletion;
+        }
+    }
+}
@@ -0,0 +1,628 @@
+package net.evilkingdom.commons.data.implementation.mapped;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.evilkingdom.commons.data.codec.GsonCodec;
+import net.evilkingdom.commons.data.objects.Datapoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class MappedDatapoint extends Datapoint {
+
+    private static final String EXTENSION = ".dat";
+    private static final int MAGIC = 0x45564D50;
+    private static final int VERSION = 1;
+    private static final int HEADER = 32;
+    private static final int SLOT = 16;
+    private static final int RECORD_HEADER = 8;
+    private static final int INITIAL_SLOTS = 1024;
+    private static final long INITIAL_DATA = 1024L * 1024L;
+
+    private final MappedDatasite site;
+    private final ReentrantReadWriteLock lock;
+    private File file;
+    private FileChannel fileChannel;
+    private MappedByteBuffer buffer;
+    private int slotCount;
+    private int entryCount;
+    private long dataEnd;
+    private long garbage;
+
+    /**
+     * Allows you to create a datapoint for a plugin.
+     *
+     * @param datasite ~ The datasite of the datapoint.
+     * @param name     ~ The type of datapoint.
+     */
+    public MappedDatapoint(final MappedDatasite datasite, final String name) {
+        super(datasite, name);
+        this.site = datasite;
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Allows you to register the datapoint.
+     * This will map the datapoint's file, creating it if it doesn't exist.
+     * The datapoint replaces its file while it's mapped when it rehashes or compacts, which Windows doesn't allow, so this backend isn't supported there.
+     */
+    @Override
+    public void register() {
+        this.site.getPoints().add(this);
+        final File mappedFolder = new File(this.site.getPlugin().getDataFolder(), "mapped");
+        if (!mappedFolder.exists()) {
+            mappedFolder.mkdirs();
+        }
+        this.file = new File(mappedFolder, this.name + EXTENSION);
+        this.lock.writeLock().lock();
+        try {
+            if (this.file.exists() && this.file.length() >= HEADER) {
+                this.map(this.file.length());
+                if (this.buffer.getInt(0) != MAGIC || this.buffer.getInt(4) != VERSION) {
+                    throw new IOException("The file " + this.file.getName() + " isn't a mapped datapoint.");
+                }
+                this.slotCount = this.buffer.getInt(8);
+                this.entryCount = this.buffer.getInt(12);
+                this.dataEnd = this.buffer.getLong(16);
+                this.garbage = this.buffer.getLong(24);
+            } else {
+                this.rebuild(INITIAL_SLOTS, INITIAL_DATA);
+            }
+        } catch (final IOException ioException) {
+            throw new CompletionException(ioException);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+        this.buildIndexes();
+    }
+
+    /**
+     * Allows you to close the datapoint.
+     * This will force the mapped file to disk and close it.
+     */
+    public void close() {
+        this.lock.writeLock().lock();
+        try {
+            if (this.buffer != null) {
+                this.buffer.force();
+            }
+            if (this.fileChannel != null) {
+                this.fileChannel.close();
+            }
+        } catch (final IOException ignored) {
+        } finally {
+            this.buffer = null;
+            this.fileChannel = null;
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Allows the datapoint to read all the json objects from its backend.
+     *
+     * @return All the json objects.
+     */
+    @Override
+    protected CompletableFuture<ArrayList<JsonObject>> readAll() {
+        return CompletableFuture.supplyAsync(() -> {
+            final ArrayList<JsonObject> jsonObjects = new ArrayList<>();
+            this.lock.readLock().lock();
+            try {
+                for (int slot = 0; slot < this.slotCount; slot++) {
+                    final long offset = this.buffer.getLong(HEADER + slot * SLOT);
+                    if (offset != 0L) {
+                        jsonObjects.add(this.decode(offset));
+                    }
+                }
+            } finally {
+                this.lock.readLock().unlock();
+            }
+            return jsonObjects;
+        }, this.site.getExecutor());
+    }
+
+    /**
+     * Allows the datapoint to count all the json objects in its backend.
+     * This is answered straight from the file's header.
+     *
+     * @return The total number of json objects.
+     */
+    @Override
+    protected CompletableFuture<Long> count() {
+        this.lock.readLock().lock();
+        try {
+            return CompletableFuture.completedFuture((long) this.entryCount);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Allows the datapoint to read a json object from its backend.
+     * The json object is parsed straight from the mapped file on the calling thread, so there's no system call or copy of the file involved.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return The json object.
+     */
+    @Override
+    protected CompletableFuture<Optional<JsonObject>> read(final String identifier) {
+        final byte[] identifierBytes = identifier.getBytes(StandardCharsets.UTF_8);
+        this.lock.readLock().lock();
+        try {
+            final int slot = this.find(identifierBytes, hash(identifierBytes));
+            final long offset = this.buffer.getLong(HEADER + slot * SLOT);
+            if (offset == 0L) {
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+            return CompletableFuture.completedFuture(Optional.of(this.decode(offset)));
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Allows the datapoint to write a json object to its backend.
+     * The json object is appended to the data region and its slot is pointed at it.
+     *
+     * @param jsonObject ~ The json object to write.
+     * @param identifier ~ The identifier of the json object.
+     * @return When the json object has been written.
+     */
+    @Override
+    protected CompletableFuture<Void> write(final JsonObject jsonObject, final String identifier) {
+        final byte[] value = GsonCodec.GSON.toJson(jsonObject).getBytes(StandardCharsets.UTF_8);
+        return CompletableFuture.runAsync(() -> {
+            this.lock.writeLock().lock();
+            try {
+                this.put(identifier.getBytes(StandardCharsets.UTF_8), value);
+            } catch (final IOException ioException) {
+                throw new CompletionException(ioException);
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }, this.site.getExecutor());
+    }
+
+    /**
+     * Allows the datapoint to check if its backend contains a json object from an identifier.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return If the backend contains a json object from the identifier.
+     */
+    @Override
+    protected CompletableFuture<Boolean> contains(final String identifier) {
+        final byte[] identifierBytes = identifier.getBytes(StandardCharsets.UTF_8);
+        this.lock.readLock().lock();
+        try {
+            final int slot = this.find(identifierBytes, hash(identifierBytes));
+            return CompletableFuture.completedFuture(this.buffer.getLong(HEADER + slot * SLOT) != 0L);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Allows the datapoint to delete a json object from its backend.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return When the json object has been deleted.
+     */
+    @Override
+    protected CompletableFuture<Void> remove(final String identifier) {
+        return this.removeMany(List.of(identifier));
+    }
+
+    /**
+     * Allows the datapoint to walk the identifiers in its backend.
+     * The identifiers are copied out of the mapped file while holding the read lock once, so a rehash can't disturb the walk.
+     *
+     * @return An iterator over the identifiers.
+     */
+    @Override
+    protected Iterator<String> keys() {
+        final ArrayList<String> identifiers = new ArrayList<>();
+        this.lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < this.slotCount; slot++) {
+                final long offset = this.buffer.getLong(HEADER + slot * SLOT);
+                if (offset != 0L) {
+                    final byte[] identifierBytes = new byte[this.buffer.getInt((int) offset)];
+                    this.buffer.get((int) offset + RECORD_HEADER, identifierBytes);
+                    identifiers.add(new String(identifierBytes, StandardCharsets.UTF_8));
+                }
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        return identifiers.iterator();
+    }
+
+    /**
+     * Allows the datapoint to read many json objects from its backend.
+     * Every json object is read from the mapped file while holding the read lock once.
+     *
+     * @param identifiers ~ The identifiers of the json objects.
+     * @return The json objects that were found, mapped by their identifiers.
+     */
+    @Override
+    protected CompletableFuture<HashMap<String, Optional<JsonObject>>> readMany(final Collection<String> identifiers) {
+        final HashMap<String, Optional<JsonObject>> jsonObjects = new HashMap<>();
+        this.lock.readLock().lock();
+        try {
+            for (final String identifier : identifiers) {
+                final byte[] identifierBytes = identifier.getBytes(StandardCharsets.UTF_8);
+                final long offset = this.buffer.getLong(HEADER + this.find(identifierBytes, hash(identifierBytes)) * SLOT);
+                jsonObjects.put(identifier, offset == 0L ? Optional.empty() : Optional.of(this.decode(offset)));
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        return CompletableFuture.completedFuture(jsonObjects);
+    }
+
+    /**
+     * Allows the datapoint to write many json objects to its backend.
+     * Every json object is written while holding the write lock once.
+     *
+     * @param jsonObjects ~ The json objects to write, mapped by their identifiers.
+     * @return When every json object has been written.
+     */
+    @Override
+    protected CompletableFuture<Void> writeMany(final HashMap<String, JsonObject> jsonObjects) {
+        final HashMap<String, byte[]> values = new HashMap<>();
+        jsonObjects.forEach((identifier, jsonObject) -> values.put(identifier, GsonCodec.GSON.toJson(jsonObject).getBytes(StandardCharsets.UTF_8)));
+        return CompletableFuture.runAsync(() -> {
+            this.lock.writeLock().lock();
+            try {
+                for (final Map.Entry<String, byte[]> entry : values.entrySet()) {
+                    this.put(entry.getKey().getBytes(StandardCharsets.UTF_8), entry.getValue());
+                }
+            } catch (final IOException ioException) {
+                throw new CompletionException(ioException);
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }, this.site.getExecutor());
+    }
+
+    /**
+     * Allows the datapoint to delete many json objects from its backend.
+     * Every json object is deleted while holding the write lock once.
+     *
+     * @param identifiers ~ The identifiers of the json objects.
+     * @return When every json object has been deleted.
+     */
+    @Override
+    protected CompletableFuture<Void> removeMany(final Collection<String> identifiers) {
+        return CompletableFuture.runAsync(() -> {
+            this.lock.writeLock().lock();
+            try {
+                identifiers.forEach(identifier -> this.clear(identifier.getBytes(StandardCharsets.UTF_8)));
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }, this.site.getExecutor());
+    }
+
+    /**
+     * Allows you to compact the datapoint.
+     * The file is rewritten with only the live records, which drops every overwritten one.
+     */
+    public void compact() {
+        this.lock.writeLock().lock();
+        try {
+            this.rebuild(this.slotCount, Math.max(INITIAL_DATA, this.dataEnd - this.dataStart() - this.garbage));
+        } catch (final IOException ioException) {
+            throw new CompletionException(ioException);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Allows you to retrieve the datapoint's file.
+     *
+     * @return The datapoint's file.
+     */
+    public File getFile() {
+        return this.file;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint.
+     * The caller must hold the write lock.
+     */
+    private void put(final byte[] identifierBytes, final byte[] value) throws IOException {
+        if ((this.entryCount + 1) * 10L > this.slotCount * 7L) {
+            this.rebuild(this.slotCount * 2, this.dataEnd - this.dataStart());
+        }
+        final long recordSize = RECORD_HEADER + identifierBytes.length + value.length;
+        if (this.dataEnd + recordSize > this.buffer.capacity()) {
+            this.grow(this.dataEnd + recordSize);
+        }
+        final int hash = hash(identifierBytes);
+        final int slot = this.find(identifierBytes, hash);
+        final int slotPosition = HEADER + slot * SLOT;
+        final long previousOffset = this.buffer.getLong(slotPosition);
+        final int previousSize = this.buffer.getInt(slotPosition + 12);
+        final long offset = this.dataEnd;
+        this.buffer.putInt((int) offset, identifierBytes.length);
+        this.buffer.putInt((int) offset + 4, value.length);
+        this.buffer.put((int) offset + RECORD_HEADER, identifierBytes);
+        this.buffer.put((int) offset + RECORD_HEADER + identifierBytes.length, value);
+        this.dataEnd += recordSize;
+        this.buffer.putInt(slotPosition + 8, hash);
+        this.buffer.putInt(slotPosition + 12, (int) recordSize);
+        this.buffer.putLong(slotPosition, offset);
+        if (previousOffset == 0L) {
+            this.entryCount++;
+        } else {
+            this.garbage += previousSize;
+        }
+        this.writeHeader();
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint.
+     * The caller must hold the write lock. The slots after the cleared one are shifted back so every probe sequence stays unbroken.
+     */
+    private void clear(final byte[] identifierBytes) {
+        final int mask = this.slotCount - 1;
+        int slot = this.find(identifierBytes, hash(identifierBytes));
+        int slotPosition = HEADER + slot * SLOT;
+        if (this.buffer.getLong(slotPosition) == 0L) {
+            return;
+        }
+        this.garbage += this.buffer.getInt(slotPosition + 12);
+        this.entryCount--;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            final int nextPosition = HEADER + next * SLOT;
+            if (this.buffer.getLong(nextPosition) == 0L) {
+                break;
+            }
+            final int home = this.buffer.getInt(nextPosition + 8) & mask;
+            final boolean movable = slot <= next ? (home <= slot || home > next) : (home <= slot && home > next);
+            if (movable) {
+                this.buffer.putLong(slotPosition, this.buffer.getLong(nextPosition));
+                this.buffer.putInt(slotPosition + 8, this.buffer.getInt(nextPosition + 8));
+                this.buffer.putInt(slotPosition + 12, this.buffer.getInt(nextPosition + 12));
+                slot = next;
+                slotPosition = nextPosition;
+            }
+        }
+        this.buffer.putLong(slotPosition, 0L);
+        this.buffer.putInt(slotPosition + 8, 0);
+        this.buffer.putInt(slotPosition + 12, 0);
+        this.writeHeader();
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint.
+     * The caller must hold a lock. This returns the identifier's slot, or the empty slot it would be put in.
+     */
+    private int find(final byte[] identifierBytes, final int hash) {
+        final int mask = this.slotCount - 1;
+        int slot = hash & mask;
+        while (true) {
+            final int slotPosition = HEADER + slot * SLOT;
+            final long offset = this.buffer.getLong(slotPosition);
+            if (offset == 0L) {
+                return slot;
+            }
+            if (this.buffer.getInt(slotPosition + 8) == hash && this.matches(offset, identifierBytes)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint.
+     * The identifier is compared in place within the mapped file.
+     */
+    private boolean matches(final long offset, final byte[] identifierBytes) {
+        if (this.buffer.getInt((int) offset) != identifierBytes.length) {
+            return false;
+        }
+        final int identifierPosition = (int) offset + RECORD_HEADER;
+        for (int index = 0; index < identifierBytes.length; index++) {
+            if (this.buffer.get(identifierPosition + index) != identifierBytes[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint.
+     * The value is streamed straight out of the mapped file into the json parser.
+     */
+    private JsonObject decode(final long offset) {
+        final int identifierLength = this.buffer.getInt((int) offset);
+        final int valueLength = this.buffer.getInt((int) offset + 4);
+        final ByteBuffer value = this.buffer.slice((int) offset + RECORD_HEADER + identifierLength, valueLength);
+        return JsonParser.parseReader(new InputStreamReader(new ByteBufferInputStream(value), StandardCharsets.UTF_8)).getAsJsonObject();
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint.
+     * The caller must hold the write lock. The file is extended and mapped again, at least doubling in size.
+     */
+    private void grow(final long required) throws IOException {
+        final long size = Math.max(required, (long) this.buffer.capacity() * 2L);
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("The mapped datapoint " + this.name + " can't grow past 2GB.");
+        }
+        this.buffer.force();
+        final FileChannel previousFileChannel = this.fileChannel;
+        this.map(size);
+        previousFileChannel.close();
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint.
+     * The caller must hold the write lock. A new file with the slot count is written and mapped next to the current one, then moved over it.
+     * The new table is only swapped in once the move has succeeded, so if anything fails the datapoint carries on with the current file untouched.
+     * The new mapping stays valid through the move, which is also why this backend isn't supported on Windows, where a mapped file can't be moved or replaced.
+     */
+    private void rebuild(final int slotCount, final long dataCapacity) throws IOException {
+        final File temporaryFile = new File(this.file.getPath() + ".tmp");
+        final long dataStart = HEADER + (long) slotCount * SLOT;
+        final long size = dataStart + Math.max(INITIAL_DATA, dataCapacity * 2L);
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("The mapped datapoint " + this.name + " can't grow past 2GB.");
+        }
+        temporaryFile.delete();
+        final FileChannel temporaryFileChannel = FileChannel.open(temporaryFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final MappedByteBuffer temporaryBuffer = temporaryFileChannel.map(FileChannel.MapMode.READ_WRITE, 0L, size);
+            final int mask = slotCount - 1;
+            int entryCount = 0;
+            long dataEnd = dataStart;
+            if (this.buffer != null) {
+                for (int slot = 0; slot < this.slotCount; slot++) {
+                    final int slotPosition = HEADER + slot * SLOT;
+                    final long offset = this.buffer.getLong(slotPosition);
+                    if (offset == 0L) {
+                        continue;
+                    }
+                    final int hash = this.buffer.getInt(slotPosition + 8);
+                    final int recordSize = this.buffer.getInt(slotPosition + 12);
+                    int temporarySlot = hash & mask;
+                    while (temporaryBuffer.getLong(HEADER + temporarySlot * SLOT) != 0L) {
+                        temporarySlot = (temporarySlot + 1) & mask;
+                    }
+                    final int temporarySlotPosition = HEADER + temporarySlot * SLOT;
+                    temporaryBuffer.put((int) dataEnd, this.buffer, (int) offset, recordSize);
+                    temporaryBuffer.putInt(temporarySlotPosition + 8, hash);
+                    temporaryBuffer.putInt(temporarySlotPosition + 12, recordSize);
+                    temporaryBuffer.putLong(temporarySlotPosition, dataEnd);
+                    dataEnd += recordSize;
+                    entryCount++;
+                }
+            }
+            writeHeader(temporaryBuffer, slotCount, entryCount, dataEnd, 0L);
+            temporaryBuffer.force();
+            Files.move(temporaryFile.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            final FileChannel previousFileChannel = this.fileChannel;
+            this.fileChannel = temporaryFileChannel;
+            this.buffer = temporaryBuffer;
+            this.slotCount = slotCount;
+            this.entryCount = entryCount;
+            this.dataEnd = dataEnd;
+            this.garbage = 0L;
+            if (previousFileChannel != null) {
+                try {
+                    previousFileChannel.close();
+                } catch (final IOException ignored) {
+                }
+            }
+        } catch (final IOException | RuntimeException exception) {
+            temporaryFileChannel.close();
+            temporaryFile.delete();
+            throw exception;
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint.
+     * The fields are only replaced once the file has been mapped.
+     */
+    private void map(final long size) throws IOException {
+        final FileChannel fileChannel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            this.buffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0L, size);
+        } catch (final IOException ioException) {
+            fileChannel.close();
+            throw ioException;
+        }
+        this.fileChannel = fileChannel;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint.
+     */
+    private void writeHeader() {
+        writeHeader(this.buffer, this.slotCount, this.entryCount, this.dataEnd, this.garbage);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint.
+     */
+    private static void writeHeader(final ByteBuffer buffer, final int slotCount, final int entryCount, final long dataEnd, final long garbage) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, slotCount);
+        buffer.putInt(12, entryCount);
+        buffer.putLong(16, dataEnd);
+        buffer.putLong(24, garbage);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint.
+     */
+    private long dataStart() {
+        return HEADER + (long) this.slotCount * SLOT;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint.
+     */
+    private static int hash(final byte[] identifierBytes) {
+        int hash = 0x811C9DC5;
+        for (final byte identifierByte : identifierBytes) {
+            hash = (hash ^ identifierByte) * 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer byteBuffer;
+
+        /**
+         * Allows you to create an input stream over a byte buffer.
+         *
+         * @param byteBuffer ~ The byte buffer to read.
+         */
+        private ByteBufferInputStream(final ByteBuffer byteBuffer) {
+            this.byteBuffer = byteBuffer;
+        }
+
+        @Override
+        public int read() {
+            return this.byteBuffer.hasRemaining() ? this.byteBuffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            if (!this.byteBuffer.hasRemaining()) {
+                return -1;
+            }
+            final int read = Math.min(length, this.byteBuffer.remaining());
+            this.byteBuffer.get(bytes, offset, read);
+            return read;
+        }
+    }
+}
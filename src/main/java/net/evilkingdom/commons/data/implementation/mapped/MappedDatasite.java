@@ -0,0 +1,58 @@
+package net.evilkingdom.commons.data.implementation.mapped;
+
+import net.evilkingdom.commons.data.DataImplementor;
+import net.evilkingdom.commons.data.objects.Datapoint;
+import net.evilkingdom.commons.data.objects.Datasite;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+
+public class MappedDatasite extends Datasite {
+
+    /**
+     * Allows you to create a datasite for a plugin.
+     * This is used for datasites that don't require any extra parameters.
+     *
+     * @param plugin ~ The plugin the datasite is for.
+     * @param name   ~ The name of the datasite.
+     */
+    public MappedDatasite(final JavaPlugin plugin, final String name) {
+        super(plugin, name);
+    }
+
+    /**
+     * Allows you to create a datasite for a plugin.
+     * This is used for datasites that requires any extra parameters.
+     *
+     * @param plugin     ~ The plugin the datasite is for.
+     * @param name       ~ The name of the datasite.
+     * @param parameters ~ Any extra parameters the datasite will need.
+     */
+    public MappedDatasite(final JavaPlugin plugin, final String name, final String[] parameters) {
+        super(plugin, name, parameters);
+    }
+
+    /**
+     * Allows you to initialize the datasite.
+     */
+    @Override
+    public void initialize() {
+        final DataImplementor implementor = DataImplementor.get(this.plugin);
+        implementor.getSites().add(this);
+        final File mappedFolder = new File(this.plugin.getDataFolder(), "mapped");
+        if (!mappedFolder.exists()) {
+            mappedFolder.mkdirs();
+        }
+    }
+
+    /**
+     * Allows you to terminate the datasite.
+     * Any datapoint with write-behind enabled will be flushed first, then the executor's queued tasks are drained and every datapoint is closed.
+     */
+    @Override
+    public void terminate() {
+        this.points.forEach(Datapoint::disableWriteBehind);
+        this.executor.shutdown(TERMINATION_TIMEOUT);
+        this.points.forEach(point -> ((MappedDatapoint) point).close());
+    }
+}
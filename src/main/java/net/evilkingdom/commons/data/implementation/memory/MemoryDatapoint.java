@@ -0,0 +1,308 @@
+package net.evilkingdom.commons.data.implementation.memory;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import net.evilkingdom.commons.data.cache.ReadThroughCache;
+import net.evilkingdom.commons.data.codec.GsonCodec;
+import net.evilkingdom.commons.data.objects.Datapoint;
+import net.evilkingdom.commons.data.objects.Projection;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class MemoryDatapoint extends Datapoint {
+
+    private final MemoryDatasite site;
+    private final ConcurrentHashMap<String, JsonObject> jsonObjects;
+
+    /**
+     * Allows you to create a datapoint for a plugin.
+     * The json objects are only ever held in memory, and copies are handed in and out so nothing outside can change them, just like a real backend.
+     *
+     * @param datasite ~ The datasite of the datapoint.
+     * @param name     ~ The type of datapoint.
+     */
+    public MemoryDatapoint(final MemoryDatasite datasite, final String name) {
+        super(datasite, name);
+        this.site = datasite;
+        this.jsonObjects = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Allows you to register the datapoint.
+     */
+    @Override
+    public void register() {
+        this.site.getPoints().add(this);
+        this.buildIndexes();
+    }
+
+    /**
+     * Allows you to snapshot the datapoint to a file.
+     * Every json object is streamed into a gzipped file, which is written to a temporary file first and then renamed over the old snapshot.
+     * Saves made while the snapshot is being written may or may not be in it.
+     *
+     * @param file ~ The file to snapshot to.
+     * @return When the snapshot has been written, or the failure that stopped it.
+     */
+    public CompletableFuture<Void> snapshot(final File file) {
+        return this.flushAsync().thenRunAsync(() -> {
+            if (file.getParentFile() != null && !file.getParentFile().exists()) {
+                file.getParentFile().mkdirs();
+            }
+            final File temporaryFile = new File(file.getPath() + ".tmp");
+            try {
+                try (final JsonWriter jsonWriter = new JsonWriter(new OutputStreamWriter(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile))), StandardCharsets.UTF_8))) {
+                    jsonWriter.beginObject();
+                    for (final Map.Entry<String, JsonObject> entry : this.jsonObjects.entrySet()) {
+                        jsonWriter.name(entry.getKey());
+                        GsonCodec.GSON.toJson(entry.getValue(), jsonWriter);
+                    }
+                    jsonWriter.endObject();
+                }
+                try {
+                    Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (final AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+                    Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (final IOException ioException) {
+                temporaryFile.delete();
+                throw new CompletionException(ioException);
+            }
+        }, this.site.getExecutor());
+    }
+
+    /**
+     * Allows you to restore the datapoint from a snapshot.
+     * Every json object in the datapoint is replaced by the snapshot's, and the datapoint's cache, indexes and filter are rebuilt.
+     * Nothing should be saved to the datapoint while it's being restored.
+     *
+     * @param file ~ The file to restore from.
+     * @return When the datapoint has been restored, or the failure that stopped it.
+     */
+    public CompletableFuture<Void> restore(final File file) {
+        return this.flushAsync().thenRunAsync(() -> {
+            final HashMap<String, JsonObject> restored = new HashMap<>();
+            try (final JsonReader jsonReader = new JsonReader(new InputStreamReader(new GZIPInputStream(new BufferedInputStream(new FileInputStream(file))), StandardCharsets.UTF_8))) {
+                jsonReader.beginObject();
+                while (jsonReader.hasNext()) {
+                    final String identifier = jsonReader.nextName();
+                    restored.put(identifier, JsonParser.parseReader(jsonReader).getAsJsonObject());
+                }
+                jsonReader.endObject();
+            } catch (final IOException ioException) {
+                throw new CompletionException(ioException);
+            }
+            this.jsonObjects.clear();
+            this.jsonObjects.putAll(restored);
+            this.getCache().ifPresent(ReadThroughCache::invalidateAll);
+            this.buildIndexes();
+            this.buildFilter();
+        }, this.site.getExecutor());
+    }
+
+    /**
+     * Allows you to clear the datapoint.
+     * Every json object is dropped, along with the datapoint's cache and indexes.
+     */
+    public void clear() {
+        this.flush();
+        this.jsonObjects.clear();
+        this.getCache().ifPresent(ReadThroughCache::invalidateAll);
+        this.buildIndexes();
+    }
+
+    /**
+     * Allows the datapoint to read all the json objects from its backend.
+     *
+     * @return All the json objects.
+     */
+    @Override
+    protected CompletableFuture<ArrayList<JsonObject>> readAll() {
+        return this.site.simulate(() -> {
+            final ArrayList<JsonObject> jsonObjects = new ArrayList<>();
+            this.jsonObjects.values().forEach(jsonObject -> jsonObjects.add(jsonObject.deepCopy()));
+            return jsonObjects;
+        });
+    }
+
+    /**
+     * Allows the datapoint to count all the json objects in its backend.
+     * This is answered straight from the map's size.
+     *
+     * @return The total number of json objects.
+     */
+    @Override
+    protected CompletableFuture<Long> count() {
+        return this.site.simulate(this.jsonObjects::mappingCount);
+    }
+
+    /**
+     * Allows the datapoint to read a json object from its backend.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return The json object.
+     */
+    @Override
+    protected CompletableFuture<Optional<JsonObject>> read(final String identifier) {
+        return this.site.simulate(() -> Optional.ofNullable(this.jsonObjects.get(identifier)).map(JsonObject::deepCopy));
+    }
+
+    /**
+     * Allows the datapoint to read a json object from its backend with only some of its fields.
+     * Only the kept fields are copied out of the map.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @param projection ~ The fields to keep.
+     * @return The json object with only the kept fields.
+     */
+    @Override
+    protected CompletableFuture<Optional<JsonObject>> readProjected(final String identifier, final Projection projection) {
+        return this.site.simulate(() -> Optional.ofNullable(this.jsonObjects.get(identifier)).map(projection::apply));
+    }
+
+    /**
+     * Allows the datapoint to write a json object to its backend.
+     *
+     * @param jsonObject ~ The json object to write.
+     * @param identifier ~ The identifier of the json object.
+     * @return When the json object has been written.
+     */
+    @Override
+    protected CompletableFuture<Void> write(final JsonObject jsonObject, final String identifier) {
+        final JsonObject copiedJsonObject = jsonObject.deepCopy();
+        return this.site.simulate(() -> {
+            this.jsonObjects.put(identifier, copiedJsonObject);
+            return null;
+        });
+    }
+
+    /**
+     * Allows the datapoint to check if its backend contains a json object from an identifier.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return If the backend contains a json object from the identifier.
+     */
+    @Override
+    protected CompletableFuture<Boolean> contains(final String identifier) {
+        return this.site.simulate(() -> this.jsonObjects.containsKey(identifier));
+    }
+
+    /**
+     * Allows the datapoint to delete a json object from its backend.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return When the json object has been deleted.
+     */
+    @Override
+    protected CompletableFuture<Void> remove(final String identifier) {
+        return this.site.simulate(() -> {
+            this.jsonObjects.remove(identifier);
+            return null;
+        });
+    }
+
+    /**
+     * Allows the datapoint to walk the identifiers in its backend.
+     * The walk is weakly consistent, so it never fails while json objects are saved or deleted.
+     *
+     * @return An iterator over the identifiers.
+     */
+    @Override
+    protected Iterator<String> keys() {
+        return this.jsonObjects.keySet().iterator();
+    }
+
+    /**
+     * Allows the datapoint to read many json objects from its backend.
+     * Every json object is read in a single simulated operation.
+     *
+     * @param identifiers ~ The identifiers of the json objects.
+     * @return The json objects that were found, mapped by their identifiers.
+     */
+    @Override
+    protected CompletableFuture<HashMap<String, Optional<JsonObject>>> readMany(final Collection<String> identifiers) {
+        return this.site.simulate(() -> {
+            final HashMap<String, Optional<JsonObject>> jsonObjects = new HashMap<>();
+            identifiers.forEach(identifier -> jsonObjects.put(identifier, Optional.ofNullable(this.jsonObjects.get(identifier)).map(JsonObject::deepCopy)));
+            return jsonObjects;
+        });
+    }
+
+    /**
+     * Allows the datapoint to write many json objects to its backend.
+     * Every json object is written in a single simulated operation.
+     *
+     * @param jsonObjects ~ The json objects to write, mapped by their identifiers.
+     * @return When every json object has been written.
+     */
+    @Override
+    protected CompletableFuture<Void> writeMany(final HashMap<String, JsonObject> jsonObjects) {
+        final HashMap<String, JsonObject> copiedJsonObjects = new HashMap<>();
+        jsonObjects.forEach((identifier, jsonObject) -> copiedJsonObjects.put(identifier, jsonObject.deepCopy()));
+        return this.site.simulate(() -> {
+            this.jsonObjects.putAll(copiedJsonObjects);
+            return null;
+        });
+    }
+
+    /**
+     * Allows the datapoint to delete many json objects from its backend.
+     * Every json object is deleted in a single simulated operation.
+     *
+     * @param identifiers ~ The identifiers of the json objects.
+     * @return When every json object has been deleted.
+     */
+    @Override
+    protected CompletableFuture<Void> removeMany(final Collection<String> identifiers) {
+        return this.site.simulate(() -> {
+            identifiers.forEach(this.jsonObjects::remove);
+            return null;
+        });
+    }
+
+    /**
+     * Allows the datapoint to patch a json object in its backend.
+     * The json object is patched in place within a single simulated operation.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @param fields     ~ The fields to set.
+     * @param increments ~ The numeric fields to increment, mapped to their deltas.
+     * @return When the json object has been patched.
+     */
+    @Override
+    protected CompletableFuture<Void> patch(final String identifier, final JsonObject fields, final JsonObject increments) {
+        return this.site.simulate(() -> {
+            this.jsonObjects.compute(identifier, (ignored, jsonObject) -> {
+                final JsonObject patchedJsonObject = jsonObject == null ? new JsonObject() : jsonObject.deepCopy();
+                applyPatch(patchedJsonObject, fields, increments);
+                this.reindex(identifier, patchedJsonObject);
+                return patchedJsonObject;
+            });
+            return null;
+        });
+    }
+}
@@ -0,0 +1,144 @@
+package net.evilkingdom.commons.data.implementation.memory;
+
+import net.evilkingdom.commons.data.DataImplementor;
+import net.evilkingdom.commons.data.objects.Datapoint;
+import net.evilkingdom.commons.data.objects.Datasite;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class MemoryDatasite extends Datasite {
+
+    private volatile long minimumLatency;
+    private volatile long maximumLatency;
+    private volatile double failureRate;
+
+    /**
+     * Allows you to create a datasite for a plugin.
+     * This is used for datasites that don't require any extra parameters.
+     *
+     * @param plugin ~ The plugin the datasite is for.
+     * @param name   ~ The name of the datasite.
+     */
+    public MemoryDatasite(final JavaPlugin plugin, final String name) {
+        super(plugin, name);
+    }
+
+    /**
+     * Allows you to create a datasite for a plugin.
+     * This is used for datasites that requires any extra parameters.
+     *
+     * @param plugin     ~ The plugin the datasite is for.
+     * @param name       ~ The name of the datasite.
+     * @param parameters ~ Any extra parameters the datasite will need.
+     */
+    public MemoryDatasite(final JavaPlugin plugin, final String name, final String[] parameters) {
+        super(plugin, name, parameters);
+    }
+
+    /**
+     * Allows you to initialize the datasite.
+     */
+    @Override
+    public void initialize() {
+        final DataImplementor implementor = DataImplementor.get(this.plugin);
+        implementor.getSites().add(this);
+    }
+
+    /**
+     * Allows you to terminate the datasite.
+     * Any datapoint with write-behind enabled will be flushed first, then the executor's queued tasks are drained.
+     * The json objects are lost unless a datapoint was snapshotted.
+     */
+    @Override
+    public void terminate() {
+        this.points.forEach(Datapoint::disableWriteBehind);
+        this.executor.shutdown(TERMINATION_TIMEOUT);
+    }
+
+    /**
+     * Allows you to set the datasite's simulated latency.
+     * Every backend operation completes after a random delay between the minimum and maximum, on the datasite's executor.
+     * Without latency every operation completes on the calling thread.
+     *
+     * @param minimumLatency ~ The minimum latency (in milliseconds).
+     * @param maximumLatency ~ The maximum latency (in milliseconds).
+     */
+    public void setLatency(final long minimumLatency, final long maximumLatency) {
+        this.minimumLatency = Math.max(0L, minimumLatency);
+        this.maximumLatency = Math.max(this.minimumLatency, maximumLatency);
+    }
+
+    /**
+     * Allows you to set the datasite's simulated failure rate.
+     * A failed operation completes with an IOException and leaves the datapoint unchanged.
+     *
+     * @param failureRate ~ The chance of an operation failing (between 0 and 1).
+     */
+    public void setFailureRate(final double failureRate) {
+        this.failureRate = Math.max(0.0, Math.min(1.0, failureRate));
+    }
+
+    /**
+     * Allows you to retrieve the datasite's minimum simulated latency.
+     *
+     * @return The datasite's minimum simulated latency (in milliseconds).
+     */
+    public long getMinimumLatency() {
+        return this.minimumLatency;
+    }
+
+    /**
+     * Allows you to retrieve the datasite's maximum simulated latency.
+     *
+     * @return The datasite's maximum simulated latency (in milliseconds).
+     */
+    public long getMaximumLatency() {
+        return this.maximumLatency;
+    }
+
+    /**
+     * Allows you to retrieve the datasite's simulated failure rate.
+     *
+     * @return The chance of an operation failing (between 0 and 1).
+     */
+    public double getFailureRate() {
+        return this.failureRate;
+    }
+
+    /**
+     * Allows the datasite's datapoints to run a backend operation.
+     * The operation runs once the simulated latency has passed, unless the simulated failure strikes first.
+     *
+     * @param operation ~ The operation.
+     * @return The result of the operation.
+     */
+    protected <T> CompletableFuture<T> simulate(final Supplier<T> operation) {
+        final long minimumLatency = this.minimumLatency;
+        final long maximumLatency = this.maximumLatency;
+        final double failureRate = this.failureRate;
+        if (maximumLatency == 0L && failureRate == 0.0) {
+            try {
+                return CompletableFuture.completedFuture(operation.get());
+            } catch (final RuntimeException runtimeException) {
+                return CompletableFuture.failedFuture(runtimeException);
+            }
+        }
+        final boolean failed = failureRate > 0.0 && ThreadLocalRandom.current().nextDouble() < failureRate;
+        final Executor executor = maximumLatency == 0L
+                ? this.executor
+                : CompletableFuture.delayedExecutor(ThreadLocalRandom.current().nextLong(minimumLatency, maximumLatency + 1L), TimeUnit.MILLISECONDS, this.executor);
+        return CompletableFuture.supplyAsync(() -> {
+            if (failed) {
+                throw new CompletionException(new IOException("The datasite " + this.name + " simulated a failure."));
+            }
+            return operation.get();
+        }, executor);
+    }
+}
@@ -0,0 +1,303 @@
+package net.evilkingdom.commons.data.implementation.mongodb;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.bson.BsonBinary;
+import org.bson.BsonReader;
+import org.bson.BsonRegularExpression;
+import org.bson.BsonTimestamp;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+
+public class JsonObjectCodec implements Codec<JsonObject> {
+
+    private static final long LATEST_ISO_DATE = 253402300799999L;
+
+    /**
+     * Allows you to decode a json object straight from bson.
+     * Values are mapped the same way relaxed extended json would map them, so the result matches what parsing the document's json used to produce.
+     *
+     * @param reader         ~ The bson reader.
+     * @param decoderContext ~ The decoder context.
+     * @return The json object.
+     */
+    @Override
+    public JsonObject decode(final BsonReader reader, final DecoderContext decoderContext) {
+        return this.readDocument(reader);
+    }
+
+    /**
+     * Allows you to encode a json object straight to bson.
+     * Values are mapped the same way parsing the json object's json as a document used to map them, including extended json wrappers like $oid and $date.
+     *
+     * @param writer         ~ The bson writer.
+     * @param jsonObject     ~ The json object.
+     * @param encoderContext ~ The encoder context.
+     */
+    @Override
+    public void encode(final BsonWriter writer, final JsonObject jsonObject, final EncoderContext encoderContext) {
+        this.writeDocument(writer, jsonObject);
+    }
+
+    /**
+     * Allows you to retrieve the class the codec encodes.
+     *
+     * @return The class the codec encodes.
+     */
+    @Override
+    public Class<JsonObject> getEncoderClass() {
+        return JsonObject.class;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the decode method.
+     */
+    private JsonObject readDocument(final BsonReader reader) {
+        final JsonObject jsonObject = new JsonObject();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            final String name = reader.readName();
+            jsonObject.add(name, this.readValue(reader));
+        }
+        reader.readEndDocument();
+        return jsonObject;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the decode method.
+     */
+    private JsonElement readValue(final BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case DOCUMENT:
+                return this.readDocument(reader);
+            case ARRAY:
+                final JsonArray jsonArray = new JsonArray();
+                reader.readStartArray();
+                while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                    jsonArray.add(this.readValue(reader));
+                }
+                reader.readEndArray();
+                return jsonArray;
+            case STRING:
+                return new JsonPrimitive(reader.readString());
+            case INT32:
+                return new JsonPrimitive(reader.readInt32());
+            case INT64:
+                return new JsonPrimitive(reader.readInt64());
+            case DOUBLE:
+                final double value = reader.readDouble();
+                if (Double.isNaN(value) || Double.isInfinite(value)) {
+                    return wrap("$numberDouble", new JsonPrimitive(Double.toString(value)));
+                }
+                return new JsonPrimitive(value);
+            case BOOLEAN:
+                return new JsonPrimitive(reader.readBoolean());
+            case NULL:
+                reader.readNull();
+                return JsonNull.INSTANCE;
+            case OBJECT_ID:
+                return wrap("$oid", new JsonPrimitive(reader.readObjectId().toHexString()));
+            case DATE_TIME:
+                final long dateTime = reader.readDateTime();
+                if (dateTime >= 0L && dateTime <= LATEST_ISO_DATE) {
+                    return wrap("$date", new JsonPrimitive(Instant.ofEpochMilli(dateTime).toString()));
+                }
+                return wrap("$date", wrap("$numberLong", new JsonPrimitive(Long.toString(dateTime))));
+            case DECIMAL128:
+                return wrap("$numberDecimal", new JsonPrimitive(reader.readDecimal128().toString()));
+            case BINARY:
+                final BsonBinary bsonBinary = reader.readBinaryData();
+                final JsonObject binary = new JsonObject();
+                binary.addProperty("base64", Base64.getEncoder().encodeToString(bsonBinary.getData()));
+                binary.addProperty("subType", String.format("%02x", bsonBinary.getType()));
+                return wrap("$binary", binary);
+            case TIMESTAMP:
+                final BsonTimestamp bsonTimestamp = reader.readTimestamp();
+                final JsonObject timestamp = new JsonObject();
+                timestamp.addProperty("t", Integer.toUnsignedLong(bsonTimestamp.getTime()));
+                timestamp.addProperty("i", Integer.toUnsignedLong(bsonTimestamp.getInc()));
+                return wrap("$timestamp", timestamp);
+            case REGULAR_EXPRESSION:
+                final BsonRegularExpression bsonRegularExpression = reader.readRegularExpression();
+                final JsonObject regularExpression = new JsonObject();
+                regularExpression.addProperty("pattern", bsonRegularExpression.getPattern());
+                regularExpression.addProperty("options", bsonRegularExpression.getOptions());
+                return wrap("$regularExpression", regularExpression);
+            case SYMBOL:
+                return wrap("$symbol", new JsonPrimitive(reader.readSymbol()));
+            case JAVASCRIPT:
+                return wrap("$code", new JsonPrimitive(reader.readJavaScript()));
+            case MIN_KEY:
+                reader.readMinKey();
+                return wrap("$minKey", new JsonPrimitive(1));
+            case MAX_KEY:
+                reader.readMaxKey();
+                return wrap("$maxKey", new JsonPrimitive(1));
+            case UNDEFINED:
+                reader.readUndefined();
+                return wrap("$undefined", new JsonPrimitive(true));
+            default:
+                reader.skipValue();
+                return JsonNull.INSTANCE;
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the encode method.
+     */
+    private void writeDocument(final BsonWriter writer, final JsonObject jsonObject) {
+        writer.writeStartDocument();
+        for (final Map.Entry<String, JsonElement> entry : jsonObject.entrySet()) {
+            writer.writeName(entry.getKey());
+            this.writeValue(writer, entry.getValue());
+        }
+        writer.writeEndDocument();
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the encode method.
+     */
+    private void writeValue(final BsonWriter writer, final JsonElement jsonElement) {
+        if (jsonElement == null || jsonElement.isJsonNull()) {
+            writer.writeNull();
+        } else if (jsonElement.isJsonArray()) {
+            writer.writeStartArray();
+            for (final JsonElement arrayedElement : jsonElement.getAsJsonArray()) {
+                this.writeValue(writer, arrayedElement);
+            }
+            writer.writeEndArray();
+        } else if (jsonElement.isJsonObject()) {
+            if (!this.writeWrapper(writer, jsonElement.getAsJsonObject())) {
+                this.writeDocument(writer, jsonElement.getAsJsonObject());
+            }
+        } else {
+            final JsonPrimitive jsonPrimitive = jsonElement.getAsJsonPrimitive();
+            if (jsonPrimitive.isBoolean()) {
+                writer.writeBoolean(jsonPrimitive.getAsBoolean());
+            } else if (jsonPrimitive.isNumber()) {
+                this.writeNumber(writer, jsonPrimitive.getAsString());
+            } else {
+                writer.writeString(jsonPrimitive.getAsString());
+            }
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the encode method.
+     * Integral numbers become an int32 if they fit, then an int64, and everything else becomes a double, which is how the json parser treats them.
+     */
+    private void writeNumber(final BsonWriter writer, final String number) {
+        if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+            try {
+                final long value = Long.parseLong(number);
+                if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                    writer.writeInt32((int) value);
+                } else {
+                    writer.writeInt64(value);
+                }
+                return;
+            } catch (final NumberFormatException ignored) {
+            }
+        }
+        writer.writeDouble(Double.parseDouble(number));
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the encode method.
+     * Single field objects like {"$oid": "..."} are written as the bson type they describe, which covers every wrapper the decode method produces.
+     * Every value is parsed before anything is written, so a wrapper that doesn't parse is written as a plain document instead.
+     */
+    private boolean writeWrapper(final BsonWriter writer, final JsonObject jsonObject) {
+        if (jsonObject.size() != 1) {
+            return false;
+        }
+        final Map.Entry<String, JsonElement> entry = jsonObject.entrySet().iterator().next();
+        final JsonElement value = entry.getValue();
+        try {
+            switch (entry.getKey()) {
+                case "$oid":
+                    writer.writeObjectId(new ObjectId(value.getAsString()));
+                    return true;
+                case "$date":
+                    if (value.isJsonObject() && value.getAsJsonObject().has("$numberLong")) {
+                        writer.writeDateTime(Long.parseLong(value.getAsJsonObject().get("$numberLong").getAsString()));
+                    } else if (value.isJsonPrimitive() && value.getAsJsonPrimitive().isNumber()) {
+                        writer.writeDateTime(value.getAsLong());
+                    } else {
+                        writer.writeDateTime(Instant.parse(value.getAsString()).toEpochMilli());
+                    }
+                    return true;
+                case "$numberLong":
+                    writer.writeInt64(Long.parseLong(value.getAsString()));
+                    return true;
+                case "$numberInt":
+                    writer.writeInt32(Integer.parseInt(value.getAsString()));
+                    return true;
+                case "$numberDouble":
+                    writer.writeDouble(Double.parseDouble(value.getAsString()));
+                    return true;
+                case "$numberDecimal":
+                    writer.writeDecimal128(Decimal128.parse(value.getAsString()));
+                    return true;
+                case "$binary":
+                    final JsonObject binary = value.getAsJsonObject();
+                    final byte[] data = Base64.getDecoder().decode(binary.get("base64").getAsString());
+                    final byte subType = (byte) Integer.parseInt(binary.get("subType").getAsString(), 16);
+                    writer.writeBinaryData(new BsonBinary(subType, data));
+                    return true;
+                case "$timestamp":
+                    final JsonObject timestamp = value.getAsJsonObject();
+                    final int time = (int) timestamp.get("t").getAsLong();
+                    final int increment = (int) timestamp.get("i").getAsLong();
+                    writer.writeTimestamp(new BsonTimestamp(time, increment));
+                    return true;
+                case "$regularExpression":
+                    final JsonObject regularExpression = value.getAsJsonObject();
+                    final String pattern = regularExpression.get("pattern").getAsString();
+                    final String options = regularExpression.has("options") ? regularExpression.get("options").getAsString() : "";
+                    writer.writeRegularExpression(new BsonRegularExpression(pattern, options));
+                    return true;
+                case "$symbol":
+                    writer.writeSymbol(value.getAsString());
+                    return true;
+                case "$code":
+                    writer.writeJavaScript(value.getAsString());
+                    return true;
+                case "$minKey":
+                    writer.writeMinKey();
+                    return true;
+                case "$maxKey":
+                    writer.writeMaxKey();
+                    return true;
+                case "$undefined":
+                    writer.writeUndefined();
+                    return true;
+                default:
+                    return false;
+            }
+        } catch (final RuntimeException runtimeException) {
+            return false;
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the codec.
+     */
+    private static JsonObject wrap(final String key, final JsonElement value) {
+        final JsonObject jsonObject = new JsonObject();
+        jsonObject.add(key, value);
+        return jsonObject;
+    }
+}
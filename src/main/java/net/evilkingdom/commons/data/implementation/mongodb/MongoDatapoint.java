@@ -1,26 +1,55 @@
 package net.evilkingdom.commons.data.implementation.mongodb;
 
-import com.google.gson.Gson;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
 import com.mongodb.client.model.Filters;
-import com.mongodb.client.model.FindOneAndReplaceOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
 import net.evilkingdom.commons.data.objects.Datapoint;
-import org.bson.Document;
-import org.bson.json.JsonMode;
-import org.bson.json.JsonWriterSettings;
+import net.evilkingdom.commons.data.objects.DatapointCursor;
+import net.evilkingdom.commons.data.objects.Projection;
+import org.bson.BsonDocumentWrapper;
+import org.bson.conversions.Bson;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 public class MongoDatapoint extends Datapoint {
 
+    private static final JsonObjectCodec CODEC = new JsonObjectCodec();
+    private static final CodecRegistry CODEC_REGISTRY = CodecRegistries.fromRegistries(
+            CodecRegistries.fromCodecs(CODEC), MongoClientSettings.getDefaultCodecRegistry());
+    private static final long JOURNAL_TIMEOUT = 30000L;
+
     private final MongoDatasite site;
-    private MongoCollection<Document> collection;
+    private MongoCollection<JsonObject> collection;
+    private volatile MongoJournal journal;
+    private volatile boolean shared;
 
     /**
      * Allows you to create a datapoint for a plugin.
@@ -31,94 +60,585 @@ public class MongoDatapoint extends Datapoint {
     public MongoDatapoint(MongoDatasite datasite, String name) {
         super(datasite, name);
         this.site = datasite;
+        this.shared = true;
     }
 
     /**
      * Allows you to register the datapoint.
+     * The collection is created if it doesn't exist, and its indexes are created for every indexed field.
      */
     @Override
     public void register() {
         this.site.getPoints().add(this);
+        this.site.ensureCollection(this.name);
         final MongoDatabase mongoDatabase = this.site.getMongoClient().getDatabase(this.site.getName());
-        if (!mongoDatabase.listCollectionNames().into(new ArrayList<>()).contains(this.name)) {
-            mongoDatabase.createCollection(this.name);
+        this.collection = mongoDatabase.getCollection(this.name, JsonObject.class).withCodecRegistry(CODEC_REGISTRY);
+        this.indexedFields.forEach(field -> this.collection.createIndex(Indexes.ascending(field)));
+        if (this.isExpiring()) {
+            this.collection.createIndex(Indexes.ascending(EXPIRY_FIELD), new IndexOptions().expireAfter(0L, TimeUnit.SECONDS));
         }
-        this.collection = this.site.getMongoClient().getDatabase(this.site.getName()).getCollection(this.name);
     }
 
     /**
-     * Allows you to retrieve all the json objects.
+     * Allows you to enable the datapoint's journal.
+     * This is the same as enableJournal(16777216, 500, 5, 30000).
+     */
+    public void enableJournal() {
+        this.enableJournal(16777216L, 500, 5, 30000L);
+    }
+
+    /**
+     * Allows you to enable the datapoint's journal.
+     * Saves and deletions are acknowledged once they're forced to a local journal, and replayed to mongo in the background, so they survive mongo being unreachable and the server restarting.
+     * Reads see journaled writes straight away, while mongo calls are guarded by a circuit breaker so they fail fast during an outage instead of piling up on the executor.
+     *
+     * @param segmentSize      ~ The size (in bytes) a journal segment grows to before a new one is started.
+     * @param batchSize        ~ The maximum amount of writes replayed to mongo at once.
+     * @param failureThreshold ~ The amount of failed mongo calls in a row that opens the circuit.
+     * @param cooldown         ~ The time (in milliseconds) the circuit stays open before mongo is tried again.
+     */
+    public void enableJournal(final long segmentSize, final int batchSize, final int failureThreshold, final long cooldown) {
+        this.disableJournal();
+        final File journalFolder = new File(new File(this.site.getPlugin().getDataFolder(), "journal"), this.site.getName());
+        final MongoJournal journal = new MongoJournal(this, new File(journalFolder, this.name), segmentSize, batchSize, failureThreshold, cooldown);
+        try {
+            journal.open();
+        } catch (final IOException ioException) {
+            this.site.getPlugin().getLogger().severe("Couldn't open the journal of " + this.name + ": " + ioException.getMessage());
+            return;
+        }
+        this.journal = journal;
+    }
+
+    /**
+     * Allows you to disable the datapoint's journal.
+     * The journal keeps replaying for up to 30 seconds, and anything it couldn't replay is replayed once it's enabled again.
+     */
+    public void disableJournal() {
+        final MongoJournal journal = this.journal;
+        if (journal == null) {
+            return;
+        }
+        this.journal = null;
+        journal.close(JOURNAL_TIMEOUT);
+    }
+
+    /**
+     * Allows you to retrieve the datapoint's journal.
+     *
+     * @return The datapoint's journal if it's enabled.
+     */
+    public Optional<MongoJournal> getJournal() {
+        return Optional.ofNullable(this.journal);
+    }
+
+    /**
+     * Allows you to set if the datapoint's collection is shared.
+     * A collection is shared by default, since every server connected to the database can write to it.
+     * Only mark it as not shared when this datapoint is the collection's only writer, which lets it have a bloom filter.
+     * Marking it as shared again disables the filter.
+     *
+     * @param shared ~ If the collection is shared.
+     */
+    public void setShared(final boolean shared) {
+        this.shared = shared;
+        if (shared) {
+            this.disableFilter();
+        }
+    }
+
+    /**
+     * Allows the datapoint to read all the json objects from its backend.
+     * With the journal enabled this waits for the journal to be replayed first.
      *
      * @return All the json objects.
      */
     @Override
-    public CompletableFuture<ArrayList<JsonObject>> getAll() {
-        return CompletableFuture.supplyAsync(() ->
-                this.collection.find().into(new ArrayList<>())
-                        .stream()
-                        .map(document -> JsonParser.parseString(document.toJson(
-                                JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build()
-                        )).getAsJsonObject())
-                        .collect(Collectors.toCollection(ArrayList::new)));
+    protected CompletableFuture<ArrayList<JsonObject>> readAll() {
+        return this.drained(() -> CompletableFuture.supplyAsync(() -> this.collection.find().into(new ArrayList<>()), this.site.getExecutor()));
     }
 
     /**
-     * Allows you to retrieve the total number of json objects.
+     * Allows the datapoint to count all the json objects in its backend.
+     * With the journal enabled this waits for the journal to be replayed first.
      *
      * @return The total number of json objects.
      */
     @Override
-    public CompletableFuture<Long> countAll() {
-        return CompletableFuture.supplyAsync(() -> this.collection.countDocuments());
+    protected CompletableFuture<Long> count() {
+        return this.drained(() -> CompletableFuture.supplyAsync(() -> this.collection.countDocuments(), this.site.getExecutor()));
     }
 
     /**
-     * Allows you to retrieve a json object from an identifier.
+     * Allows the datapoint to read a json object from its backend.
      *
      * @param identifier ~ The identifier of the json object.
      * @return The json object.
      */
     @Override
-    public CompletableFuture<Optional<JsonObject>> get(String identifier) {
-        return CompletableFuture.supplyAsync(() -> {
-            final Optional<Document> optionalDocument = Optional.ofNullable(
-                    this.collection.find(Filters.eq("_id", identifier)).first());
-            if (optionalDocument.isPresent()) {
-                final Document document = optionalDocument.get();
-                return Optional.of(JsonParser.parseString(
-                                document.toJson(JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build()))
-                        .getAsJsonObject());
+    protected CompletableFuture<Optional<JsonObject>> read(String identifier) {
+        final MongoJournal journal = this.journal;
+        if (journal != null) {
+            if (journal.isPendingDeletion(identifier)) {
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+            final Optional<JsonObject> pendingJsonObject = journal.getPending(identifier);
+            if (pendingJsonObject.isPresent()) {
+                return CompletableFuture.completedFuture(pendingJsonObject);
+            }
+        }
+        return this.guarded(() -> CompletableFuture.supplyAsync(() ->
+                Optional.ofNullable(this.collection.find(Filters.eq("_id", identifier)).first()), this.site.getExecutor()));
+    }
+
+    /**
+     * Allows the datapoint to read a json object from its backend with only some of its fields.
+     * Mongo only sends the kept fields (and the _id), so nothing else goes over the network or gets decoded.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @param projection ~ The fields to keep.
+     * @return The json object with only the kept fields.
+     */
+    @Override
+    protected CompletableFuture<Optional<JsonObject>> readProjected(final String identifier, final Projection projection) {
+        final MongoJournal journal = this.journal;
+        if (journal != null) {
+            if (journal.isPendingDeletion(identifier)) {
+                return CompletableFuture.completedFuture(Optional.empty());
             }
-            return Optional.empty();
-        });
+            final Optional<JsonObject> pendingJsonObject = journal.getPending(identifier);
+            if (pendingJsonObject.isPresent()) {
+                return CompletableFuture.completedFuture(pendingJsonObject.map(projection::apply));
+            }
+        }
+        return this.guarded(() -> CompletableFuture.supplyAsync(() -> Optional.ofNullable(this.collection.find(Filters.eq("_id", identifier))
+                .projection(Projections.include(projection.getFields()))
+                .first()), this.site.getExecutor()));
     }
 
     /**
-     * Allows you to save a json object.
+     * Allows the datapoint to write a json object to its backend.
      *
-     * @param jsonObject ~ The json object to save.
+     * @param jsonObject ~ The json object to write.
      * @param identifier ~ The identifier of the json object.
+     * @return When the json object has been written.
      */
     @Override
-    public void save(JsonObject jsonObject, String identifier) {
-        final Document document = Document.parse(new Gson().toJson(jsonObject));
-        CompletableFuture.runAsync(() ->
-                this.collection.findOneAndReplace(Filters.eq("_id", identifier), document,
-                        new FindOneAndReplaceOptions().upsert(true)));
+    protected CompletableFuture<Void> write(JsonObject jsonObject, String identifier) {
+        final MongoJournal journal = this.journal;
+        if (journal != null) {
+            return journal.append(identifier, jsonObject);
+        }
+        final JsonObject document = jsonObject.deepCopy();
+        return CompletableFuture.runAsync(() ->
+                this.collection.replaceOne(Filters.eq("_id", identifier), document, new ReplaceOptions().upsert(true)), this.site.getExecutor());
     }
 
     /**
-     * Allows you to retrieve if a json object exists from an identifier.
+     * Allows the datapoint to check if its backend contains a json object from an identifier.
      *
      * @param identifier ~ The identifier of the json object.
-     * @return If a json object exists from the identifier.
+     * @return If the backend contains a json object from the identifier.
+     */
+    @Override
+    protected CompletableFuture<Boolean> contains(String identifier) {
+        final MongoJournal journal = this.journal;
+        if (journal != null) {
+            if (journal.isPendingDeletion(identifier)) {
+                return CompletableFuture.completedFuture(false);
+            }
+            if (journal.getPending(identifier).isPresent()) {
+                return CompletableFuture.completedFuture(true);
+            }
+        }
+        final Bson filter = this.isExpiring()
+                ? Filters.and(Filters.eq("_id", identifier), Filters.or(Filters.exists(EXPIRY_FIELD, false), Filters.gt(EXPIRY_FIELD, new Date())))
+                : Filters.eq("_id", identifier);
+        return this.guarded(() -> CompletableFuture.supplyAsync(() ->
+                        this.collection.find(filter).projection(Projections.include("_id")).first() != null,
+                this.site.getExecutor()));
+    }
+
+    /**
+     * Allows the datapoint to check if its backend expires json objects natively.
+     * Mongo removes expired documents itself through a ttl index on the expiry field, which is created when the datapoint is registered.
+     *
+     * @return If the backend expires json objects natively.
      */
     @Override
-    public CompletableFuture<Boolean> exists(String identifier) {
-        return CompletableFuture.supplyAsync(() -> {
-            final Optional<Document> optionalDocument = Optional.ofNullable(
-                    this.collection.find(Filters.eq("_id", identifier)).first());
-            return optionalDocument.isPresent();
-        });
+    protected boolean hasNativeExpiry() {
+        return true;
+    }
+
+    /**
+     * Allows the datapoint to check if its backend is shared.
+     * Every server connected to the database can write to the same collection, so it's shared unless it has been marked otherwise.
+     *
+     * @return If the backend is shared.
+     */
+    @Override
+    protected boolean isShared() {
+        return this.shared;
+    }
+
+    /**
+     * Allows the datapoint to delete a json object from its backend.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return When the json object has been deleted.
+     */
+    @Override
+    protected CompletableFuture<Void> remove(final String identifier) {
+        final MongoJournal journal = this.journal;
+        if (journal != null) {
+            return journal.append(identifier, null);
+        }
+        return CompletableFuture.runAsync(() -> this.collection.deleteOne(Filters.eq("_id", identifier)), this.site.getExecutor());
+    }
+
+    /**
+     * Allows the datapoint to patch a json object in its backend.
+     * This is done with a single upserting $set and $inc update, so the document is never read or sent back whole.
+     * With the journal enabled the json object is read, patched and journaled instead, since an update can't be replayed safely.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @param fields     ~ The fields to set.
+     * @param increments ~ The numeric fields to increment, mapped to their deltas.
+     * @return When the json object has been patched.
+     */
+    @Override
+    protected CompletableFuture<Void> patch(final String identifier, final JsonObject fields, final JsonObject increments) {
+        if (this.journal != null) {
+            return super.patch(identifier, fields, increments);
+        }
+        final JsonObject update = new JsonObject();
+        if (fields.size() > 0) {
+            update.add("$set", fields.deepCopy());
+        }
+        if (increments.size() > 0) {
+            update.add("$inc", increments.deepCopy());
+        }
+        return CompletableFuture.runAsync(() -> this.collection.updateOne(Filters.eq("_id", identifier),
+                new BsonDocumentWrapper<>(update, CODEC), new UpdateOptions().upsert(true)), this.site.getExecutor());
+    }
+
+    /**
+     * Allows the datapoint to find the json objects in its backend whose field equals a value.
+     * This is a plain mongo query, so it uses the collection's index on the field if there is one.
+     * With the journal enabled this waits for the journal to be replayed first.
+     *
+     * @param field ~ The field.
+     * @param value ~ The value.
+     * @return The json objects whose field equals the value.
+     */
+    @Override
+    protected CompletableFuture<ArrayList<JsonObject>> query(final String field, final JsonPrimitive value) {
+        final Object bsonValue = toBsonValue(value);
+        return this.drained(() -> CompletableFuture.supplyAsync(() -> this.collection.find(Filters.eq(field, bsonValue)).into(new ArrayList<>()),
+                this.site.getExecutor()));
+    }
+
+    /**
+     * Allows the datapoint to find the json objects in its backend whose field is a number within a range.
+     * This is a plain mongo query, so it uses the collection's index on the field if there is one.
+     * With the journal enabled this waits for the journal to be replayed first.
+     *
+     * @param field   ~ The field.
+     * @param minimum ~ The minimum value (inclusive).
+     * @param maximum ~ The maximum value (inclusive).
+     * @return The json objects whose field is within the range.
+     */
+    @Override
+    protected CompletableFuture<ArrayList<JsonObject>> queryRange(final String field, final double minimum, final double maximum) {
+        return this.drained(() -> CompletableFuture.supplyAsync(() -> this.collection.find(Filters.and(Filters.gte(field, minimum), Filters.lte(field, maximum)))
+                .into(new ArrayList<>()), this.site.getExecutor()));
+    }
+
+    /**
+     * Allows the datapoint to read many json objects from its backend.
+     * This is done with a single $in query, and with the journal enabled only the identifiers without a journaled write are queried.
+     *
+     * @param identifiers ~ The identifiers of the json objects.
+     * @return The json objects that were found, mapped by their identifiers.
+     */
+    @Override
+    protected CompletableFuture<HashMap<String, Optional<JsonObject>>> readMany(final Collection<String> identifiers) {
+        final MongoJournal journal = this.journal;
+        final HashMap<String, Optional<JsonObject>> pendingJsonObjects = new HashMap<>();
+        final ArrayList<String> queriedIdentifiers = new ArrayList<>();
+        for (final String identifier : identifiers) {
+            if (journal != null && journal.isPendingDeletion(identifier)) {
+                pendingJsonObjects.put(identifier, Optional.empty());
+                continue;
+            }
+            final Optional<JsonObject> pendingJsonObject = journal == null ? Optional.empty() : journal.getPending(identifier);
+            if (pendingJsonObject.isPresent()) {
+                pendingJsonObjects.put(identifier, pendingJsonObject);
+            } else {
+                queriedIdentifiers.add(identifier);
+            }
+        }
+        if (queriedIdentifiers.isEmpty()) {
+            return CompletableFuture.completedFuture(pendingJsonObjects);
+        }
+        return this.guarded(() -> CompletableFuture.supplyAsync(() -> {
+            final HashMap<String, Optional<JsonObject>> jsonObjects = new HashMap<>();
+            for (final JsonObject jsonObject : this.collection.find(Filters.in("_id", queriedIdentifiers))) {
+                jsonObjects.put(identify(jsonObject), Optional.of(jsonObject));
+            }
+            jsonObjects.putAll(pendingJsonObjects);
+            return jsonObjects;
+        }, this.site.getExecutor()));
+    }
+
+    /**
+     * Allows the datapoint to write many json objects to its backend.
+     * This is done with a single unordered bulk write of upserting replacements.
+     *
+     * @param jsonObjects ~ The json objects to write, mapped by their identifiers.
+     * @return When every json object has been written.
+     */
+    @Override
+    protected CompletableFuture<Void> writeMany(final HashMap<String, JsonObject> jsonObjects) {
+        final MongoJournal journal = this.journal;
+        if (journal != null) {
+            return journal.appendMany(jsonObjects);
+        }
+        final ArrayList<ReplaceOneModel<JsonObject>> replacements = new ArrayList<>();
+        jsonObjects.forEach((identifier, jsonObject) -> replacements.add(new ReplaceOneModel<>(Filters.eq("_id", identifier),
+                jsonObject.deepCopy(), new ReplaceOptions().upsert(true))));
+        return CompletableFuture.runAsync(() ->
+                this.collection.bulkWrite(replacements, new BulkWriteOptions().ordered(false)), this.site.getExecutor());
+    }
+
+    /**
+     * Allows the datapoint to delete many json objects from its backend.
+     * This is done with a single $in deletion.
+     *
+     * @param identifiers ~ The identifiers of the json objects.
+     * @return When every json object has been deleted.
+     */
+    @Override
+    protected CompletableFuture<Void> removeMany(final Collection<String> identifiers) {
+        final MongoJournal journal = this.journal;
+        if (journal != null) {
+            return journal.appendDeletions(identifiers);
+        }
+        return CompletableFuture.runAsync(() -> this.collection.deleteMany(Filters.in("_id", identifiers)), this.site.getExecutor());
+    }
+
+    /**
+     * Allows the datapoint to walk the identifiers in its backend.
+     * Only the _id of each document is fetched, and the iterator closes its mongo cursor once it's exhausted or closed.
+     * With the journal enabled this waits for the journal to be replayed first.
+     *
+     * @return An iterator over the identifiers.
+     */
+    @Override
+    protected Iterator<String> keys() {
+        this.awaitJournal();
+        final MongoCursor<JsonObject> mongoCursor = this.collection.find().projection(Projections.include("_id")).iterator();
+        return new IdentifierIterator(mongoCursor);
+    }
+
+    /**
+     * Allows the datapoint to stream the json objects in its backend.
+     * This walks a mongo cursor with the batch size, so the driver only ever holds a batch of documents.
+     * With the journal enabled this waits for the journal to be replayed first.
+     *
+     * @param batchSize ~ The amount of json objects loaded at a time.
+     * @return A cursor over all the json objects.
+     */
+    @Override
+    protected DatapointCursor iterate(final int batchSize) {
+        this.awaitJournal();
+        return this.cursor(this.collection.find().batchSize(batchSize).iterator());
+    }
+
+    /**
+     * Allows the datapoint's journal to replay writes to mongo.
+     * Every write is sent in a single unordered bulk write, which is safe since the journal holds one write per identifier.
+     *
+     * @param jsonObjects ~ The json objects to write, mapped by their identifiers, with null for a deletion.
+     */
+    void commit(final LinkedHashMap<String, JsonObject> jsonObjects) {
+        final ArrayList<WriteModel<JsonObject>> writes = new ArrayList<>();
+        jsonObjects.forEach((identifier, jsonObject) -> writes.add(jsonObject == null
+                ? new DeleteOneModel<>(Filters.eq("_id", identifier))
+                : new ReplaceOneModel<>(Filters.eq("_id", identifier), jsonObject, new ReplaceOptions().upsert(true))));
+        this.collection.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint.
+     * With the journal enabled a mongo call fails straight away while the circuit is open.
+     */
+    private <T> CompletableFuture<T> guarded(final Supplier<CompletableFuture<T>> call) {
+        final MongoJournal journal = this.journal;
+        return journal == null ? call.get() : journal.getCircuitBreaker().guard(call);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint.
+     * Queries over the whole collection wait for the journal so they never miss a journaled write.
+     */
+    private <T> CompletableFuture<T> drained(final Supplier<CompletableFuture<T>> call) {
+        final MongoJournal journal = this.journal;
+        if (journal == null) {
+            return call.get();
+        }
+        return journal.awaitDrain().thenCompose(ignored -> journal.getCircuitBreaker().guard(call));
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the iterate methods.
+     */
+    private void awaitJournal() {
+        final MongoJournal journal = this.journal;
+        if (journal != null) {
+            journal.awaitDrain().join();
+        }
+    }
+
+    /**
+     * Allows the datapoint to stream the json objects in its backend with only some of their fields.
+     * Mongo only sends the kept fields (and the _id) of every document in the cursor.
+     * With the journal enabled this waits for the journal to be replayed first.
+     *
+     * @param batchSize  ~ The amount of json objects loaded at a time.
+     * @param projection ~ The fields to keep.
+     * @return A cursor over all the json objects with only the kept fields.
+     */
+    @Override
+    protected DatapointCursor iterateProjected(final int batchSize, final Projection projection) {
+        this.awaitJournal();
+        return this.cursor(this.collection.find().projection(Projections.include(projection.getFields())).batchSize(batchSize).iterator());
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the iterate methods.
+     */
+    private DatapointCursor cursor(final MongoCursor<JsonObject> mongoCursor) {
+        return new DatapointCursor() {
+
+            private String identifier;
+
+            @Override
+            public boolean hasNext() {
+                return mongoCursor.hasNext();
+            }
+
+            @Override
+            public JsonObject next() {
+                final JsonObject jsonObject = mongoCursor.next();
+                this.identifier = identify(jsonObject);
+                return jsonObject;
+            }
+
+            @Override
+            public String getIdentifier() {
+                return this.identifier;
+            }
+
+            @Override
+            public void close() {
+                mongoCursor.close();
+            }
+        };
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint.
+     * A string _id is returned as is and an object id is returned as its hex string, like the documents used to report them.
+     */
+    private static String identify(final JsonObject jsonObject) {
+        final JsonElement identifier = jsonObject.get("_id");
+        if (identifier == null || identifier.isJsonNull()) {
+            return "null";
+        }
+        if (identifier.isJsonPrimitive()) {
+            return identifier.getAsString();
+        }
+        if (identifier.isJsonObject() && identifier.getAsJsonObject().has("$oid")) {
+            return identifier.getAsJsonObject().get("$oid").getAsString();
+        }
+        return identifier.toString();
+    }
+
+    /**
+     * Allows the datapoint to stream the json objects in its backend that have a numeric field, sorted by it with the highest first.
+     * Only the _id and the field are fetched, and the sort uses the collection's index on the field if there is one.
+     * With the journal enabled this waits for the journal to be replayed first.
+     *
+     * @param field     ~ The numeric field.
+     * @param batchSize ~ The amount of json objects loaded at a time.
+     * @return A cursor over the sorted json objects.
+     */
+    @Override
+    protected Optional<DatapointCursor> iterateSorted(final String field, final int batchSize) {
+        this.awaitJournal();
+        return Optional.of(this.cursor(this.collection.find(Filters.exists(field, true))
+                .projection(Projections.include("_id", field))
+                .sort(Sorts.descending(field))
+                .batchSize(batchSize)
+                .iterator()));
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the query method.
+     * Numbers follow the codec's rules, so a query matches the type the value was stored as.
+     */
+    private static Object toBsonValue(final JsonPrimitive value) {
+        if (value.isBoolean()) {
+            return value.getAsBoolean();
+        }
+        if (!value.isNumber()) {
+            return value.getAsString();
+        }
+        final String number = value.getAsString();
+        if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+            try {
+                final long longValue = Long.parseLong(number);
+                if (longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE) {
+                    return (int) longValue;
+                }
+                return longValue;
+            } catch (final NumberFormatException ignored) {
+            }
+        }
+        return Double.parseDouble(number);
+    }
+
+    private static class IdentifierIterator implements Iterator<String>, AutoCloseable {
+
+        private final MongoCursor<JsonObject> mongoCursor;
+
+        /**
+         * Allows you to create an identifier iterator.
+         *
+         * @param mongoCursor ~ The mongo cursor of _id projected documents.
+         */
+        private IdentifierIterator(final MongoCursor<JsonObject> mongoCursor) {
+            this.mongoCursor = mongoCursor;
+        }
+
+        @Override
+        public boolean hasNext() {
+            final boolean hasNext = this.mongoCursor.hasNext();
+            if (!hasNext) {
+                this.mongoCursor.close();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public String next() {
+            return identify(this.mongoCursor.next());
+        }
+
+        @Override
+        public void close() {
+            this.mongoCursor.close();
+        }
     }
 }
@@ -1,13 +1,24 @@
 package net.evilkingdom.commons.data.implementation.mongodb;
 
+import com.mongodb.MongoCommandException;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoDatabase;
 import net.evilkingdom.commons.data.DataImplementor;
+import net.evilkingdom.commons.data.objects.Datapoint;
 import net.evilkingdom.commons.data.objects.Datasite;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class MongoDatasite extends Datasite {
 
+    private static final int NAMESPACE_EXISTS = 48;
+
+    private final Set<String> collectionNames;
+    private volatile boolean collectionsListed;
     private MongoClient mongoClient;
 
     /**
@@ -19,6 +30,7 @@ public class MongoDatasite extends Datasite {
      */
     public MongoDatasite(JavaPlugin plugin, String name) {
         super(plugin, name);
+        this.collectionNames = ConcurrentHashMap.newKeySet();
     }
 
     /**
@@ -31,6 +43,7 @@ public class MongoDatasite extends Datasite {
      */
     public MongoDatasite(JavaPlugin plugin, String name, String[] parameters) {
         super(plugin, name, parameters);
+        this.collectionNames = ConcurrentHashMap.newKeySet();
     }
 
     /**
@@ -45,12 +58,56 @@ public class MongoDatasite extends Datasite {
 
     /**
      * Allows you to terminate the datasite.
+     * Any datapoint with write-behind enabled will be flushed first, then the executor's queued tasks are drained.
+     * Any datapoint with its journal enabled then replays what it can before the client is closed, and the rest is replayed on the next start.
+     * The journals all replay at once against one shared deadline, so shutting down doesn't take longer the more of them there are.
      */
     @Override
     public void terminate() {
+        this.points.forEach(Datapoint::disableWriteBehind);
+        this.executor.shutdown(TERMINATION_TIMEOUT);
+        final long journalDeadline = System.currentTimeMillis() + TERMINATION_TIMEOUT;
+        final ArrayList<MongoDatapoint> journaledPoints = new ArrayList<>();
+        this.points.stream()
+                .filter(point -> point instanceof MongoDatapoint)
+                .map(point -> (MongoDatapoint) point)
+                .forEach(point -> point.getJournal().ifPresent(journal -> {
+                    journal.stop(journalDeadline);
+                    journaledPoints.add(point);
+                }));
+        journaledPoints.forEach(MongoDatapoint::disableJournal);
         this.mongoClient.close();
     }
 
+    /**
+     * Allows you to make sure a collection exists in the datasite's database.
+     * The database's collections are only listed once, however many datapoints are registered, and a collection created by another server in the meantime is tolerated.
+     *
+     * @param name ~ The name of the collection.
+     */
+    public void ensureCollection(final String name) {
+        final MongoDatabase mongoDatabase = this.mongoClient.getDatabase(this.name);
+        if (!this.collectionsListed) {
+            synchronized (this.collectionNames) {
+                if (!this.collectionsListed) {
+                    mongoDatabase.listCollectionNames().forEach(this.collectionNames::add);
+                    this.collectionsListed = true;
+                }
+            }
+        }
+        if (this.collectionNames.contains(name)) {
+            return;
+        }
+        try {
+            mongoDatabase.createCollection(name);
+        } catch (final MongoCommandException mongoCommandException) {
+            if (mongoCommandException.getErrorCode() != NAMESPACE_EXISTS) {
+                throw mongoCommandException;
+            }
+        }
+        this.collectionNames.add(name);
+    }
+
     /**
      * Allows you to retrieve the datasite's mongo client.
      * This will only be used if the datasite's type is MONGO_DATABASE.
@@ -0,0 +1,555 @@
+package net.evilkingdom.commons.data.implementation.mongodb;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.evilkingdom.commons.data.codec.GsonCodec;
+import net.evilkingdom.commons.data.executor.CircuitBreaker;
+import net.evilkingdom.commons.data.executor.enums.CircuitState;
+import net.evilkingdom.commons.data.implementation.log.LogSegment;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public class MongoJournal {
+
+    private static final String EXTENSION = ".journal";
+    private static final int MAXIMUM_APPENDS = 512;
+    private static final long MINIMUM_BACKOFF = 100L;
+    private static final Append SHUTDOWN = new Append(null, null, null);
+
+    private final MongoDatapoint datapoint;
+    private final File folder;
+    private final long segmentSize;
+    private final int batchSize;
+    private final CircuitBreaker circuitBreaker;
+    private final LinkedBlockingQueue<Append> queue;
+    private final HashMap<String, Pending> pending;
+    private final TreeMap<Long, String> sequences;
+    private final TreeMap<Long, LogSegment> segments;
+    private final HashMap<Long, Integer> references;
+    private final ArrayList<Waiter> waiters;
+    private LogSegment current;
+    private long sequence;
+    private volatile boolean running;
+    private volatile long drainDeadline;
+    private Thread writerThread;
+    private Thread drainerThread;
+
+    /**
+     * Allows you to create a journal for a mongo datapoint.
+     * Writes are appended to local segment files and acknowledged once they're forced to disk, then a drainer replays them to mongo in batches.
+     * Anything left in the journal when the server stops is replayed the next time the journal is opened, so no write is lost while mongo is unreachable.
+     *
+     * @param datapoint        ~ The datapoint of the journal.
+     * @param folder           ~ The folder of the journal's segments.
+     * @param segmentSize      ~ The size (in bytes) a segment grows to before a new one is started.
+     * @param batchSize        ~ The maximum amount of writes replayed to mongo at once.
+     * @param failureThreshold ~ The amount of failed calls in a row that opens the circuit.
+     * @param cooldown         ~ The time (in milliseconds) the circuit stays open before it's tried again.
+     */
+    public MongoJournal(final MongoDatapoint datapoint, final File folder, final long segmentSize, final int batchSize, final int failureThreshold, final long cooldown) {
+        this.datapoint = datapoint;
+        this.folder = folder;
+        this.segmentSize = segmentSize;
+        this.batchSize = Math.max(1, batchSize);
+        this.circuitBreaker = new CircuitBreaker(datapoint.getSite().getName() + "/" + datapoint.getName(), failureThreshold, cooldown);
+        this.queue = new LinkedBlockingQueue<>();
+        this.pending = new HashMap<>();
+        this.sequences = new TreeMap<>();
+        this.segments = new TreeMap<>();
+        this.references = new HashMap<>();
+        this.waiters = new ArrayList<>();
+    }
+
+    /**
+     * Allows you to open the journal.
+     * Every segment left behind is scanned, a torn record at the end of one is dropped, and the latest write of every identifier is queued to be replayed.
+     *
+     * @throws IOException If a segment couldn't be opened.
+     */
+    public void open() throws IOException {
+        if (this.running) {
+            return;
+        }
+        if (!this.folder.exists()) {
+            this.folder.mkdirs();
+        }
+        final File[] files = this.folder.listFiles((directory, fileName) -> fileName.endsWith(EXTENSION));
+        final TreeMap<Long, File> segmentFiles = new TreeMap<>();
+        for (final File file : files == null ? new File[0] : files) {
+            try {
+                segmentFiles.put(Long.parseLong(file.getName().substring(0, file.getName().length() - EXTENSION.length())), file);
+            } catch (final NumberFormatException ignored) {
+            }
+        }
+        long nextSegment = 0L;
+        synchronized (this.pending) {
+            for (final Map.Entry<Long, File> segmentFile : segmentFiles.entrySet()) {
+                final LogSegment segment = new LogSegment(segmentFile.getKey(), segmentFile.getValue());
+                this.segments.put(segment.getId(), segment);
+                for (final Map.Entry<String, LogSegment.Entry> entry : segment.getEntries().entrySet()) {
+                    final byte[] value = entry.getValue().isDeletion() ? null : segment.read(entry.getValue().getOffset(), entry.getValue().getSize());
+                    this.track(entry.getKey(), value, segment.getId());
+                }
+                nextSegment = segment.getId() + 1L;
+            }
+            this.current = this.createSegment(nextSegment);
+            this.release();
+        }
+        this.running = true;
+        this.drainDeadline = Long.MAX_VALUE;
+        this.writerThread = new Thread(this::write, "MongoJournal-Writer-" + this.datapoint.getName());
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        this.drainerThread = new Thread(this::drain, "MongoJournal-Drainer-" + this.datapoint.getName());
+        this.drainerThread.setDaemon(true);
+        this.drainerThread.start();
+    }
+
+    /**
+     * Allows you to close the journal.
+     * Every submitted write is journaled first, then the drainer keeps replaying until the journal is empty or the timeout runs out.
+     * Whatever hasn't been replayed stays in the journal for the next time it's opened.
+     *
+     * @param timeout ~ The maximum time (in milliseconds) to keep replaying for.
+     */
+    public void close(final long timeout) {
+        this.stop(System.currentTimeMillis() + timeout);
+        if (this.drainerThread == null) {
+            return;
+        }
+        try {
+            this.drainerThread.join();
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this.pending) {
+            this.segments.values().forEach(LogSegment::close);
+            this.segments.clear();
+            this.waiters.forEach(waiter -> waiter.future.completeExceptionally(new IllegalStateException("The journal of " + this.datapoint.getName() + " was closed.")));
+            this.waiters.clear();
+        }
+    }
+
+    /**
+     * Allows you to stop the journal without waiting for it.
+     * Every submitted write is journaled first, then the drainer keeps replaying in the background until the journal is empty, the deadline passes or the circuit opens.
+     * This lets many journals replay at once against one deadline, and close should still be called on each of them afterwards.
+     *
+     * @param deadline ~ The time (in epoch milliseconds) to stop replaying at.
+     */
+    public synchronized void stop(final long deadline) {
+        if (!this.running) {
+            return;
+        }
+        this.running = false;
+        this.queue.add(SHUTDOWN);
+        try {
+            this.writerThread.join();
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        this.drainDeadline = deadline;
+        synchronized (this.pending) {
+            this.pending.notifyAll();
+        }
+    }
+
+    /**
+     * Allows you to journal a write.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @param jsonObject ~ The json object to write, or null to delete it.
+     * @return When the write has been forced to the journal, or the failure that stopped it.
+     */
+    public CompletableFuture<Void> append(final String identifier, final JsonObject jsonObject) {
+        final byte[] value = jsonObject == null ? null : GsonCodec.GSON.toJson(jsonObject).getBytes(StandardCharsets.UTF_8);
+        final Append append = new Append(identifier, value, new CompletableFuture<>());
+        if (!this.running) {
+            append.future.completeExceptionally(new IllegalStateException("The journal of " + this.datapoint.getName() + " isn't open."));
+            return append.future;
+        }
+        this.queue.add(append);
+        return append.future;
+    }
+
+    /**
+     * Allows you to journal many writes.
+     *
+     * @param jsonObjects ~ The json objects to write, mapped by their identifiers.
+     * @return When every write has been forced to the journal, or the failure that stopped it.
+     */
+    public CompletableFuture<Void> appendMany(final HashMap<String, JsonObject> jsonObjects) {
+        return CompletableFuture.allOf(jsonObjects.entrySet().stream()
+                .map(entry -> this.append(entry.getKey(), entry.getValue()))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Allows you to journal many deletions.
+     *
+     * @param identifiers ~ The identifiers of the json objects.
+     * @return When every deletion has been forced to the journal, or the failure that stopped it.
+     */
+    public CompletableFuture<Void> appendDeletions(final Collection<String> identifiers) {
+        return CompletableFuture.allOf(identifiers.stream()
+                .map(identifier -> this.append(identifier, null))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Allows you to retrieve the json object of a write that hasn't been replayed yet.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return The pending json object if there is one and it isn't a deletion.
+     */
+    public Optional<JsonObject> getPending(final String identifier) {
+        final byte[] value;
+        synchronized (this.pending) {
+            final Pending pendingWrite = this.pending.get(identifier);
+            if (pendingWrite == null || pendingWrite.value == null) {
+                return Optional.empty();
+            }
+            value = pendingWrite.value;
+        }
+        return Optional.of(JsonParser.parseString(new String(value, StandardCharsets.UTF_8)).getAsJsonObject());
+    }
+
+    /**
+     * Allows you to retrieve if an identifier has a deletion that hasn't been replayed yet.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return If the identifier has a pending deletion.
+     */
+    public boolean isPendingDeletion(final String identifier) {
+        synchronized (this.pending) {
+            final Pending pendingWrite = this.pending.get(identifier);
+            return pendingWrite != null && pendingWrite.value == null;
+        }
+    }
+
+    /**
+     * Allows you to wait for the journal to be replayed.
+     * Only the writes journaled before this is called are waited for, and if the circuit is open the future fails straight away.
+     *
+     * @return When every write journaled so far has been replayed, or the failure that stopped it.
+     */
+    public CompletableFuture<Void> awaitDrain() {
+        synchronized (this.pending) {
+            if (this.sequences.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (this.circuitBreaker.getState() == CircuitState.OPEN) {
+                return CompletableFuture.failedFuture(new IllegalStateException("The circuit " + this.datapoint.getName() + " is open."));
+            }
+            final Waiter waiter = new Waiter(this.sequences.lastKey(), new CompletableFuture<>());
+            this.waiters.add(waiter);
+            return waiter.future;
+        }
+    }
+
+    /**
+     * Allows you to retrieve the amount of writes that haven't been replayed yet.
+     *
+     * @return The amount of writes that haven't been replayed yet.
+     */
+    public int getPendingCount() {
+        synchronized (this.pending) {
+            return this.pending.size();
+        }
+    }
+
+    /**
+     * Allows you to retrieve the journal's circuit breaker.
+     *
+     * @return The journal's circuit breaker.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return this.circuitBreaker;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the journal's writer thread.
+     * Appends are written in batches and forced to disk once per batch before any of them is acknowledged.
+     * A batch is only handed to the drainer once it has been forced, so a write that's reported as failed is never replayed.
+     * Segments aren't released until the batch has been tracked, since its appends don't hold a reference on them before that.
+     * A failed batch is truncated off every segment it was appended to, so it isn't replayed when the journal is opened again either.
+     * If that fails too a new segment is started, so the failed segment can at least be released as soon as nothing tracked is left in it.
+     */
+    private void write() {
+        final ArrayList<Append> drained = new ArrayList<>();
+        boolean shutdown = false;
+        while (!shutdown) {
+            try {
+                drained.add(this.queue.take());
+            } catch (final InterruptedException interruptedException) {
+                continue;
+            }
+            this.queue.drainTo(drained, MAXIMUM_APPENDS - 1);
+            final ArrayList<Append> appended = new ArrayList<>();
+            final ArrayList<Long> appendedSegments = new ArrayList<>();
+            final LinkedHashMap<LogSegment, Long> startSizes = new LinkedHashMap<>();
+            LogSegment segment = null;
+            try {
+                synchronized (this.pending) {
+                    for (final Append append : drained) {
+                        if (append == SHUTDOWN) {
+                            shutdown = true;
+                            continue;
+                        }
+                        if (this.current.getSize() >= this.segmentSize) {
+                            this.current.force();
+                            this.current = this.createSegment(this.current.getId() + 1L);
+                        }
+                        segment = this.current;
+                        startSizes.putIfAbsent(segment, segment.getSize());
+                        segment.append(append.identifier, LogSegment.encode(append.identifier, append.value), append.value == null);
+                        appended.add(append);
+                        appendedSegments.add(segment.getId());
+                    }
+                }
+                if (segment != null) {
+                    segment.force();
+                }
+                synchronized (this.pending) {
+                    for (int index = 0; index < appended.size(); index++) {
+                        this.track(appended.get(index).identifier, appended.get(index).value, appendedSegments.get(index));
+                    }
+                    this.release();
+                    this.pending.notifyAll();
+                }
+                appended.forEach(append -> append.future.complete(null));
+            } catch (final IOException ioException) {
+                synchronized (this.pending) {
+                    boolean truncated = true;
+                    for (final Map.Entry<LogSegment, Long> startSize : startSizes.entrySet()) {
+                        try {
+                            startSize.getKey().truncate(startSize.getValue());
+                        } catch (final IOException ignored) {
+                            truncated = false;
+                        }
+                    }
+                    if (!truncated) {
+                        try {
+                            this.current = this.createSegment(this.current.getId() + 1L);
+                        } catch (final IOException ignored) {
+                        }
+                    }
+                    this.release();
+                }
+                drained.stream().filter(append -> append != SHUTDOWN).forEach(append -> append.future.completeExceptionally(ioException));
+            }
+            drained.clear();
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the journal's drainer thread.
+     * Failed replays back off exponentially up to the circuit's cooldown, and the oldest writes are always replayed first.
+     * Once the journal is stopping an open circuit ends the replay straight away, since whatever is left is replayed the next time the journal is opened.
+     */
+    private void drain() {
+        long backoff = MINIMUM_BACKOFF;
+        while (this.running || System.currentTimeMillis() < this.drainDeadline) {
+            final LinkedHashMap<String, JsonObject> batch = new LinkedHashMap<>();
+            final HashMap<String, Pending> replayed = new HashMap<>();
+            synchronized (this.pending) {
+                if (this.sequences.isEmpty()) {
+                    if (!this.running) {
+                        return;
+                    }
+                    try {
+                        this.pending.wait(1000L);
+                    } catch (final InterruptedException ignored) {
+                    }
+                    continue;
+                }
+                for (final String identifier : this.sequences.values()) {
+                    if (batch.size() >= this.batchSize) {
+                        break;
+                    }
+                    final Pending pendingWrite = this.pending.get(identifier);
+                    batch.put(identifier, pendingWrite.value == null ? null : JsonParser.parseString(new String(pendingWrite.value, StandardCharsets.UTF_8)).getAsJsonObject());
+                    replayed.put(identifier, pendingWrite);
+                }
+            }
+            if (!this.circuitBreaker.allow()) {
+                this.failWaiters();
+                if (!this.running) {
+                    return;
+                }
+                this.sleep(Math.min(this.circuitBreaker.getCooldown(), 1000L));
+                continue;
+            }
+            try {
+                this.datapoint.commit(batch);
+                this.circuitBreaker.success();
+                backoff = MINIMUM_BACKOFF;
+            } catch (final RuntimeException runtimeException) {
+                this.circuitBreaker.failure();
+                this.sleep(backoff);
+                backoff = Math.min(backoff * 2L, Math.max(MINIMUM_BACKOFF, this.circuitBreaker.getCooldown()));
+                continue;
+            }
+            synchronized (this.pending) {
+                replayed.forEach((identifier, pendingWrite) -> {
+                    if (this.pending.get(identifier) == pendingWrite) {
+                        this.untrack(identifier);
+                    }
+                });
+                this.release();
+                final long lowest = this.sequences.isEmpty() ? Long.MAX_VALUE : this.sequences.firstKey();
+                final Iterator<Waiter> iterator = this.waiters.iterator();
+                while (iterator.hasNext()) {
+                    final Waiter waiter = iterator.next();
+                    if (waiter.sequence < lowest) {
+                        waiter.future.complete(null);
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the journal.
+     * The caller is expected to hold the pending lock.
+     */
+    private void track(final String identifier, final byte[] value, final long segment) {
+        this.untrack(identifier);
+        final long sequence = this.sequence++;
+        this.pending.put(identifier, new Pending(sequence, segment, value));
+        this.sequences.put(sequence, identifier);
+        this.references.merge(segment, 1, Integer::sum);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the journal.
+     * The caller is expected to hold the pending lock.
+     */
+    private void untrack(final String identifier) {
+        final Pending previous = this.pending.remove(identifier);
+        if (previous != null) {
+            this.sequences.remove(previous.sequence);
+            this.references.merge(previous.segment, -1, Integer::sum);
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the journal.
+     * Segments are only ever deleted from the oldest one up, so a replay never lets an older write win over a newer one that was already deleted.
+     * The caller is expected to hold the pending lock.
+     */
+    private void release() {
+        final Iterator<Map.Entry<Long, LogSegment>> iterator = this.segments.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Long, LogSegment> entry = iterator.next();
+            if (entry.getValue() == this.current || this.references.getOrDefault(entry.getKey(), 0) > 0) {
+                return;
+            }
+            entry.getValue().delete();
+            this.references.remove(entry.getKey());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the journal.
+     * The caller is expected to hold the pending lock.
+     */
+    private LogSegment createSegment(final long id) throws IOException {
+        final LogSegment segment = new LogSegment(id, new File(this.folder, String.format("%016d", id) + EXTENSION));
+        this.segments.put(id, segment);
+        return segment;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the journal's drainer thread.
+     */
+    private void failWaiters() {
+        synchronized (this.pending) {
+            this.waiters.forEach(waiter -> waiter.future.completeExceptionally(new IllegalStateException("The circuit " + this.datapoint.getName() + " is open.")));
+            this.waiters.clear();
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the journal's drainer thread.
+     */
+    private void sleep(final long time) {
+        synchronized (this.pending) {
+            try {
+                this.pending.wait(time);
+            } catch (final InterruptedException ignored) {
+            }
+        }
+    }
+
+    private static class Append {
+
+        private final String identifier;
+        private final byte[] value;
+        private final CompletableFuture<Void> future;
+
+        /**
+         * Allows you to create an append.
+         *
+         * @param identifier ~ The identifier of the json object.
+         * @param value      ~ The serialized json object, or null for a deletion.
+         * @param future     ~ The future completed once the append is forced.
+         */
+        private Append(final String identifier, final byte[] value, final CompletableFuture<Void> future) {
+            this.identifier = identifier;
+            this.value = value;
+            this.future = future;
+        }
+    }
+
+    private static class Pending {
+
+        private final long sequence;
+        private final long segment;
+        private final byte[] value;
+
+        /**
+         * Allows you to create a pending write.
+         *
+         * @param sequence ~ The sequence of the write.
+         * @param segment  ~ The id of the segment the write is in.
+         * @param value    ~ The serialized json object, or null for a deletion.
+         */
+        private Pending(final long sequence, final long segment, final byte[] value) {
+            this.sequence = sequence;
+            this.segment = segment;
+            this.value = value;
+        }
+    }
+
+    private static class Waiter {
+
+        private final long sequence;
+        private final CompletableFuture<Void> future;
+
+        /**
+         * Allows you to create a waiter.
+         *
+         * @param sequence ~ The last sequence the waiter waits for.
+         * @param future   ~ The future completed once the sequence has been replayed.
+         */
+        private Waiter(final long sequence, final CompletableFuture<Void> future) {
+            this.sequence = sequence;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package net.evilkingdom.commons.data.index;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class BloomFilter {
+
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLongArray bits;
+    private final LongAdder insertions;
+    private final LongAdder queries;
+    private final LongAdder negatives;
+
+    /**
+     * Allows you to create a bloom filter.
+     * The filter is sized so that once it holds the expected amount of identifiers, a lookup of an identifier it doesn't hold says "maybe" at about the false positive rate.
+     * It never says "no" for an identifier it holds, and an identifier can't be taken out of it, so deleted identifiers keep saying "maybe" until it's rebuilt.
+     *
+     * @param expectedInsertions ~ The amount of identifiers the filter is expected to hold.
+     * @param falsePositiveRate  ~ The chance of an identifier the filter doesn't hold being reported as "maybe" (between 0 and 1).
+     */
+    public BloomFilter(final long expectedInsertions, final double falsePositiveRate) {
+        this.expectedInsertions = Math.max(1L, expectedInsertions);
+        this.falsePositiveRate = Math.min(0.5, Math.max(Double.MIN_NORMAL, falsePositiveRate));
+        final double log2 = Math.log(2.0);
+        final long optimalBits = (long) Math.ceil(-this.expectedInsertions * Math.log(this.falsePositiveRate) / (log2 * log2));
+        final int words = (int) Math.min(Integer.MAX_VALUE - 8L, Math.max(1L, (optimalBits + 63L) >>> 6));
+        this.bitCount = (long) words << 6;
+        this.hashCount = (int) Math.max(1L, Math.min(30L, Math.round((double) this.bitCount / this.expectedInsertions * log2)));
+        this.bits = new AtomicLongArray(words);
+        this.insertions = new LongAdder();
+        this.queries = new LongAdder();
+        this.negatives = new LongAdder();
+    }
+
+    /**
+     * Allows you to add an identifier to the filter.
+     * This is lock-free and never allocates.
+     *
+     * @param identifier ~ The identifier.
+     */
+    public void put(final String identifier) {
+        final long hash = hash(identifier);
+        final long first = mix(hash);
+        final long second = mix(hash ^ 0x9E3779B97F4A7C15L) | 1L;
+        for (int index = 0; index < this.hashCount; index++) {
+            final long bit = Long.remainderUnsigned(first + index * second, this.bitCount);
+            final int word = (int) (bit >>> 6);
+            final long mask = 1L << bit;
+            if ((this.bits.get(word) & mask) == 0L) {
+                this.bits.accumulateAndGet(word, mask, (current, added) -> current | added);
+            }
+        }
+        this.insertions.increment();
+    }
+
+    /**
+     * Allows you to check if the filter might hold an identifier.
+     *
+     * @param identifier ~ The identifier.
+     * @return False if the filter definitely doesn't hold the identifier, true if it might.
+     */
+    public boolean mightContain(final String identifier) {
+        this.queries.increment();
+        final long hash = hash(identifier);
+        final long first = mix(hash);
+        final long second = mix(hash ^ 0x9E3779B97F4A7C15L) | 1L;
+        for (int index = 0; index < this.hashCount; index++) {
+            final long bit = Long.remainderUnsigned(first + index * second, this.bitCount);
+            if ((this.bits.get((int) (bit >>> 6)) & (1L << bit)) == 0L) {
+                this.negatives.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Allows you to retrieve the amount of identifiers the filter was sized for.
+     *
+     * @return The amount of identifiers the filter was sized for.
+     */
+    public long getExpectedInsertions() {
+        return this.expectedInsertions;
+    }
+
+    /**
+     * Allows you to retrieve the false positive rate the filter was sized for.
+     *
+     * @return The false positive rate the filter was sized for (between 0 and 1).
+     */
+    public double getFalsePositiveRate() {
+        return this.falsePositiveRate;
+    }
+
+    /**
+     * Allows you to retrieve the filter's current false positive rate.
+     * This is estimated from how full the filter is, so it climbs past the sized rate once the filter holds more identifiers than expected.
+     *
+     * @return The filter's current false positive rate (between 0 and 1).
+     */
+    public double getCurrentFalsePositiveRate() {
+        return Math.pow((double) this.getSetBits() / this.bitCount, this.hashCount);
+    }
+
+    /**
+     * Allows you to retrieve the approximate amount of distinct identifiers in the filter.
+     *
+     * @return The approximate amount of distinct identifiers in the filter.
+     */
+    public long getApproximateCount() {
+        final long setBits = this.getSetBits();
+        if (setBits >= this.bitCount) {
+            return this.expectedInsertions;
+        }
+        return Math.round(-(double) this.bitCount / this.hashCount * Math.log(1.0 - (double) setBits / this.bitCount));
+    }
+
+    /**
+     * Allows you to retrieve the amount of bits in the filter.
+     *
+     * @return The amount of bits in the filter.
+     */
+    public long getBitCount() {
+        return this.bitCount;
+    }
+
+    /**
+     * Allows you to retrieve the amount of set bits in the filter.
+     * This walks every word of the filter.
+     *
+     * @return The amount of set bits in the filter.
+     */
+    public long getSetBits() {
+        long setBits = 0L;
+        for (int word = 0; word < this.bits.length(); word++) {
+            setBits += Long.bitCount(this.bits.get(word));
+        }
+        return setBits;
+    }
+
+    /**
+     * Allows you to retrieve the amount of bits set per identifier.
+     *
+     * @return The amount of bits set per identifier.
+     */
+    public int getHashCount() {
+        return this.hashCount;
+    }
+
+    /**
+     * Allows you to retrieve the filter's memory usage.
+     *
+     * @return The size (in bytes) of the filter's bits.
+     */
+    public long getMemoryUsage() {
+        return this.bitCount >>> 3;
+    }
+
+    /**
+     * Allows you to retrieve the amount of identifiers added to the filter.
+     * Identifiers added more than once are counted every time.
+     *
+     * @return The amount of identifiers added to the filter.
+     */
+    public long getInsertions() {
+        return this.insertions.sum();
+    }
+
+    /**
+     * Allows you to retrieve the amount of lookups made on the filter.
+     *
+     * @return The amount of lookups made on the filter.
+     */
+    public long getQueries() {
+        return this.queries.sum();
+    }
+
+    /**
+     * Allows you to retrieve the amount of lookups the filter answered with a definite "no".
+     *
+     * @return The amount of lookups the filter answered with a definite "no".
+     */
+    public long getNegatives() {
+        return this.negatives.sum();
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the filter.
+     * The identifier's chars are hashed directly, so no bytes are allocated.
+     */
+    private static long hash(final String identifier) {
+        long hash = 0xCBF29CE484222325L;
+        for (int index = 0; index < identifier.length(); index++) {
+            hash = (hash ^ identifier.charAt(index)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the filter.
+     */
+    private static long mix(final long value) {
+        long mixed = value;
+        mixed = (mixed ^ (mixed >>> 33)) * 0xFF51AFD7ED558CCDL;
+        mixed = (mixed ^ (mixed >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return mixed ^ (mixed >>> 33);
+    }
+}
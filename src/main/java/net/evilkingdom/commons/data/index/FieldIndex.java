@@ -0,0 +1,278 @@
+package net.evilkingdom.commons.data.index;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class FieldIndex {
+
+    private final String field;
+    private final String[] path;
+    private final HashMap<String, HashSet<String>> values;
+    private final TreeMap<Double, HashSet<String>> numbers;
+    private final HashMap<String, ArrayList<JsonPrimitive>> entries;
+    private final ReentrantReadWriteLock lock;
+
+    /**
+     * Allows you to create an index on a field.
+     * Every value of the field maps to the identifiers holding it, and numeric values are also kept sorted for range lookups.
+     * If the field holds an array, every primitive in it is indexed, like a mongo multikey index.
+     *
+     * @param field ~ The field to index, which can be nested with dots (like "stats.kills").
+     */
+    public FieldIndex(final String field) {
+        this.field = field;
+        this.path = field.split("\\.");
+        this.values = new HashMap<>();
+        this.numbers = new TreeMap<>();
+        this.entries = new HashMap<>();
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Allows you to index a json object.
+     * Whatever was indexed for the identifier before is replaced.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @param jsonObject ~ The json object.
+     */
+    public void put(final String identifier, final JsonObject jsonObject) {
+        final ArrayList<JsonPrimitive> primitives = new ArrayList<>();
+        resolve(jsonObject, this.path).ifPresent(jsonElement -> {
+            if (jsonElement.isJsonPrimitive()) {
+                primitives.add(jsonElement.getAsJsonPrimitive());
+            } else if (jsonElement.isJsonArray()) {
+                jsonElement.getAsJsonArray().forEach(arrayedElement -> {
+                    if (arrayedElement.isJsonPrimitive()) {
+                        primitives.add(arrayedElement.getAsJsonPrimitive());
+                    }
+                });
+            }
+        });
+        this.lock.writeLock().lock();
+        try {
+            this.unindex(identifier);
+            if (primitives.isEmpty()) {
+                return;
+            }
+            this.entries.put(identifier, primitives);
+            for (final JsonPrimitive primitive : primitives) {
+                this.values.computeIfAbsent(key(primitive), ignored -> new HashSet<>()).add(identifier);
+                if (primitive.isNumber()) {
+                    this.numbers.computeIfAbsent(primitive.getAsDouble(), ignored -> new HashSet<>()).add(identifier);
+                }
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Allows you to remove an identifier from the index.
+     *
+     * @param identifier ~ The identifier.
+     */
+    public void remove(final String identifier) {
+        this.lock.writeLock().lock();
+        try {
+            this.unindex(identifier);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Allows you to clear the index.
+     */
+    public void clear() {
+        this.lock.writeLock().lock();
+        try {
+            this.values.clear();
+            this.numbers.clear();
+            this.entries.clear();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Allows you to find the identifiers whose field equals a value.
+     * Numbers are compared by value, so 5 and 5.0 are the same.
+     *
+     * @param value ~ The value.
+     * @return The identifiers.
+     */
+    public HashSet<String> find(final JsonPrimitive value) {
+        this.lock.readLock().lock();
+        try {
+            return new HashSet<>(this.values.getOrDefault(key(value), new HashSet<>()));
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Allows you to find the identifiers whose field is a number within a range.
+     *
+     * @param minimum ~ The minimum value (inclusive).
+     * @param maximum ~ The maximum value (inclusive).
+     * @return The identifiers.
+     */
+    public HashSet<String> findRange(final double minimum, final double maximum) {
+        final HashSet<String> identifiers = new HashSet<>();
+        if (minimum > maximum) {
+            return identifiers;
+        }
+        this.lock.readLock().lock();
+        try {
+            this.numbers.subMap(minimum, true, maximum, true).values().forEach(identifiers::addAll);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        return identifiers;
+    }
+
+    /**
+     * Allows you to retrieve the indexed field.
+     *
+     * @return The indexed field.
+     */
+    public String getField() {
+        return this.field;
+    }
+
+    /**
+     * Allows you to retrieve the amount of indexed identifiers.
+     *
+     * @return The amount of indexed identifiers.
+     */
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.entries.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Allows you to check if a json object's field matches a value.
+     * This follows the same rules as the index, so it can be used to verify what a lookup returned.
+     *
+     * @param jsonObject ~ The json object.
+     * @param field      ~ The field, which can be nested with dots.
+     * @param value      ~ The value.
+     * @return If the json object's field matches the value.
+     */
+    public static boolean matches(final JsonObject jsonObject, final String field, final JsonPrimitive value) {
+        final String valueKey = key(value);
+        return resolve(jsonObject, field.split("\\.")).map(jsonElement -> {
+            if (jsonElement.isJsonPrimitive()) {
+                return key(jsonElement.getAsJsonPrimitive()).equals(valueKey);
+            }
+            if (jsonElement.isJsonArray()) {
+                for (final JsonElement arrayedElement : jsonElement.getAsJsonArray()) {
+                    if (arrayedElement.isJsonPrimitive() && key(arrayedElement.getAsJsonPrimitive()).equals(valueKey)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }).orElse(false);
+    }
+
+    /**
+     * Allows you to check if a json object's field is a number within a range.
+     *
+     * @param jsonObject ~ The json object.
+     * @param field      ~ The field, which can be nested with dots.
+     * @param minimum    ~ The minimum value (inclusive).
+     * @param maximum    ~ The maximum value (inclusive).
+     * @return If the json object's field is a number within the range.
+     */
+    public static boolean matchesRange(final JsonObject jsonObject, final String field, final double minimum, final double maximum) {
+        return resolve(jsonObject, field.split("\\.")).map(jsonElement -> {
+            final JsonArray candidates = new JsonArray();
+            if (jsonElement.isJsonArray()) {
+                candidates.addAll(jsonElement.getAsJsonArray());
+            } else {
+                candidates.add(jsonElement);
+            }
+            for (final JsonElement candidate : candidates) {
+                if (candidate.isJsonPrimitive() && candidate.getAsJsonPrimitive().isNumber()) {
+                    final double number = candidate.getAsDouble();
+                    if (number >= minimum && number <= maximum) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }).orElse(false);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the index.
+     * The caller is expected to hold the write lock.
+     */
+    private void unindex(final String identifier) {
+        final ArrayList<JsonPrimitive> previous = this.entries.remove(identifier);
+        if (previous == null) {
+            return;
+        }
+        for (final JsonPrimitive primitive : previous) {
+            final String key = key(primitive);
+            final HashSet<String> identifiers = this.values.get(key);
+            if (identifiers != null && identifiers.remove(identifier) && identifiers.isEmpty()) {
+                this.values.remove(key);
+            }
+            if (primitive.isNumber()) {
+                final double number = primitive.getAsDouble();
+                final HashSet<String> numberIdentifiers = this.numbers.get(number);
+                if (numberIdentifiers != null && numberIdentifiers.remove(identifier) && numberIdentifiers.isEmpty()) {
+                    this.numbers.remove(number);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the index.
+     */
+    private static Optional<JsonElement> resolve(final JsonObject jsonObject, final String[] path) {
+        JsonElement current = jsonObject;
+        for (final String segment : path) {
+            if (current == null || !current.isJsonObject()) {
+                return Optional.empty();
+            }
+            current = current.getAsJsonObject().get(segment);
+        }
+        return Optional.ofNullable(current).filter(jsonElement -> !jsonElement.isJsonNull());
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the index.
+     * Numbers are normalized so that equal values share a key no matter how they were written.
+     */
+    private static String key(final JsonPrimitive primitive) {
+        if (primitive.isNumber()) {
+            try {
+                return "n" + new BigDecimal(primitive.getAsString()).stripTrailingZeros().toPlainString();
+            } catch (final NumberFormatException numberFormatException) {
+                return "n" + primitive.getAsString();
+            }
+        }
+        if (primitive.isBoolean()) {
+            return "b" + primitive.getAsBoolean();
+        }
+        return "s" + primitive.getAsString();
+    }
+}
@@ -0,0 +1,333 @@
+package net.evilkingdom.commons.data.leaderboard;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import net.evilkingdom.commons.data.objects.Datapoint;
+import net.evilkingdom.commons.data.objects.DatapointCursor;
+import net.evilkingdom.commons.data.objects.DatapointListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public class Leaderboard implements DatapointListener {
+
+    private final Datapoint datapoint;
+    private final String field;
+    private final String[] path;
+    private final RankedSkipList list;
+    private final HashMap<String, Double> scores;
+    private HashSet<String> touched;
+
+    /**
+     * Allows you to create a leaderboard over a numeric field of a datapoint.
+     * The leaderboard follows every save, update, increment and deletion of the datapoint, so it never has to be rebuilt.
+     *
+     * @param datapoint ~ The datapoint.
+     * @param field     ~ The numeric field to rank by, which can be nested with dots (like "stats.kills").
+     */
+    public Leaderboard(final Datapoint datapoint, final String field) {
+        this.datapoint = datapoint;
+        this.field = field;
+        this.path = field.split("\\.");
+        this.list = new RankedSkipList();
+        this.scores = new HashMap<>();
+    }
+
+    /**
+     * Allows you to bind the leaderboard to its datapoint and fill it.
+     * Backends that can sort natively only send the field, already sorted, otherwise every json object is streamed once.
+     * Changes made while the leaderboard is filling are kept over what's read.
+     *
+     * @return When the leaderboard has been filled.
+     */
+    public CompletableFuture<Void> seed() {
+        synchronized (this) {
+            this.list.clear();
+            this.scores.clear();
+            this.touched = new HashSet<>();
+        }
+        this.datapoint.addListener(this);
+        return this.datapoint.flushAsync().thenRunAsync(() -> {
+            try (final DatapointCursor cursor = this.datapoint.streamSorted(this.field, 1000).orElseGet(() -> this.datapoint.stream(1000))) {
+                while (cursor.hasNext()) {
+                    final Optional<Double> optionalScore = this.resolve(cursor.next(), this.path, 0);
+                    final String identifier = cursor.getIdentifier();
+                    synchronized (this) {
+                        if (optionalScore.isPresent() && !this.touched.contains(identifier)) {
+                            this.set(identifier, optionalScore.get());
+                        }
+                    }
+                }
+            } finally {
+                synchronized (this) {
+                    this.touched = null;
+                }
+            }
+        }, this.datapoint.getSite().getExecutor());
+    }
+
+    /**
+     * Allows you to unbind the leaderboard from its datapoint.
+     * The leaderboard keeps its entries but stops following changes.
+     */
+    public void unbind() {
+        this.datapoint.removeListener(this);
+    }
+
+    /**
+     * Allows you to retrieve the top entries.
+     *
+     * @param amount ~ The amount of entries.
+     * @return The top entries, highest first.
+     */
+    public synchronized ArrayList<Entry> top(final int amount) {
+        return this.range(1, amount);
+    }
+
+    /**
+     * Allows you to retrieve a page of entries.
+     *
+     * @param page     ~ The page (starting at 1).
+     * @param pageSize ~ The amount of entries on a page.
+     * @return The entries on the page, highest first.
+     */
+    public synchronized ArrayList<Entry> page(final int page, final int pageSize) {
+        return this.range((Math.max(1, page) - 1) * pageSize + 1, pageSize);
+    }
+
+    /**
+     * Allows you to retrieve the entries from a rank onwards.
+     *
+     * @param rank   ~ The first rank (starting at 1).
+     * @param amount ~ The amount of entries.
+     * @return The entries, highest first.
+     */
+    public synchronized ArrayList<Entry> range(final int rank, final int amount) {
+        final ArrayList<Entry> entries = new ArrayList<>();
+        RankedSkipList.Node node = this.list.getByRank(rank);
+        for (int index = 0; node != null && index < amount; index++) {
+            entries.add(new Entry(node.getIdentifier(), node.getScore(), rank + index));
+            node = node.getNext();
+        }
+        return entries;
+    }
+
+    /**
+     * Allows you to retrieve the rank of an identifier.
+     *
+     * @param identifier ~ The identifier.
+     * @return The rank of the identifier (starting at 1) if it's on the leaderboard.
+     */
+    public synchronized Optional<Integer> rankOf(final String identifier) {
+        final Double score = this.scores.get(identifier);
+        if (score == null) {
+            return Optional.empty();
+        }
+        return Optional.of(this.list.rankOf(identifier, score));
+    }
+
+    /**
+     * Allows you to retrieve the score of an identifier.
+     *
+     * @param identifier ~ The identifier.
+     * @return The score of the identifier if it's on the leaderboard.
+     */
+    public synchronized Optional<Double> getScore(final String identifier) {
+        return Optional.ofNullable(this.scores.get(identifier));
+    }
+
+    /**
+     * Allows you to retrieve the amount of entries on the leaderboard.
+     *
+     * @return The amount of entries on the leaderboard.
+     */
+    public synchronized int size() {
+        return this.list.size();
+    }
+
+    /**
+     * Allows you to retrieve the leaderboard's field.
+     *
+     * @return The leaderboard's field.
+     */
+    public String getField() {
+        return this.field;
+    }
+
+    /**
+     * Allows you to retrieve the leaderboard's datapoint.
+     *
+     * @return The leaderboard's datapoint.
+     */
+    public Datapoint getDatapoint() {
+        return this.datapoint;
+    }
+
+    @Override
+    public synchronized void onSave(final String identifier, final JsonObject jsonObject) {
+        this.touch(identifier);
+        final Optional<Double> optionalScore = this.resolve(jsonObject, this.path, 0);
+        if (optionalScore.isPresent()) {
+            this.set(identifier, optionalScore.get());
+        } else {
+            this.unset(identifier);
+        }
+    }
+
+    @Override
+    public synchronized void onUpdate(final String identifier, final JsonObject fields, final JsonObject increments) {
+        for (final Map.Entry<String, JsonElement> entry : fields.entrySet()) {
+            final String[] setPath = entry.getKey().split("\\.");
+            if (!this.isPrefix(setPath)) {
+                continue;
+            }
+            this.touch(identifier);
+            final Optional<Double> optionalScore = setPath.length == this.path.length
+                    ? this.toScore(entry.getValue())
+                    : this.resolve(entry.getValue(), this.path, setPath.length);
+            if (optionalScore.isPresent()) {
+                this.set(identifier, optionalScore.get());
+            } else {
+                this.unset(identifier);
+            }
+        }
+        final JsonElement delta = increments.get(this.field);
+        if (delta != null) {
+            this.touch(identifier);
+            this.set(identifier, this.scores.getOrDefault(identifier, 0.0) + delta.getAsDouble());
+        }
+    }
+
+    @Override
+    public synchronized void onDelete(final String identifier) {
+        this.touch(identifier);
+        this.unset(identifier);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the leaderboard.
+     * The caller is expected to hold the leaderboard's lock.
+     */
+    private void set(final String identifier, final double score) {
+        if (Double.isNaN(score)) {
+            this.unset(identifier);
+            return;
+        }
+        final Double previous = this.scores.put(identifier, score);
+        if (previous != null) {
+            this.list.remove(identifier, previous);
+        }
+        this.list.insert(identifier, score);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the leaderboard.
+     * The caller is expected to hold the leaderboard's lock.
+     */
+    private void unset(final String identifier) {
+        final Double previous = this.scores.remove(identifier);
+        if (previous != null) {
+            this.list.remove(identifier, previous);
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the leaderboard.
+     * Identifiers changed while seeding are remembered, so the seed doesn't overwrite them with what it read.
+     */
+    private void touch(final String identifier) {
+        if (this.touched != null) {
+            this.touched.add(identifier);
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the leaderboard.
+     */
+    private boolean isPrefix(final String[] setPath) {
+        if (setPath.length > this.path.length) {
+            return false;
+        }
+        for (int index = 0; index < setPath.length; index++) {
+            if (!setPath[index].equals(this.path[index])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the leaderboard.
+     */
+    private Optional<Double> resolve(final JsonElement jsonElement, final String[] path, final int from) {
+        JsonElement current = jsonElement;
+        for (int index = from; index < path.length; index++) {
+            if (current == null || !current.isJsonObject()) {
+                return Optional.empty();
+            }
+            current = current.getAsJsonObject().get(path[index]);
+        }
+        return this.toScore(current);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the leaderboard.
+     */
+    private Optional<Double> toScore(final JsonElement jsonElement) {
+        if (jsonElement == null || !jsonElement.isJsonPrimitive() || !jsonElement.getAsJsonPrimitive().isNumber()) {
+            return Optional.empty();
+        }
+        return Optional.of(jsonElement.getAsDouble());
+    }
+
+    public static class Entry {
+
+        private final String identifier;
+        private final double score;
+        private final int rank;
+
+        /**
+         * Allows you to create a leaderboard entry.
+         *
+         * @param identifier ~ The identifier of the entry.
+         * @param score      ~ The score of the entry.
+         * @param rank       ~ The rank of the entry (starting at 1).
+         */
+        public Entry(final String identifier, final double score, final int rank) {
+            this.identifier = identifier;
+            this.score = score;
+            this.rank = rank;
+        }
+
+        /**
+         * Allows you to retrieve the identifier of the entry.
+         *
+         * @return The identifier of the entry.
+         */
+        public String getIdentifier() {
+            return this.identifier;
+        }
+
+        /**
+         * Allows you to retrieve the score of the entry.
+         *
+         * @return The score of the entry.
+         */
+        public double getScore() {
+            return this.score;
+        }
+
+        /**
+         * Allows you to retrieve the rank of the entry.
+         *
+         * @return The rank of the entry (starting at 1).
+         */
+        public int getRank() {
+            return this.rank;
+        }
+    }
+}
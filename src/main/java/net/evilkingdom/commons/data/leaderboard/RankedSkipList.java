@@ -0,0 +1,235 @@
+package net.evilkingdom.commons.data.leaderboard;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+public class RankedSkipList {
+
+    private static final int MAXIMUM_LEVEL = 32;
+    private static final double PROMOTION = 0.25;
+
+    private final Node head;
+    private int level;
+    private int size;
+
+    /**
+     * Allows you to create a ranked skip list.
+     * Entries are ordered by score (highest first) then identifier, and every link remembers how many entries it skips.
+     * That makes inserting, removing, ranking and finding an entry by rank all O(log n).
+     */
+    public RankedSkipList() {
+        this.head = new Node(null, 0.0, MAXIMUM_LEVEL);
+        this.level = 1;
+    }
+
+    /**
+     * Allows you to insert an entry.
+     * The caller is expected to make sure the identifier isn't already in the list.
+     *
+     * @param identifier ~ The identifier of the entry.
+     * @param score      ~ The score of the entry.
+     */
+    public void insert(final String identifier, final double score) {
+        final Node[] update = new Node[MAXIMUM_LEVEL];
+        final int[] rank = new int[MAXIMUM_LEVEL];
+        Node node = this.head;
+        for (int index = this.level - 1; index >= 0; index--) {
+            rank[index] = index == this.level - 1 ? 0 : rank[index + 1];
+            while (node.next[index] != null && precedes(node.next[index], identifier, score)) {
+                rank[index] += node.span[index];
+                node = node.next[index];
+            }
+            update[index] = node;
+        }
+        final int nodeLevel = randomLevel();
+        if (nodeLevel > this.level) {
+            for (int index = this.level; index < nodeLevel; index++) {
+                rank[index] = 0;
+                update[index] = this.head;
+                this.head.span[index] = this.size;
+            }
+            this.level = nodeLevel;
+        }
+        final Node inserted = new Node(identifier, score, nodeLevel);
+        for (int index = 0; index < nodeLevel; index++) {
+            inserted.next[index] = update[index].next[index];
+            update[index].next[index] = inserted;
+            inserted.span[index] = update[index].span[index] - (rank[0] - rank[index]);
+            update[index].span[index] = (rank[0] - rank[index]) + 1;
+        }
+        for (int index = nodeLevel; index < this.level; index++) {
+            update[index].span[index]++;
+        }
+        this.size++;
+    }
+
+    /**
+     * Allows you to remove an entry.
+     *
+     * @param identifier ~ The identifier of the entry.
+     * @param score      ~ The score the entry was inserted with.
+     * @return If the entry was found and removed.
+     */
+    public boolean remove(final String identifier, final double score) {
+        final Node[] update = new Node[MAXIMUM_LEVEL];
+        Node node = this.head;
+        for (int index = this.level - 1; index >= 0; index--) {
+            while (node.next[index] != null && precedes(node.next[index], identifier, score)) {
+                node = node.next[index];
+            }
+            update[index] = node;
+        }
+        final Node removed = node.next[0];
+        if (removed == null || removed.score != score || !removed.identifier.equals(identifier)) {
+            return false;
+        }
+        for (int index = 0; index < this.level; index++) {
+            if (update[index].next[index] == removed) {
+                update[index].span[index] += removed.span[index] - 1;
+                update[index].next[index] = removed.next[index];
+            } else {
+                update[index].span[index]--;
+            }
+        }
+        while (this.level > 1 && this.head.next[this.level - 1] == null) {
+            this.level--;
+        }
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Allows you to retrieve the rank of an entry.
+     *
+     * @param identifier ~ The identifier of the entry.
+     * @param score      ~ The score the entry was inserted with.
+     * @return The rank of the entry (starting at 1), or 0 if it isn't in the list.
+     */
+    public int rankOf(final String identifier, final double score) {
+        int rank = 0;
+        Node node = this.head;
+        for (int index = this.level - 1; index >= 0; index--) {
+            while (node.next[index] != null && (precedes(node.next[index], identifier, score)
+                    || (node.next[index].score == score && node.next[index].identifier.equals(identifier)))) {
+                rank += node.span[index];
+                node = node.next[index];
+            }
+            if (node != this.head && node.identifier.equals(identifier)) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Allows you to retrieve the entry at a rank.
+     *
+     * @param rank ~ The rank (starting at 1).
+     * @return The entry at the rank, or null if there isn't one.
+     */
+    public Node getByRank(final int rank) {
+        if (rank < 1 || rank > this.size) {
+            return null;
+        }
+        int traversed = 0;
+        Node node = this.head;
+        for (int index = this.level - 1; index >= 0; index--) {
+            while (node.next[index] != null && traversed + node.span[index] <= rank) {
+                traversed += node.span[index];
+                node = node.next[index];
+            }
+            if (traversed == rank) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Allows you to clear the list.
+     */
+    public void clear() {
+        for (int index = 0; index < MAXIMUM_LEVEL; index++) {
+            this.head.next[index] = null;
+            this.head.span[index] = 0;
+        }
+        this.level = 1;
+        this.size = 0;
+    }
+
+    /**
+     * Allows you to retrieve the amount of entries in the list.
+     *
+     * @return The amount of entries in the list.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the list.
+     * Higher scores come first, and equal scores are ordered by identifier so every entry has a stable rank.
+     */
+    private static boolean precedes(final Node node, final String identifier, final double score) {
+        return node.score > score || (node.score == score && node.identifier.compareTo(identifier) < 0);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the insert method.
+     */
+    private static int randomLevel() {
+        int level = 1;
+        while (level < MAXIMUM_LEVEL && ThreadLocalRandom.current().nextDouble() < PROMOTION) {
+            level++;
+        }
+        return level;
+    }
+
+    public static class Node {
+
+        private final String identifier;
+        private final double score;
+        private final Node[] next;
+        private final int[] span;
+
+        /**
+         * Allows you to create a node.
+         *
+         * @param identifier ~ The identifier of the entry.
+         * @param score      ~ The score of the entry.
+         * @param level      ~ The amount of levels the node is linked on.
+         */
+        private Node(final String identifier, final double score, final int level) {
+            this.identifier = identifier;
+            this.score = score;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+
+        /**
+         * Allows you to retrieve the identifier of the entry.
+         *
+         * @return The identifier of the entry.
+         */
+        public String getIdentifier() {
+            return this.identifier;
+        }
+
+        /**
+         * Allows you to retrieve the score of the entry.
+         *
+         * @return The score of the entry.
+         */
+        public double getScore() {
+            return this.score;
+        }
+
+        /**
+         * Allows you to retrieve the entry after this one.
+         *
+         * @return The entry after this one, or null if this is the last.
+         */
+        public Node getNext() {
+            return this.next[0];
+        }
+    }
+}
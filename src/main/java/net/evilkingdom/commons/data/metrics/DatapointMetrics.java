@@ -0,0 +1,119 @@
+package net.evilkingdom.commons.data.metrics;
+
+import com.google.gson.JsonObject;
+import net.evilkingdom.commons.data.metrics.enums.DatapointOperation;
+
+import java.util.EnumMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class DatapointMetrics {
+
+    private static final int PAYLOAD_SAMPLE = 16;
+
+    private final EnumMap<DatapointOperation, OperationMetrics> operations;
+    private volatile boolean enabled;
+
+    /**
+     * Allows you to create the metrics of a datapoint.
+     * Payload sizes are only measured for one in every 16 operations, since measuring them means serializing the json object.
+     */
+    public DatapointMetrics() {
+        this.operations = new EnumMap<>(DatapointOperation.class);
+        for (final DatapointOperation operation : DatapointOperation.values()) {
+            this.operations.put(operation, new OperationMetrics());
+        }
+        this.enabled = true;
+    }
+
+    /**
+     * Allows you to track an operation.
+     * The operation is timed from before it's started until its future completes, and counted as an error if it throws or its future fails.
+     *
+     * @param operation ~ The operation.
+     * @param supplier  ~ The supplier that starts the operation.
+     * @return The operation's future.
+     */
+    public <T> CompletableFuture<T> track(final DatapointOperation operation, final Supplier<CompletableFuture<T>> supplier) {
+        return this.track(operation, supplier, null);
+    }
+
+    /**
+     * Allows you to track an operation that returns a json object.
+     *
+     * @param operation ~ The operation.
+     * @param supplier  ~ The supplier that starts the operation.
+     * @param payload   ~ The function that retrieves the json object from the operation's result, or null if there isn't one.
+     * @return The operation's future.
+     */
+    public <T> CompletableFuture<T> track(final DatapointOperation operation, final Supplier<CompletableFuture<T>> supplier, final Function<T, JsonObject> payload) {
+        if (!this.enabled) {
+            return supplier.get();
+        }
+        final OperationMetrics operationMetrics = this.operations.get(operation);
+        final long started = operationMetrics.start();
+        final CompletableFuture<T> future;
+        try {
+            future = supplier.get();
+        } catch (final RuntimeException runtimeException) {
+            operationMetrics.complete(started, true);
+            throw runtimeException;
+        }
+        future.whenComplete((result, throwable) -> {
+            operationMetrics.complete(started, throwable != null);
+            if (payload != null && result != null) {
+                this.sample(operation, payload.apply(result));
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Allows you to sample the size of an operation's json object.
+     *
+     * @param operation  ~ The operation.
+     * @param jsonObject ~ The json object, or null if there isn't one.
+     */
+    public void sample(final DatapointOperation operation, final JsonObject jsonObject) {
+        if (this.enabled && jsonObject != null && ThreadLocalRandom.current().nextInt(PAYLOAD_SAMPLE) == 0) {
+            this.operations.get(operation).recordPayload(jsonObject.toString().length());
+        }
+    }
+
+    /**
+     * Allows you to retrieve the metrics of an operation.
+     *
+     * @param operation ~ The operation.
+     * @return The metrics of the operation.
+     */
+    public OperationMetrics getOperation(final DatapointOperation operation) {
+        return this.operations.get(operation);
+    }
+
+    /**
+     * Allows you to set if the metrics are enabled.
+     *
+     * @param enabled ~ If the metrics are enabled.
+     */
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Allows you to retrieve if the metrics are enabled.
+     *
+     * @return If the metrics are enabled.
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Allows you to reset the metrics of every operation.
+     */
+    public void reset() {
+        this.operations.values().forEach(OperationMetrics::reset);
+    }
+}
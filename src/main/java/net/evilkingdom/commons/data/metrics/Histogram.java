@@ -0,0 +1,131 @@
+package net.evilkingdom.commons.data.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong count;
+    private final AtomicLong sum;
+    private final AtomicLong maximum;
+
+    /**
+     * Allows you to create a histogram.
+     * Values are counted in log-linear buckets, every power of two being split into 32 linear buckets, so any percentile is within about 3% of the real value.
+     * Recording is lock-free and the histogram never grows, however many values it has seen.
+     */
+    public Histogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.count = new AtomicLong();
+        this.sum = new AtomicLong();
+        this.maximum = new AtomicLong();
+    }
+
+    /**
+     * Allows you to record a value.
+     *
+     * @param value ~ The value, anything negative is recorded as 0.
+     */
+    public void record(final long value) {
+        final long recorded = Math.max(0L, value);
+        this.counts.incrementAndGet(bucketOf(recorded));
+        this.count.incrementAndGet();
+        this.sum.addAndGet(recorded);
+        this.maximum.accumulateAndGet(recorded, Math::max);
+    }
+
+    /**
+     * Allows you to retrieve a percentile.
+     *
+     * @param percentile ~ The percentile (between 0 and 100).
+     * @return The value at the percentile, or 0 if nothing has been recorded.
+     */
+    public long getPercentile(final double percentile) {
+        final long count = this.count.get();
+        if (count == 0L) {
+            return 0L;
+        }
+        if (percentile >= 100.0) {
+            return this.maximum.get();
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * count));
+        long seen = 0L;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += this.counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(this.maximum.get(), valueOf(bucket));
+            }
+        }
+        return this.maximum.get();
+    }
+
+    /**
+     * Allows you to retrieve the amount of values recorded.
+     *
+     * @return The amount of values recorded.
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Allows you to retrieve the mean of the values recorded.
+     *
+     * @return The mean of the values recorded, or 0 if nothing has been recorded.
+     */
+    public double getMean() {
+        final long count = this.count.get();
+        return count == 0L ? 0.0 : (double) this.sum.get() / count;
+    }
+
+    /**
+     * Allows you to retrieve the highest value recorded.
+     *
+     * @return The highest value recorded.
+     */
+    public long getMaximum() {
+        return this.maximum.get();
+    }
+
+    /**
+     * Allows you to reset the histogram.
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            this.counts.set(bucket, 0L);
+        }
+        this.count.set(0L);
+        this.sum.set(0L);
+        this.maximum.set(0L);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the histogram.
+     * Values below 64 get a bucket each, above that the top 6 bits of the value pick the bucket within its power of two.
+     */
+    private static int bucketOf(final long value) {
+        if (value < SUB_BUCKETS << 1) {
+            return (int) value;
+        }
+        final int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the histogram.
+     * This returns the middle of the bucket.
+     */
+    private static long valueOf(final int bucket) {
+        if (bucket < SUB_BUCKETS << 1) {
+            return bucket;
+        }
+        final int shift = bucket / SUB_BUCKETS - 1;
+        final long lowest = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + ((1L << shift) >>> 1);
+    }
+}
@@ -0,0 +1,140 @@
+package net.evilkingdom.commons.data.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class OperationMetrics {
+
+    private static final int WINDOW = 60;
+
+    private final Histogram latency;
+    private final Histogram payload;
+    private final LongAdder errors;
+    private final AtomicInteger inFlight;
+    private final AtomicLongArray secondCounts;
+    private final AtomicLongArray secondStamps;
+
+    /**
+     * Allows you to create the metrics of an operation.
+     * Throughput is counted per second over the last minute, so rates can be read for any window up to a minute.
+     */
+    public OperationMetrics() {
+        this.latency = new Histogram();
+        this.payload = new Histogram();
+        this.errors = new LongAdder();
+        this.inFlight = new AtomicInteger();
+        this.secondCounts = new AtomicLongArray(WINDOW);
+        this.secondStamps = new AtomicLongArray(WINDOW);
+    }
+
+    /**
+     * Allows you to mark an operation as started.
+     *
+     * @return The time the operation started, to be handed back to complete.
+     */
+    public long start() {
+        this.inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Allows you to mark an operation as completed.
+     *
+     * @param started ~ The time the operation started.
+     * @param failed  ~ If the operation failed.
+     */
+    public void complete(final long started, final boolean failed) {
+        this.latency.record(System.nanoTime() - started);
+        this.inFlight.decrementAndGet();
+        if (failed) {
+            this.errors.increment();
+        }
+        final long second = System.currentTimeMillis() / 1000L;
+        final int slot = (int) (second % WINDOW);
+        final long stamp = this.secondStamps.get(slot);
+        if (stamp != second && this.secondStamps.compareAndSet(slot, stamp, second)) {
+            this.secondCounts.set(slot, 0L);
+        }
+        this.secondCounts.incrementAndGet(slot);
+    }
+
+    /**
+     * Allows you to record the size of an operation's payload.
+     *
+     * @param size ~ The size of the payload.
+     */
+    public void recordPayload(final long size) {
+        this.payload.record(size);
+    }
+
+    /**
+     * Allows you to retrieve the operation's throughput.
+     * The second that's still going isn't counted, so the rate doesn't dip at the start of every second.
+     *
+     * @param seconds ~ The amount of seconds to average over (at most 59).
+     * @return The amount of operations completed per second.
+     */
+    public double getRate(final int seconds) {
+        final int window = Math.max(1, Math.min(WINDOW - 1, seconds));
+        final long now = System.currentTimeMillis() / 1000L;
+        long completed = 0L;
+        for (long second = now - window; second < now; second++) {
+            final int slot = (int) (second % WINDOW);
+            if (this.secondStamps.get(slot) == second) {
+                completed += this.secondCounts.get(slot);
+            }
+        }
+        return (double) completed / window;
+    }
+
+    /**
+     * Allows you to retrieve the operation's latency histogram.
+     *
+     * @return The operation's latency histogram, in nanoseconds.
+     */
+    public Histogram getLatency() {
+        return this.latency;
+    }
+
+    /**
+     * Allows you to retrieve the operation's payload histogram.
+     *
+     * @return The operation's payload histogram, in characters of json.
+     */
+    public Histogram getPayload() {
+        return this.payload;
+    }
+
+    /**
+     * Allows you to retrieve the amount of operations that failed.
+     *
+     * @return The amount of operations that failed.
+     */
+    public long getErrors() {
+        return this.errors.sum();
+    }
+
+    /**
+     * Allows you to retrieve the amount of operations that haven't completed yet.
+     *
+     * @return The amount of operations that haven't completed yet.
+     */
+    public int getInFlight() {
+        return this.inFlight.get();
+    }
+
+    /**
+     * Allows you to reset the operation's metrics.
+     * Operations that are still in flight are kept.
+     */
+    public void reset() {
+        this.latency.reset();
+        this.payload.reset();
+        this.errors.reset();
+        for (int slot = 0; slot < WINDOW; slot++) {
+            this.secondCounts.set(slot, 0L);
+            this.secondStamps.set(slot, 0L);
+        }
+    }
+}
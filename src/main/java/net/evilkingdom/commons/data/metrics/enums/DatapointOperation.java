@@ -0,0 +1,12 @@
+package net.evilkingdom.commons.data.metrics.enums;
+
+public enum DatapointOperation {
+    GET,
+    GET_ALL,
+    COUNT_ALL,
+    SAVE,
+    SAVE_ALL,
+    DELETE,
+    DELETE_ALL,
+    EXISTS,
+}
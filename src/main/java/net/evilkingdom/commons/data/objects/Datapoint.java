@@ -1,15 +1,61 @@
 package net.evilkingdom.commons.data.objects;
 
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import net.evilkingdom.commons.data.cache.ReadThroughCache;
+import net.evilkingdom.commons.data.cache.WriteBehindCache;
+import net.evilkingdom.commons.data.executor.KeyedPipeline;
+import net.evilkingdom.commons.data.expiry.TimingWheel;
+import net.evilkingdom.commons.data.index.BloomFilter;
+import net.evilkingdom.commons.data.index.FieldIndex;
+import net.evilkingdom.commons.data.metrics.DatapointMetrics;
+import net.evilkingdom.commons.data.metrics.enums.DatapointOperation;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 public abstract class Datapoint {
 
+    public static final String EXPIRY_FIELD = "_expiresAt";
+    private static final int PURGE_BATCH_SIZE = 500;
+
     protected final String name;
     protected final Datasite site;
+    protected final ArrayList<String> indexedFields;
+    private final KeyedPipeline pipeline;
+    private final DatapointMetrics metrics;
+    private final CopyOnWriteArrayList<DatapointListener> listeners;
+    private final Object filterLock;
+    private volatile HashMap<String, FieldIndex> indexes;
+    private WriteBehindCache writeBehindCache;
+    private ReadThroughCache readThroughCache;
+    private volatile BloomFilter filter;
+    private volatile BloomFilter buildingFilter;
+    private volatile boolean filterEnabled;
+    private long filterExpectedInsertions;
+    private double filterFalsePositiveRate;
+    private volatile boolean expiring;
+    private volatile TimingWheel expiryWheel;
+    private BukkitTask purgeTask;
 
     /**
      * Allows you to create a datapoint for a plugin.
@@ -20,6 +66,22 @@ public abstract class Datapoint {
     public Datapoint(final Datasite datasite, final String name) {
         this.name = name;
         this.site = datasite;
+        this.indexedFields = new ArrayList<>();
+        this.pipeline = new KeyedPipeline();
+        this.metrics = new DatapointMetrics();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.filterLock = new Object();
+        this.indexes = new HashMap<>();
+    }
+
+    /**
+     * Allows you to retrieve the datapoint's metrics.
+     * Every get, getAll, countAll, save, delete and exists is timed and counted, whichever backend the datapoint uses.
+     *
+     * @return The datapoint's metrics.
+     */
+    public DatapointMetrics getMetrics() {
+        return this.metrics;
     }
 
     /**
@@ -45,19 +107,451 @@ public abstract class Datapoint {
      */
     public abstract void register();
 
+    /**
+     * Allows you to register the datapoint without blocking.
+     * The datapoint is registered on its datasite's executor.
+     *
+     * @return When the datapoint has been registered, or the failure that stopped it.
+     */
+    public CompletableFuture<Void> registerAsync() {
+        return CompletableFuture.runAsync(this::register, this.site.getExecutor());
+    }
+
+    /**
+     * Allows you to declare an index on a field.
+     * This should be done before the datapoint is registered, since that's when the index is created.
+     *
+     * @param field ~ The field to index, which can be nested with dots (like "stats.kills").
+     */
+    public void addIndex(final String field) {
+        if (!this.indexedFields.contains(field)) {
+            this.indexedFields.add(field);
+        }
+    }
+
+    /**
+     * Allows you to retrieve the datapoint's indexed fields.
+     *
+     * @return The datapoint's indexed fields.
+     */
+    public ArrayList<String> getIndexedFields() {
+        return this.indexedFields;
+    }
+
+    /**
+     * Allows you to add a listener to the datapoint.
+     * Listeners are called on the thread that made the change, as soon as it's made, so they should be quick.
+     *
+     * @param listener ~ The listener.
+     */
+    public void addListener(final DatapointListener listener) {
+        if (!this.listeners.contains(listener)) {
+            this.listeners.add(listener);
+        }
+    }
+
+    /**
+     * Allows you to remove a listener from the datapoint.
+     *
+     * @param listener ~ The listener.
+     */
+    public void removeListener(final DatapointListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Allows you to enable write-behind for the datapoint.
+     * Saves will be kept in memory and repeated saves to an identifier collapse into a single write.
+     *
+     * @param interval  ~ The interval (in ticks) between flushes.
+     * @param threshold ~ The amount of dirty identifiers that will trigger an early flush.
+     */
+    public void enableWriteBehind(final long interval, final int threshold) {
+        this.disableWriteBehind();
+        this.writeBehindCache = new WriteBehindCache(this.site.getPlugin(), this::orderedWrite, this::orderedRemove, interval, threshold);
+        this.writeBehindCache.start();
+    }
+
+    /**
+     * Allows you to disable write-behind for the datapoint.
+     * Anything still staged will be written before it's disabled.
+     */
+    public void disableWriteBehind() {
+        if (this.writeBehindCache == null) {
+            return;
+        }
+        this.writeBehindCache.stop();
+        this.writeBehindCache = null;
+    }
+
+    /**
+     * Allows you to retrieve the datapoint's write-behind cache.
+     *
+     * @return The datapoint's write-behind cache if write-behind is enabled.
+     */
+    public Optional<WriteBehindCache> getWriteBehindCache() {
+        return Optional.ofNullable(this.writeBehindCache);
+    }
+
+    /**
+     * Allows you to write every staged json object.
+     * This does nothing if write-behind isn't enabled.
+     * On the datasite's executor the writes are only started, since waiting there would hold a thread the writes need, so flushAsync should be composed on instead.
+     */
+    public void flush() {
+        final WriteBehindCache writeBehindCache = this.writeBehindCache;
+        if (writeBehindCache == null) {
+            return;
+        }
+        if (this.site.getExecutor().isExecutorThread()) {
+            writeBehindCache.flushAsync();
+            return;
+        }
+        writeBehindCache.flush();
+    }
+
+    /**
+     * Allows you to write every staged json object without blocking.
+     *
+     * @return When every staged json object has been written, or straight away if write-behind isn't enabled.
+     */
+    public CompletableFuture<Void> flushAsync() {
+        final WriteBehindCache writeBehindCache = this.writeBehindCache;
+        if (writeBehindCache == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return writeBehindCache.flushAsync();
+    }
+
+    /**
+     * Allows you to enable the read-through cache for the datapoint.
+     * Cached reads complete immediately, and saves update the cache so a read after a save returns the new value.
+     *
+     * @param maximumEntries    ~ The maximum amount of entries, or 0 for no limit.
+     * @param maximumBytes      ~ The maximum approximate size (in bytes) of every entry combined, or 0 for no limit.
+     * @param expireAfterWrite  ~ The time (in milliseconds) an entry lives after it's written, or 0 for no expiry.
+     * @param expireAfterAccess ~ The time (in milliseconds) an entry lives after it's last accessed, or 0 for no expiry.
+     */
+    public void enableCache(final long maximumEntries, final long maximumBytes, final long expireAfterWrite, final long expireAfterAccess) {
+        this.readThroughCache = new ReadThroughCache(maximumEntries, maximumBytes, expireAfterWrite, expireAfterAccess);
+    }
+
+    /**
+     * Allows you to disable the read-through cache for the datapoint.
+     */
+    public void disableCache() {
+        this.readThroughCache = null;
+    }
+
+    /**
+     * Allows you to retrieve the datapoint's read-through cache.
+     *
+     * @return The datapoint's read-through cache if it's enabled.
+     */
+    public Optional<ReadThroughCache> getCache() {
+        return Optional.ofNullable(this.readThroughCache);
+    }
+
+    /**
+     * Allows you to enable the bloom filter for the datapoint.
+     * Every identifier in the backend is added to the filter, and every save adds to it from then on, so a lookup of an identifier that was never saved is answered with no I/O.
+     * The filter is only consulted once it's built, and it should be enabled once the datapoint is registered.
+     * Backends that other servers write to as well can't have a filter, since it would answer their json objects as missing, so a mongo datapoint needs to be marked as not shared first.
+     *
+     * @param expectedInsertions ~ The amount of identifiers the filter is expected to hold.
+     * @param falsePositiveRate  ~ The chance of a missing identifier still being looked up in the backend (between 0 and 1).
+     * @return When the filter has been built, or the failure that stopped it.
+     * @throws IllegalStateException If the datapoint's backend is shared.
+     */
+    public CompletableFuture<Void> enableFilter(final long expectedInsertions, final double falsePositiveRate) {
+        if (this.isShared()) {
+            throw new IllegalStateException("The datapoint " + this.name + " can't have a filter, since its backend is shared.");
+        }
+        synchronized (this.filterLock) {
+            this.filterExpectedInsertions = expectedInsertions;
+            this.filterFalsePositiveRate = falsePositiveRate;
+            this.filterEnabled = true;
+        }
+        return this.rebuildFilter();
+    }
+
+    /**
+     * Allows you to disable the bloom filter for the datapoint.
+     */
+    public void disableFilter() {
+        synchronized (this.filterLock) {
+            this.filterEnabled = false;
+            this.filter = null;
+            this.buildingFilter = null;
+        }
+    }
+
+    /**
+     * Allows you to rebuild the datapoint's bloom filter.
+     * The identifiers are streamed from the backend into a new filter, and the old one keeps answering lookups until it's replaced.
+     * This should be done every so often if identifiers are deleted a lot, since the filter can't forget them.
+     *
+     * @return When the filter has been rebuilt, or the failure that stopped it.
+     */
+    public CompletableFuture<Void> rebuildFilter() {
+        return CompletableFuture.runAsync(this::buildFilter, this.site.getExecutor());
+    }
+
+    /**
+     * Allows you to retrieve the datapoint's bloom filter.
+     *
+     * @return The datapoint's bloom filter if it's enabled and built.
+     */
+    public Optional<BloomFilter> getFilter() {
+        return Optional.ofNullable(this.filter);
+    }
+
+    /**
+     * Allows you to enable expiry for the datapoint.
+     * Json objects saved with a time to live read as absent once it runs out, and they're purged in batches every second (or by the backend, if it can expire them natively).
+     * This should be done before the datapoint is registered, so the backend can pick up the json objects that are already expiring.
+     */
+    public void enableExpiry() {
+        if (this.expiring) {
+            return;
+        }
+        if (!this.hasNativeExpiry()) {
+            this.expiryWheel = new TimingWheel(1000L);
+            this.purgeTask = Bukkit.getScheduler().runTaskTimerAsynchronously(this.site.getPlugin(), this::purge, 20L, 20L);
+        }
+        this.expiring = true;
+    }
+
+    /**
+     * Allows you to disable expiry for the datapoint.
+     * Expiring json objects are left as they are, and read as present again.
+     */
+    public void disableExpiry() {
+        if (this.purgeTask != null) {
+            this.purgeTask.cancel();
+            this.purgeTask = null;
+        }
+        this.expiring = false;
+        this.expiryWheel = null;
+    }
+
+    /**
+     * Allows you to retrieve if the datapoint has expiry enabled.
+     *
+     * @return If the datapoint has expiry enabled.
+     */
+    public boolean isExpiring() {
+        return this.expiring;
+    }
+
+    /**
+     * Allows you to retrieve the datapoint's expiry wheel.
+     * Backends that expire json objects natively don't have one, since nothing would ever purge it.
+     *
+     * @return The datapoint's expiry wheel if expiry is enabled and purged by the datapoint.
+     */
+    public Optional<TimingWheel> getExpiryWheel() {
+        return Optional.ofNullable(this.expiryWheel);
+    }
+
+    /**
+     * Allows you to retrieve when a json object expires.
+     * The expiry is kept in the json object's _expiresAt field as an extended json date, so mongo can expire it natively.
+     *
+     * @param jsonObject ~ The json object.
+     * @return The time (in epoch milliseconds) the json object expires at if it has one.
+     */
+    public static Optional<Long> getExpiry(final JsonObject jsonObject) {
+        final JsonElement expiry = jsonObject.get(EXPIRY_FIELD);
+        if (expiry == null || expiry.isJsonNull()) {
+            return Optional.empty();
+        }
+        try {
+            JsonElement value = expiry;
+            if (value.isJsonObject() && value.getAsJsonObject().has("$date")) {
+                value = value.getAsJsonObject().get("$date");
+            }
+            if (value.isJsonObject() && value.getAsJsonObject().has("$numberLong")) {
+                value = value.getAsJsonObject().get("$numberLong");
+            }
+            if (!value.isJsonPrimitive()) {
+                return Optional.empty();
+            }
+            if (value.getAsJsonPrimitive().isNumber()) {
+                return Optional.of(value.getAsLong());
+            }
+            final String date = value.getAsString();
+            return Optional.of(date.chars().allMatch(Character::isDigit) ? Long.parseLong(date) : Instant.parse(date).toEpochMilli());
+        } catch (final RuntimeException runtimeException) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Allows you to retrieve the datapoint's pipeline.
+     * Every write and deletion of an identifier goes through it, so they reach the backend in the order they were made.
+     *
+     * @return The datapoint's pipeline.
+     */
+    public KeyedPipeline getPipeline() {
+        return this.pipeline;
+    }
+
     /**
      * Allows you to retrieve all the json objects.
      *
      * @return All the json objects.
      */
-    public abstract CompletableFuture<ArrayList<JsonObject>> getAll();
+    public CompletableFuture<ArrayList<JsonObject>> getAll() {
+        return this.metrics.track(DatapointOperation.GET_ALL, () -> {
+            if (this.writeBehindCache == null) {
+                return this.readAll().thenApply(this::removeExpired);
+            }
+            return this.flushAsync().thenCompose(ignored -> this.readAll()).thenApply(this::removeExpired);
+        });
+    }
+
+    /**
+     * Allows you to retrieve all the json objects with only some of their fields.
+     * The json objects are streamed from the backend and only their kept fields are held, so this is far lighter than getAll on large json objects.
+     *
+     * @param fields ~ The fields to keep, which can be nested with dots (like "stats.kills").
+     * @return All the json objects with only the kept fields.
+     */
+    public CompletableFuture<ArrayList<JsonObject>> getAll(final String... fields) {
+        if (fields.length == 0) {
+            return this.getAll();
+        }
+        final boolean strippingExpiry = this.expiring && !Arrays.asList(fields).contains(EXPIRY_FIELD);
+        final Projection projection = strippingExpiry ? new Projection(this.withExpiry(fields)) : new Projection(fields);
+        return this.metrics.track(DatapointOperation.GET_ALL, () -> {
+            final ArrayList<JsonObject> jsonObjects = new ArrayList<>();
+            return this.flushAsync()
+                    .thenCompose(ignored -> this.walk(() -> this.iterateProjected(500, projection), (identifier, jsonObject) -> jsonObjects.add(jsonObject)))
+                    .thenApply(ignored -> {
+                        this.removeExpired(jsonObjects);
+                        if (strippingExpiry) {
+                            jsonObjects.forEach(jsonObject -> jsonObject.remove(EXPIRY_FIELD));
+                        }
+                        return jsonObjects;
+                    });
+        });
+    }
+
+    /**
+     * Allows you to stream all the json objects with only some of their fields.
+     * This blocks while it walks the backend, so it should never be used on the main thread.
+     *
+     * @param batchSize ~ The amount of json objects loaded at a time.
+     * @param fields    ~ The fields to keep, which can be nested with dots (like "stats.kills").
+     * @return A cursor over all the json objects with only the kept fields, which must be closed once you're finished with it.
+     */
+    public DatapointCursor stream(final int batchSize, final String... fields) {
+        if (fields.length == 0) {
+            return this.stream(batchSize);
+        }
+        this.flush();
+        if (!this.expiring || Arrays.asList(fields).contains(EXPIRY_FIELD)) {
+            return this.unexpired(this.iterateProjected(batchSize, new Projection(fields)), false);
+        }
+        return this.unexpired(this.iterateProjected(batchSize, new Projection(this.withExpiry(fields))), true);
+    }
+
+    /**
+     * Allows you to stream all the json objects.
+     * Unlike getAll, only a batch of json objects is held in memory at a time, so this should be used for anything that walks a large datapoint.
+     * This blocks while it walks the backend, so it should never be used on the main thread.
+     *
+     * @param batchSize ~ The amount of json objects loaded at a time.
+     * @return A cursor over all the json objects, which must be closed once you're finished with it.
+     */
+    public DatapointCursor stream(final int batchSize) {
+        this.flush();
+        return this.unexpired(this.iterate(batchSize), false);
+    }
+
+    /**
+     * Allows you to stream the json objects that have a numeric field, sorted by it with the highest first.
+     * This is only possible on backends that can sort natively, and the json objects may only contain the field.
+     * This blocks while it walks the backend, so it should never be used on the main thread.
+     *
+     * @param field     ~ The numeric field, which can be nested with dots (like "stats.kills").
+     * @param batchSize ~ The amount of json objects loaded at a time.
+     * @return A cursor over the sorted json objects if the backend can sort, which must be closed once you're finished with it.
+     */
+    public Optional<DatapointCursor> streamSorted(final String field, final int batchSize) {
+        this.flush();
+        return this.iterateSorted(field, batchSize);
+    }
 
     /**
      * Allows you to retrieve the total number of json objects.
      *
      * @return The total number of json objects.
      */
-    public abstract CompletableFuture<Long> countAll();
+    public CompletableFuture<Long> countAll() {
+        return this.metrics.track(DatapointOperation.COUNT_ALL, () -> {
+            if (this.writeBehindCache == null) {
+                return this.count();
+            }
+            return this.flushAsync().thenCompose(ignored -> this.count());
+        });
+    }
+
+    /**
+     * Allows you to find the json objects whose field equals a value.
+     * Indexed fields are answered from the index, anything else walks every json object.
+     *
+     * @param field ~ The field, which can be nested with dots (like "gang.name").
+     * @param value ~ The value.
+     * @return The json objects whose field equals the value.
+     */
+    public CompletableFuture<ArrayList<JsonObject>> find(final String field, final JsonPrimitive value) {
+        if (this.writeBehindCache == null) {
+            return this.query(field, value).thenApply(this::removeExpired);
+        }
+        return this.flushAsync().thenCompose(ignored -> this.query(field, value)).thenApply(this::removeExpired);
+    }
+
+    /**
+     * Allows you to find the json objects whose field equals a string.
+     *
+     * @param field ~ The field, which can be nested with dots (like "gang.name").
+     * @param value ~ The string.
+     * @return The json objects whose field equals the string.
+     */
+    public CompletableFuture<ArrayList<JsonObject>> find(final String field, final String value) {
+        return this.find(field, new JsonPrimitive(value));
+    }
+
+    /**
+     * Allows you to find the json objects whose field equals a number.
+     *
+     * @param field ~ The field, which can be nested with dots (like "gang.name").
+     * @param value ~ The number.
+     * @return The json objects whose field equals the number.
+     */
+    public CompletableFuture<ArrayList<JsonObject>> find(final String field, final Number value) {
+        return this.find(field, new JsonPrimitive(value));
+    }
+
+    /**
+     * Allows you to find the json objects whose field is a number within a range.
+     * Indexed fields are answered from the index, anything else walks every json object.
+     *
+     * @param field   ~ The field, which can be nested with dots (like "stats.kills").
+     * @param minimum ~ The minimum value (inclusive).
+     * @param maximum ~ The maximum value (inclusive).
+     * @return The json objects whose field is within the range.
+     */
+    public CompletableFuture<ArrayList<JsonObject>> findRange(final String field, final Number minimum, final Number maximum) {
+        if (this.writeBehindCache == null) {
+            return this.queryRange(field, minimum.doubleValue(), maximum.doubleValue()).thenApply(this::removeExpired);
+        }
+        return this.flushAsync()
+                .thenCompose(ignored -> this.queryRange(field, minimum.doubleValue(), maximum.doubleValue()))
+                .thenApply(this::removeExpired);
+    }
 
     /**
      * Allows you to retrieve a json object from an identifier.
@@ -65,27 +559,1060 @@ public abstract class Datapoint {
      * @param identifier ~ The identifier of the json object.
      * @return The json object.
      */
-    public abstract CompletableFuture<Optional<JsonObject>> get(final String identifier);
+    public CompletableFuture<Optional<JsonObject>> get(final String identifier) {
+        return this.metrics.track(DatapointOperation.GET, () -> this.unexpired(identifier, () -> {
+            if (this.writeBehindCache != null) {
+                final Optional<JsonObject> optionalJsonObject = this.writeBehindCache.get(identifier);
+                if (optionalJsonObject.isPresent() || this.writeBehindCache.isDeleted(identifier)) {
+                    return CompletableFuture.completedFuture(optionalJsonObject);
+                }
+            }
+            if (this.isDefinitelyMissing(identifier)) {
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+            final ReadThroughCache readThroughCache = this.readThroughCache;
+            if (readThroughCache == null) {
+                return this.read(identifier);
+            }
+            final Optional<JsonObject> optionalCachedJsonObject = readThroughCache.get(identifier);
+            if (optionalCachedJsonObject.isPresent()) {
+                return CompletableFuture.completedFuture(optionalCachedJsonObject);
+            }
+            final long generation = readThroughCache.getGeneration(identifier);
+            return this.read(identifier).thenApply(optionalJsonObject -> {
+                optionalJsonObject.ifPresent(jsonObject -> readThroughCache.load(jsonObject, identifier, generation));
+                return optionalJsonObject;
+            });
+        }), optionalJsonObject -> optionalJsonObject.orElse(null));
+    }
+
+    /**
+     * Allows you to retrieve a json object from an identifier with only some of its fields.
+     * Staged and cached json objects are projected in memory, anything else only has the kept fields read from the backend.
+     * Projected json objects are never put in the read-through cache.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @param fields     ~ The fields to keep, which can be nested with dots (like "stats.kills").
+     * @return The json object with only the kept fields.
+     */
+    public CompletableFuture<Optional<JsonObject>> get(final String identifier, final String... fields) {
+        if (fields.length == 0) {
+            return this.get(identifier);
+        }
+        final boolean strippingExpiry = this.expiring && !Arrays.asList(fields).contains(EXPIRY_FIELD);
+        final Projection projection = strippingExpiry ? new Projection(this.withExpiry(fields)) : new Projection(fields);
+        return this.metrics.track(DatapointOperation.GET, () -> this.unexpired(identifier, () -> {
+            if (this.writeBehindCache != null) {
+                final Optional<JsonObject> optionalJsonObject = this.writeBehindCache.get(identifier);
+                if (optionalJsonObject.isPresent() || this.writeBehindCache.isDeleted(identifier)) {
+                    return CompletableFuture.completedFuture(optionalJsonObject.map(projection::apply));
+                }
+            }
+            if (this.isDefinitelyMissing(identifier)) {
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+            final ReadThroughCache readThroughCache = this.readThroughCache;
+            if (readThroughCache != null) {
+                final Optional<JsonObject> optionalCachedJsonObject = readThroughCache.get(identifier);
+                if (optionalCachedJsonObject.isPresent()) {
+                    return CompletableFuture.completedFuture(optionalCachedJsonObject.map(projection::apply));
+                }
+            }
+            return this.readProjected(identifier, projection);
+        }).thenApply(optionalJsonObject -> {
+            if (strippingExpiry) {
+                optionalJsonObject.ifPresent(jsonObject -> jsonObject.remove(EXPIRY_FIELD));
+            }
+            return optionalJsonObject;
+        }));
+    }
+
+    /**
+     * Allows you to retrieve many json objects from their identifiers.
+     * Anything that's staged or cached is answered from memory, and the rest is read from the backend in one batch.
+     *
+     * @param identifiers ~ The identifiers of the json objects.
+     * @return The json object of every identifier.
+     */
+    public CompletableFuture<HashMap<String, Optional<JsonObject>>> getMany(final Collection<String> identifiers) {
+        if (!this.expiring) {
+            return this.lookupMany(identifiers);
+        }
+        final TimingWheel expiryWheel = this.expiryWheel;
+        return this.lookupMany(identifiers).thenApply(jsonObjects -> {
+            final long now = System.currentTimeMillis();
+            jsonObjects.replaceAll((identifier, optionalJsonObject) -> expiryWheel != null && expiryWheel.isExpired(identifier, now)
+                    ? Optional.empty()
+                    : optionalJsonObject.filter(jsonObject -> !isExpired(jsonObject, now)));
+            return jsonObjects;
+        });
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the getMany method.
+     */
+    private CompletableFuture<HashMap<String, Optional<JsonObject>>> lookupMany(final Collection<String> identifiers) {
+        final HashMap<String, Optional<JsonObject>> jsonObjects = new HashMap<>();
+        final ArrayList<String> remaining = new ArrayList<>();
+        for (final String identifier : identifiers) {
+            if (this.writeBehindCache != null) {
+                final Optional<JsonObject> optionalJsonObject = this.writeBehindCache.get(identifier);
+                if (optionalJsonObject.isPresent() || this.writeBehindCache.isDeleted(identifier)) {
+                    jsonObjects.put(identifier, optionalJsonObject);
+                    continue;
+                }
+            }
+            if (this.isDefinitelyMissing(identifier)) {
+                jsonObjects.put(identifier, Optional.empty());
+                continue;
+            }
+            if (this.readThroughCache != null) {
+                final Optional<JsonObject> optionalJsonObject = this.readThroughCache.get(identifier);
+                if (optionalJsonObject.isPresent()) {
+                    jsonObjects.put(identifier, optionalJsonObject);
+                    continue;
+                }
+            }
+            remaining.add(identifier);
+        }
+        if (remaining.isEmpty()) {
+            return CompletableFuture.completedFuture(jsonObjects);
+        }
+        final ReadThroughCache readThroughCache = this.readThroughCache;
+        final HashMap<String, Long> generations = new HashMap<>();
+        if (readThroughCache != null) {
+            remaining.forEach(identifier -> generations.put(identifier, readThroughCache.getGeneration(identifier)));
+        }
+        return this.readMany(remaining).thenApply(readJsonObjects -> {
+            for (final String identifier : remaining) {
+                final Optional<JsonObject> optionalJsonObject = readJsonObjects.getOrDefault(identifier, Optional.empty());
+                if (readThroughCache != null) {
+                    optionalJsonObject.ifPresent(jsonObject -> readThroughCache.load(jsonObject, identifier, generations.get(identifier)));
+                }
+                jsonObjects.put(identifier, optionalJsonObject);
+            }
+            return jsonObjects;
+        });
+    }
+
+    /**
+     * Allows you to save a json object that expires.
+     * The expiry is added to a copy of the json object's top level, and once it runs out the json object reads as absent until it's purged.
+     *
+     * @param jsonObject ~ The json object to save.
+     * @param identifier ~ The identifier of the json object.
+     * @param timeToLive ~ How long (in milliseconds) the json object lives for.
+     * @return When the json object has been saved (or staged), or the failure that stopped it.
+     */
+    public CompletableFuture<Void> save(final JsonObject jsonObject, final String identifier, final long timeToLive) {
+        if (!this.expiring) {
+            throw new IllegalStateException("The datapoint " + this.name + " doesn't have expiry enabled.");
+        }
+        final JsonObject expiringJsonObject = new JsonObject();
+        jsonObject.entrySet().forEach(entry -> expiringJsonObject.add(entry.getKey(), entry.getValue()));
+        final JsonObject expiry = new JsonObject();
+        expiry.addProperty("$date", System.currentTimeMillis() + timeToLive);
+        expiringJsonObject.add(EXPIRY_FIELD, expiry);
+        return this.save(expiringJsonObject, identifier);
+    }
 
     /**
      * Allows you to save a json object.
+     * If write-behind is enabled the json object will be staged and written on the next flush.
+     * Saves to the same identifier are written in the order they were made, and a save that's still waiting is dropped once a newer one replaces it.
+     * The json object shouldn't be changed after it's saved, since a waiting save is only serialized once its turn comes.
      *
      * @param jsonObject ~ The json object to save.
-     * @param identifier ~ THe identifier of the json object.
+     * @param identifier ~ The identifier of the json object.
+     * @return When the json object has been saved (or staged), or the failure that stopped it.
      */
-    public abstract void save(final JsonObject jsonObject, final String identifier);
+    public CompletableFuture<Void> save(final JsonObject jsonObject, final String identifier) {
+        this.metrics.sample(DatapointOperation.SAVE, jsonObject);
+        return this.metrics.track(DatapointOperation.SAVE, () -> {
+            this.addToFilter(identifier);
+            this.scheduleExpiry(identifier, jsonObject);
+            if (this.readThroughCache != null) {
+                this.readThroughCache.put(jsonObject, identifier);
+            }
+            this.indexes.values().forEach(index -> index.put(identifier, jsonObject));
+            this.listeners.forEach(listener -> listener.onSave(identifier, jsonObject));
+            if (this.writeBehindCache != null) {
+                this.writeBehindCache.stage(jsonObject, identifier);
+                return CompletableFuture.completedFuture(null);
+            }
+            return this.orderedWrite(jsonObject, identifier);
+        });
+    }
 
+    /**
+     * Allows you to save many json objects.
+     * If write-behind is enabled the json objects will be staged, otherwise they're written to the backend in one batch.
+     * The batch is ordered against saves and deletions of the same identifiers, so it replaces the ones made before it and is replaced by the ones made after it.
+     *
+     * @param jsonObjects ~ The json objects to save, mapped by their identifiers.
+     * @return When every json object has been saved (or staged), or the failure that stopped it.
+     */
+    public CompletableFuture<Void> saveAll(final HashMap<String, JsonObject> jsonObjects) {
+        jsonObjects.values().forEach(jsonObject -> this.metrics.sample(DatapointOperation.SAVE_ALL, jsonObject));
+        return this.metrics.track(DatapointOperation.SAVE_ALL, () -> {
+            jsonObjects.keySet().forEach(this::addToFilter);
+            jsonObjects.forEach(this::scheduleExpiry);
+            if (this.readThroughCache != null) {
+                jsonObjects.forEach((identifier, jsonObject) -> this.readThroughCache.put(jsonObject, identifier));
+            }
+            this.indexes.values().forEach(index -> jsonObjects.forEach(index::put));
+            this.listeners.forEach(listener -> jsonObjects.forEach(listener::onSave));
+            if (this.writeBehindCache != null) {
+                jsonObjects.forEach((identifier, jsonObject) -> this.writeBehindCache.stage(jsonObject, identifier));
+                return CompletableFuture.completedFuture(null);
+            }
+            if (jsonObjects.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return this.orderedBatch(jsonObjects.keySet(), identifier -> true, true, identifiers -> {
+                final HashMap<String, JsonObject> batch = new HashMap<>();
+                identifiers.forEach(identifier -> batch.put(identifier, jsonObjects.get(identifier)));
+                if (!this.filterEnabled) {
+                    return this.writeMany(batch);
+                }
+                return this.writeMany(batch).thenRun(() -> identifiers.forEach(this::addToFilter));
+            }, identifier -> this.refilter(identifier, this.write(jsonObjects.get(identifier), identifier)));
+        });
+    }
 
-    public void saveAsync(final JsonObject jsonObject, final String identifier) {
-        CompletableFuture.runAsync(() -> this.save(jsonObject, identifier));
+    /**
+     * Allows you to update fields of a json object.
+     * Only the fields in the patch are changed, and a field can be nested with dots (like "stats.kills").
+     * If there's no json object for the identifier, one is created from the patch.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @param patch      ~ The fields to set.
+     * @return When the json object has been updated (or staged), or the failure that stopped it.
+     */
+    public CompletableFuture<Void> update(final String identifier, final JsonObject patch) {
+        return this.modify(identifier, patch, new JsonObject());
+    }
+
+    /**
+     * Allows you to increment a numeric field of a json object.
+     * A missing field starts at zero, and the field can be nested with dots (like "stats.kills").
+     * If there's no json object for the identifier, one is created with just the field.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @param field      ~ The field to increment.
+     * @param delta      ~ The amount to increment the field by, which can be negative.
+     * @return When the json object has been updated (or staged), or the failure that stopped it.
+     */
+    public CompletableFuture<Void> increment(final String identifier, final String field, final Number delta) {
+        final JsonObject increments = new JsonObject();
+        increments.addProperty(field, delta);
+        return this.modify(identifier, new JsonObject(), increments);
+    }
+
+    /**
+     * Allows you to delete a json object.
+     * If write-behind is enabled the deletion will be staged and carried out on the next flush.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return When the json object has been deleted (or staged), or the failure that stopped it.
+     */
+    public CompletableFuture<Void> delete(final String identifier) {
+        return this.metrics.track(DatapointOperation.DELETE, () -> {
+            this.cancelExpiry(identifier);
+            if (this.readThroughCache != null) {
+                this.readThroughCache.invalidate(identifier);
+            }
+            this.indexes.values().forEach(index -> index.remove(identifier));
+            this.listeners.forEach(listener -> listener.onDelete(identifier));
+            if (this.writeBehindCache != null) {
+                this.writeBehindCache.stageDeletion(identifier);
+                return CompletableFuture.completedFuture(null);
+            }
+            return this.orderedRemove(identifier);
+        });
+    }
+
+    /**
+     * Allows you to delete many json objects.
+     * If write-behind is enabled the deletions will be staged, otherwise they're carried out in one batch.
+     * The batch is ordered against saves and deletions of the same identifiers, so it replaces the ones made before it and is replaced by the ones made after it.
+     *
+     * @param identifiers ~ The identifiers of the json objects.
+     * @return When every json object has been deleted (or staged), or the failure that stopped it.
+     */
+    public CompletableFuture<Void> deleteAll(final Collection<String> identifiers) {
+        return this.metrics.track(DatapointOperation.DELETE_ALL, () -> {
+            this.forget(identifiers);
+            if (this.writeBehindCache != null) {
+                identifiers.forEach(this.writeBehindCache::stageDeletion);
+                return CompletableFuture.completedFuture(null);
+            }
+            if (identifiers.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return this.orderedBatch(identifiers, identifier -> true, true, this::removeMany, this::remove);
+        });
+    }
+
+    /**
+     * Allows you to save a json object.
+     * This is kept for compatibility, save is already asynchronous and handing it to another thread would only let saves overtake each other.
+     *
+     * @param jsonObject ~ The json object to save.
+     * @param identifier ~ The identifier of the json object.
+     * @return When the json object has been saved (or staged), or the failure that stopped it.
+     * @deprecated Use save instead.
+     */
+    @Deprecated
+    public CompletableFuture<Void> saveAsync(final JsonObject jsonObject, final String identifier) {
+        return this.save(jsonObject, identifier);
     }
 
     /**
      * Allows you to retrieve if a json object exists from an identifier.
+     * Without an expiry wheel (when the backend expires json objects natively), anything answered from memory is checked against its own expiry.
      *
      * @param identifier ~ The identifier of the json object.
      * @return If a json object exists from the identifier.
      */
-    public abstract CompletableFuture<Boolean> exists(final String identifier);
+    public CompletableFuture<Boolean> exists(final String identifier) {
+        return this.metrics.track(DatapointOperation.EXISTS, () -> {
+            final TimingWheel expiryWheel = this.expiryWheel;
+            if (expiryWheel != null && expiryWheel.isExpired(identifier, System.currentTimeMillis())) {
+                return CompletableFuture.completedFuture(false);
+            }
+            if (this.writeBehindCache != null && this.writeBehindCache.isDirty(identifier)) {
+                if (!this.expiring) {
+                    return CompletableFuture.completedFuture(!this.writeBehindCache.isDeleted(identifier));
+                }
+                return CompletableFuture.completedFuture(this.writeBehindCache.get(identifier)
+                        .filter(jsonObject -> !isExpired(jsonObject, System.currentTimeMillis()))
+                        .isPresent());
+            }
+            final ReadThroughCache readThroughCache = this.readThroughCache;
+            if (readThroughCache != null && this.expiring && expiryWheel == null) {
+                if (readThroughCache.get(identifier).filter(jsonObject -> !isExpired(jsonObject, System.currentTimeMillis())).isPresent()) {
+                    return CompletableFuture.completedFuture(true);
+                }
+            } else if (readThroughCache != null && readThroughCache.contains(identifier)) {
+                return CompletableFuture.completedFuture(true);
+            }
+            if (this.isDefinitelyMissing(identifier)) {
+                return CompletableFuture.completedFuture(false);
+            }
+            return this.contains(identifier);
+        });
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint.
+     * Writes go through the pipeline, so an older write can never land after a newer one.
+     */
+    private CompletableFuture<Void> orderedWrite(final JsonObject jsonObject, final String identifier) {
+        return this.pipeline.submit(identifier, () -> this.refilter(identifier, this.write(jsonObject, identifier)), true);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint.
+     * Deletions go through the pipeline, so a write made before the deletion can never land after it.
+     */
+    private CompletableFuture<Void> orderedRemove(final String identifier) {
+        return this.pipeline.submit(identifier, () -> this.remove(identifier), true);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the batch methods.
+     * Every identifier takes its turn in the pipeline, so the batch is ordered against the other writes of each identifier just like a single write.
+     * The identifiers whose turn comes straight away are carried out together, and any that had to wait are carried out on their own once their turn comes.
+     * Identifiers that no longer pass the filter once their turn comes are skipped.
+     */
+    private CompletableFuture<Void> orderedBatch(final Collection<String> identifiers, final Predicate<String> filter, final boolean replacing,
+                                                 final Function<List<String>, CompletableFuture<Void>> batchOperation,
+                                                 final Function<String, CompletableFuture<Void>> operation) {
+        final ArrayList<String> batch = new ArrayList<>();
+        final CompletableFuture<Void> batchFuture = new CompletableFuture<>();
+        final AtomicBoolean sealed = new AtomicBoolean();
+        final ArrayList<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (final String identifier : identifiers) {
+            futures.add(this.pipeline.submit(identifier, () -> {
+                if (!filter.test(identifier)) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                synchronized (batch) {
+                    if (!sealed.get()) {
+                        batch.add(identifier);
+                        return batchFuture;
+                    }
+                }
+                return operation.apply(identifier);
+            }, replacing));
+        }
+        synchronized (batch) {
+            sealed.set(true);
+        }
+        if (batch.isEmpty()) {
+            batchFuture.complete(null);
+        } else {
+            CompletableFuture<Void> batchOperationFuture;
+            try {
+                batchOperationFuture = batchOperation.apply(batch);
+            } catch (final RuntimeException runtimeException) {
+                batchOperationFuture = CompletableFuture.failedFuture(runtimeException);
+            }
+            batchOperationFuture.whenComplete((ignored, throwable) -> {
+                if (throwable != null) {
+                    batchFuture.completeExceptionally(throwable);
+                } else {
+                    batchFuture.complete(null);
+                }
+            });
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the delete methods.
+     */
+    private void forget(final Collection<String> identifiers) {
+        identifiers.forEach(this::cancelExpiry);
+        if (this.readThroughCache != null) {
+            identifiers.forEach(this.readThroughCache::invalidate);
+        }
+        this.indexes.values().forEach(index -> identifiers.forEach(index::remove));
+        this.listeners.forEach(listener -> identifiers.forEach(listener::onDelete));
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the update and increment methods.
+     * Modifications go through the pipeline without being replaceable, so every one of them is applied on top of the ones before it.
+     * With write-behind the modification is applied to the latest value and staged, otherwise the backend applies it.
+     */
+    private CompletableFuture<Void> modify(final String identifier, final JsonObject fields, final JsonObject increments) {
+        if (fields.size() == 0 && increments.size() == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        this.addToFilter(identifier);
+        this.listeners.forEach(listener -> listener.onUpdate(identifier, fields, increments));
+        if (this.writeBehindCache != null) {
+            return this.pipeline.submit(identifier, () -> this.get(identifier).thenAccept(optionalJsonObject -> {
+                final JsonObject jsonObject = optionalJsonObject.map(JsonObject::deepCopy).orElseGet(JsonObject::new);
+                applyPatch(jsonObject, fields, increments);
+                this.save(jsonObject, identifier);
+            }), false);
+        }
+        final ReadThroughCache readThroughCache = this.readThroughCache;
+        if (readThroughCache != null) {
+            readThroughCache.invalidate(identifier);
+        }
+        return this.pipeline.submit(identifier, () -> this.refilter(identifier, this.patch(identifier, fields, increments)), false).whenComplete((ignored, throwable) -> {
+            if (readThroughCache != null) {
+                readThroughCache.invalidate(identifier);
+            }
+        });
+    }
+
+    /**
+     * Allows you to apply a patch to a json object.
+     * Fields can be nested with dots, and any missing object along the way is created.
+     *
+     * @param jsonObject ~ The json object to patch.
+     * @param fields     ~ The fields to set.
+     * @param increments ~ The numeric fields to increment, mapped to their deltas.
+     * @throws IllegalStateException If a field passes through something that isn't an object, or an incremented field isn't a number.
+     */
+    protected static void applyPatch(final JsonObject jsonObject, final JsonObject fields, final JsonObject increments) {
+        for (final Map.Entry<String, JsonElement> entry : fields.entrySet()) {
+            final String[] path = entry.getKey().split("\\.");
+            resolveParent(jsonObject, entry.getKey(), path).add(path[path.length - 1], entry.getValue().deepCopy());
+        }
+        for (final Map.Entry<String, JsonElement> entry : increments.entrySet()) {
+            final String[] path = entry.getKey().split("\\.");
+            final JsonObject parent = resolveParent(jsonObject, entry.getKey(), path);
+            final JsonElement current = parent.get(path[path.length - 1]);
+            final String delta = entry.getValue().getAsString();
+            if (current == null || current.isJsonNull()) {
+                parent.add(path[path.length - 1], entry.getValue().deepCopy());
+                continue;
+            }
+            if (!current.isJsonPrimitive() || !current.getAsJsonPrimitive().isNumber()) {
+                throw new IllegalStateException("The field " + entry.getKey() + " can't be incremented, since it isn't a number.");
+            }
+            final String value = current.getAsString();
+            if (isIntegral(value) && isIntegral(delta)) {
+                parent.addProperty(path[path.length - 1], Math.addExact(Long.parseLong(value), Long.parseLong(delta)));
+            } else {
+                parent.addProperty(path[path.length - 1], Double.parseDouble(value) + Double.parseDouble(delta));
+            }
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the applyPatch method.
+     */
+    private static JsonObject resolveParent(final JsonObject jsonObject, final String field, final String[] path) {
+        JsonObject parent = jsonObject;
+        for (int index = 0; index < path.length - 1; index++) {
+            final JsonElement child = parent.get(path[index]);
+            if (child == null || child.isJsonNull()) {
+                final JsonObject created = new JsonObject();
+                parent.add(path[index], created);
+                parent = created;
+            } else if (child.isJsonObject()) {
+                parent = child.getAsJsonObject();
+            } else {
+                throw new IllegalStateException("The field " + field + " can't be reached, since " + path[index] + " isn't an object.");
+            }
+        }
+        return parent;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the applyPatch method.
+     */
+    private static boolean isIntegral(final String number) {
+        if (number.indexOf('.') >= 0 || number.indexOf('e') >= 0 || number.indexOf('E') >= 0) {
+            return false;
+        }
+        try {
+            Long.parseLong(number);
+            return true;
+        } catch (final NumberFormatException numberFormatException) {
+            return false;
+        }
+    }
+
+    /**
+     * Allows the datapoint to read all the json objects from its backend.
+     *
+     * @return All the json objects.
+     */
+    protected abstract CompletableFuture<ArrayList<JsonObject>> readAll();
+
+    /**
+     * Allows the datapoint to count all the json objects in its backend.
+     *
+     * @return The total number of json objects.
+     */
+    protected abstract CompletableFuture<Long> count();
+
+    /**
+     * Allows the datapoint to read a json object from its backend.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return The json object.
+     */
+    protected abstract CompletableFuture<Optional<JsonObject>> read(final String identifier);
+
+    /**
+     * Allows the datapoint to write a json object to its backend.
+     *
+     * @param jsonObject ~ The json object to write.
+     * @param identifier ~ The identifier of the json object.
+     * @return When the json object has been written.
+     */
+    protected abstract CompletableFuture<Void> write(final JsonObject jsonObject, final String identifier);
+
+    /**
+     * Allows the datapoint to check if its backend contains a json object from an identifier.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return If the backend contains a json object from the identifier.
+     */
+    protected abstract CompletableFuture<Boolean> contains(final String identifier);
+
+    /**
+     * Allows the datapoint to walk the identifiers in its backend.
+     * If the iterator holds anything in the backend, it should implement AutoCloseable.
+     *
+     * @return An iterator over the identifiers.
+     */
+    protected abstract Iterator<String> keys();
+
+    /**
+     * Allows the datapoint to stream the json objects in its backend.
+     * Backends that can do this natively should override it, by default the identifiers are walked and read in batches.
+     *
+     * @param batchSize ~ The amount of json objects loaded at a time.
+     * @return A cursor over all the json objects.
+     */
+    protected DatapointCursor iterate(final int batchSize) {
+        return new KeyedDatapointCursor(this.keys(), this::readMany, batchSize);
+    }
+
+    /**
+     * Allows the datapoint to read a json object from its backend with only some of its fields.
+     * Backends that can skip fields natively should override it, by default the whole json object is read and projected.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @param projection ~ The fields to keep.
+     * @return The json object with only the kept fields.
+     */
+    protected CompletableFuture<Optional<JsonObject>> readProjected(final String identifier, final Projection projection) {
+        return this.read(identifier).thenApply(optionalJsonObject -> optionalJsonObject.map(projection::apply));
+    }
+
+    /**
+     * Allows the datapoint to stream the json objects in its backend with only some of their fields.
+     * Backends that can skip fields natively should override it, by default every json object is streamed whole and projected.
+     *
+     * @param batchSize  ~ The amount of json objects loaded at a time.
+     * @param projection ~ The fields to keep.
+     * @return A cursor over all the json objects with only the kept fields.
+     */
+    protected DatapointCursor iterateProjected(final int batchSize, final Projection projection) {
+        return new KeyedDatapointCursor(this.keys(), identifiers -> this.readMany(identifiers).thenApply(jsonObjects -> {
+            jsonObjects.replaceAll((identifier, optionalJsonObject) -> optionalJsonObject.map(projection::apply));
+            return jsonObjects;
+        }), batchSize);
+    }
+
+    /**
+     * Allows the datapoint to stream the json objects in its backend that have a numeric field, sorted by it with the highest first.
+     * Backends that can sort natively should override it, by default this isn't supported.
+     *
+     * @param field     ~ The numeric field.
+     * @param batchSize ~ The amount of json objects loaded at a time.
+     * @return A cursor over the sorted json objects if the backend can sort.
+     */
+    protected Optional<DatapointCursor> iterateSorted(final String field, final int batchSize) {
+        return Optional.empty();
+    }
+
+    /**
+     * Allows the datapoint to delete a json object from its backend.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @return When the json object has been deleted.
+     */
+    protected abstract CompletableFuture<Void> remove(final String identifier);
+
+    /**
+     * Allows the datapoint to patch a json object in its backend.
+     * Backends that can do this natively should override it, by default the json object is read, patched and written back.
+     * This is only called through the datapoint's pipeline, so nothing else writes the json object while it's being patched.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @param fields     ~ The fields to set.
+     * @param increments ~ The numeric fields to increment, mapped to their deltas.
+     * @return When the json object has been patched.
+     */
+    protected CompletableFuture<Void> patch(final String identifier, final JsonObject fields, final JsonObject increments) {
+        return this.read(identifier).thenCompose(optionalJsonObject -> {
+            final JsonObject jsonObject = optionalJsonObject.orElseGet(JsonObject::new);
+            applyPatch(jsonObject, fields, increments);
+            this.reindex(identifier, jsonObject);
+            return this.write(jsonObject, identifier);
+        });
+    }
+
+    /**
+     * Allows the datapoint to update its in-memory indexes with a json object.
+     * Backends that override patch without indexes of their own should call this with the patched json object.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @param jsonObject ~ The json object.
+     */
+    protected void reindex(final String identifier, final JsonObject jsonObject) {
+        this.indexes.values().forEach(index -> index.put(identifier, jsonObject));
+    }
+
+    /**
+     * Allows the datapoint to build its in-memory indexes.
+     * Backends without indexes of their own should call this once they're registered, every json object is walked once to fill the indexes.
+     */
+    protected void buildIndexes() {
+        final HashMap<String, FieldIndex> indexes = new HashMap<>();
+        this.indexedFields.forEach(field -> indexes.put(field, new FieldIndex(field)));
+        final TimingWheel expiryWheel = this.expiryWheel;
+        if (!indexes.isEmpty() || expiryWheel != null) {
+            try (final DatapointCursor cursor = this.iterate(500)) {
+                while (cursor.hasNext()) {
+                    final JsonObject jsonObject = cursor.next();
+                    final String identifier = cursor.getIdentifier();
+                    indexes.values().forEach(index -> index.put(identifier, jsonObject));
+                    if (expiryWheel != null) {
+                        getExpiry(jsonObject).ifPresent(deadline -> expiryWheel.schedule(identifier, deadline));
+                    }
+                }
+            }
+        }
+        this.indexes = indexes;
+    }
+
+    /**
+     * Allows the datapoint to check if its backend expires json objects natively.
+     * Backends that can should override it, by default expired json objects are purged by the datapoint.
+     *
+     * @return If the backend expires json objects natively.
+     */
+    protected boolean hasNativeExpiry() {
+        return false;
+    }
+
+    /**
+     * Allows the datapoint to check if its backend is shared.
+     * Backends that other servers can write to should override it, by default the datapoint is the only writer of its backend.
+     *
+     * @return If the backend is shared.
+     */
+    protected boolean isShared() {
+        return false;
+    }
+
+    /**
+     * Allows the datapoint to build its bloom filter.
+     * Backends that replace their json objects wholesale should call this afterwards, it does nothing if the filter isn't enabled.
+     * Anything staged is added without waiting for it to be written, and saves made while the filter is being built are added to it as well.
+     */
+    protected void buildFilter() {
+        final BloomFilter builtFilter;
+        synchronized (this.filterLock) {
+            if (!this.filterEnabled) {
+                return;
+            }
+            builtFilter = new BloomFilter(this.filterExpectedInsertions, this.filterFalsePositiveRate);
+            this.buildingFilter = builtFilter;
+        }
+        final WriteBehindCache writeBehindCache = this.writeBehindCache;
+        if (writeBehindCache != null) {
+            writeBehindCache.getDirtyIdentifiers().forEach(builtFilter::put);
+        }
+        final Iterator<String> identifiers = this.keys();
+        try {
+            identifiers.forEachRemaining(builtFilter::put);
+        } finally {
+            if (identifiers instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) identifiers).close();
+                } catch (final Exception ignored) {
+                }
+            }
+        }
+        synchronized (this.filterLock) {
+            if (this.buildingFilter == builtFilter) {
+                this.filter = builtFilter;
+                this.buildingFilter = null;
+            }
+        }
+    }
+
+    /**
+     * Allows the datapoint to add an identifier to its bloom filter.
+     * Backends that learn of identifiers outside of saves (like files created by something else) should call this.
+     *
+     * @param identifier ~ The identifier.
+     */
+    protected void addToFilter(final String identifier) {
+        final BloomFilter buildingFilter = this.buildingFilter;
+        if (buildingFilter != null) {
+            buildingFilter.put(identifier);
+        }
+        final BloomFilter filter = this.filter;
+        if (filter != null) {
+            filter.put(identifier);
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the write methods.
+     * The identifier is added to the filter again once the write lands, so a filter that was being built in the meantime can't miss it.
+     */
+    private CompletableFuture<Void> refilter(final String identifier, final CompletableFuture<Void> write) {
+        if (!this.filterEnabled) {
+            return write;
+        }
+        return write.thenRun(() -> this.addToFilter(identifier));
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the save methods.
+     * A json object saved without an expiry cancels whatever expiry its identifier had.
+     */
+    private void scheduleExpiry(final String identifier, final JsonObject jsonObject) {
+        final TimingWheel expiryWheel = this.expiryWheel;
+        if (expiryWheel == null) {
+            return;
+        }
+        final Optional<Long> optionalExpiry = getExpiry(jsonObject);
+        if (optionalExpiry.isPresent()) {
+            expiryWheel.schedule(identifier, optionalExpiry.get());
+        } else {
+            expiryWheel.cancel(identifier);
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the delete methods.
+     */
+    private void cancelExpiry(final String identifier) {
+        final TimingWheel expiryWheel = this.expiryWheel;
+        if (expiryWheel != null) {
+            expiryWheel.cancel(identifier);
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the read methods.
+     */
+    private static boolean isExpired(final JsonObject jsonObject, final long now) {
+        return getExpiry(jsonObject).map(deadline -> deadline <= now).orElse(false);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the read methods.
+     * An identifier the wheel knows has expired is answered without a read, and anything read is checked against its own expiry.
+     */
+    private CompletableFuture<Optional<JsonObject>> unexpired(final String identifier, final Supplier<CompletableFuture<Optional<JsonObject>>> read) {
+        if (!this.expiring) {
+            return read.get();
+        }
+        final TimingWheel expiryWheel = this.expiryWheel;
+        if (expiryWheel != null && expiryWheel.isExpired(identifier, System.currentTimeMillis())) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return read.get().thenApply(optionalJsonObject -> optionalJsonObject.filter(jsonObject -> !isExpired(jsonObject, System.currentTimeMillis())));
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the read methods.
+     */
+    private ArrayList<JsonObject> removeExpired(final ArrayList<JsonObject> jsonObjects) {
+        if (this.expiring) {
+            final long now = System.currentTimeMillis();
+            jsonObjects.removeIf(jsonObject -> isExpired(jsonObject, now));
+        }
+        return jsonObjects;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the stream methods.
+     * Expired json objects are skipped, and the expiry is taken back out of them if it was only fetched to check it.
+     */
+    private DatapointCursor unexpired(final DatapointCursor cursor, final boolean strippingExpiry) {
+        if (!this.expiring) {
+            return cursor;
+        }
+        return new DatapointCursor() {
+
+            private JsonObject nextJsonObject;
+            private String nextIdentifier;
+            private String identifier;
+
+            @Override
+            public boolean hasNext() {
+                while (this.nextJsonObject == null && cursor.hasNext()) {
+                    final JsonObject jsonObject = cursor.next();
+                    if (isExpired(jsonObject, System.currentTimeMillis())) {
+                        continue;
+                    }
+                    if (strippingExpiry) {
+                        jsonObject.remove(EXPIRY_FIELD);
+                    }
+                    this.nextJsonObject = jsonObject;
+                    this.nextIdentifier = cursor.getIdentifier();
+                }
+                return this.nextJsonObject != null;
+            }
+
+            @Override
+            public JsonObject next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final JsonObject jsonObject = this.nextJsonObject;
+                this.identifier = this.nextIdentifier;
+                this.nextJsonObject = null;
+                return jsonObject;
+            }
+
+            @Override
+            public String getIdentifier() {
+                return this.identifier;
+            }
+
+            @Override
+            public void close() {
+                cursor.close();
+            }
+        };
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the projected read methods.
+     */
+    private String[] withExpiry(final String[] fields) {
+        final String[] expiringFields = Arrays.copyOf(fields, fields.length + 1);
+        expiringFields[fields.length] = EXPIRY_FIELD;
+        return expiringFields;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint's purge timer.
+     * The wheel is advanced to now, and whatever expired is deleted in batches.
+     */
+    private void purge() {
+        final TimingWheel expiryWheel = this.expiryWheel;
+        if (expiryWheel == null) {
+            return;
+        }
+        final ArrayList<String> expired = expiryWheel.advance(System.currentTimeMillis());
+        for (int from = 0; from < expired.size(); from += PURGE_BATCH_SIZE) {
+            this.purge(expiryWheel, expired.subList(from, Math.min(expired.size(), from + PURGE_BATCH_SIZE)));
+        }
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint's purge timer.
+     * Every identifier takes its turn in the pipeline and checks it's still expired, so a save made in the meantime is never purged.
+     * The purge never replaces anything waiting in the pipeline, since whatever is waiting was made after the identifier expired.
+     */
+    private void purge(final TimingWheel expiryWheel, final List<String> identifiers) {
+        this.orderedBatch(identifiers, identifier -> expiryWheel.isExpired(identifier, System.currentTimeMillis()), false,
+                batch -> this.expire(expiryWheel, batch), identifier -> this.expire(expiryWheel, List.of(identifier)));
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the datapoint's purge timer.
+     * This already runs in the identifiers' turn in the pipeline, so the deletion goes straight to the backend (or the write-behind cache).
+     * If the deletion fails the identifiers are scheduled again, so they're retried on the next purge.
+     */
+    private CompletableFuture<Void> expire(final TimingWheel expiryWheel, final List<String> identifiers) {
+        this.forget(identifiers);
+        final CompletableFuture<Void> deletion;
+        if (this.writeBehindCache != null) {
+            identifiers.forEach(this.writeBehindCache::stageDeletion);
+            deletion = CompletableFuture.completedFuture(null);
+        } else {
+            deletion = this.removeMany(identifiers);
+        }
+        return deletion.whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                final long now = System.currentTimeMillis();
+                identifiers.forEach(identifier -> expiryWheel.schedule(identifier, now));
+            }
+        });
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the read methods.
+     */
+    private boolean isDefinitelyMissing(final String identifier) {
+        final BloomFilter filter = this.filter;
+        return filter != null && !filter.mightContain(identifier);
+    }
+
+    /**
+     * Allows the datapoint to find the json objects in its backend whose field equals a value.
+     * Backends that can do this natively should override it, by default the in-memory index is used, or every json object is walked if the field isn't indexed.
+     *
+     * @param field ~ The field.
+     * @param value ~ The value.
+     * @return The json objects whose field equals the value.
+     */
+    protected CompletableFuture<ArrayList<JsonObject>> query(final String field, final JsonPrimitive value) {
+        final FieldIndex index = this.indexes.get(field);
+        if (index == null) {
+            return this.scan(jsonObject -> FieldIndex.matches(jsonObject, field, value));
+        }
+        return this.getMany(index.find(value)).thenApply(jsonObjects -> jsonObjects.values().stream()
+                .flatMap(Optional::stream)
+                .filter(jsonObject -> FieldIndex.matches(jsonObject, field, value))
+                .collect(Collectors.toCollection(ArrayList::new)));
+    }
+
+    /**
+     * Allows the datapoint to find the json objects in its backend whose field is a number within a range.
+     * Backends that can do this natively should override it, by default the in-memory index is used, or every json object is walked if the field isn't indexed.
+     *
+     * @param field   ~ The field.
+     * @param minimum ~ The minimum value (inclusive).
+     * @param maximum ~ The maximum value (inclusive).
+     * @return The json objects whose field is within the range.
+     */
+    protected CompletableFuture<ArrayList<JsonObject>> queryRange(final String field, final double minimum, final double maximum) {
+        final FieldIndex index = this.indexes.get(field);
+        if (index == null) {
+            return this.scan(jsonObject -> FieldIndex.matchesRange(jsonObject, field, minimum, maximum));
+        }
+        return this.getMany(index.findRange(minimum, maximum)).thenApply(jsonObjects -> jsonObjects.values().stream()
+                .flatMap(Optional::stream)
+                .filter(jsonObject -> FieldIndex.matchesRange(jsonObject, field, minimum, maximum))
+                .collect(Collectors.toCollection(ArrayList::new)));
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the query methods.
+     */
+    private CompletableFuture<ArrayList<JsonObject>> scan(final Predicate<JsonObject> predicate) {
+        final ArrayList<JsonObject> jsonObjects = new ArrayList<>();
+        return this.walk(() -> this.iterate(500), (identifier, jsonObject) -> {
+            if (predicate.test(jsonObject)) {
+                jsonObjects.add(jsonObject);
+            }
+        }).thenApply(ignored -> jsonObjects);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the read methods.
+     * The cursor is opened on the datasite's executor, and cursors that load batches from the executor are walked without blocking, since waiting on them there could hold every thread the loads need.
+     * Other cursors only block on their backend's own I/O, so they're walked in place.
+     */
+    private CompletableFuture<Void> walk(final Supplier<DatapointCursor> opener, final BiConsumer<String, JsonObject> consumer) {
+        return CompletableFuture.supplyAsync(opener, this.site.getExecutor()).thenCompose(cursor -> {
+            if (cursor instanceof KeyedDatapointCursor) {
+                return ((KeyedDatapointCursor) cursor).forEachAsync(consumer).whenComplete((ignored, throwable) -> cursor.close());
+            }
+            try (cursor) {
+                while (cursor.hasNext()) {
+                    final JsonObject jsonObject = cursor.next();
+                    consumer.accept(cursor.getIdentifier(), jsonObject);
+                }
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    /**
+     * Allows the datapoint to read many json objects from its backend.
+     * Backends that can do this natively should override it, by default every json object is read on its own.
+     *
+     * @param identifiers ~ The identifiers of the json objects.
+     * @return The json objects that were found, mapped by their identifiers.
+     */
+    protected CompletableFuture<HashMap<String, Optional<JsonObject>>> readMany(final Collection<String> identifiers) {
+        final HashMap<String, CompletableFuture<Optional<JsonObject>>> reads = new HashMap<>();
+        identifiers.forEach(identifier -> reads.put(identifier, this.read(identifier)));
+        return CompletableFuture.allOf(reads.values().toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            final HashMap<String, Optional<JsonObject>> jsonObjects = new HashMap<>();
+            reads.forEach((identifier, read) -> jsonObjects.put(identifier, read.join()));
+            return jsonObjects;
+        });
+    }
+
+    /**
+     * Allows the datapoint to write many json objects to its backend.
+     * Backends that can do this natively should override it, by default every json object is written on its own.
+     *
+     * @param jsonObjects ~ The json objects to write, mapped by their identifiers.
+     * @return When every json object has been written.
+     */
+    protected CompletableFuture<Void> writeMany(final HashMap<String, JsonObject> jsonObjects) {
+        return CompletableFuture.allOf(jsonObjects.entrySet().stream()
+                .map(entry -> this.write(entry.getValue(), entry.getKey()))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Allows the datapoint to delete many json objects from its backend.
+     * Backends that can do this natively should override it, by default every json object is deleted on its own.
+     *
+     * @param identifiers ~ The identifiers of the json objects.
+     * @return When every json object has been deleted.
+     */
+    protected CompletableFuture<Void> removeMany(final Collection<String> identifiers) {
+        return CompletableFuture.allOf(identifiers.stream()
+                .map(this::remove)
+                .toArray(CompletableFuture[]::new));
+    }
 
 }
@@ -0,0 +1,22 @@
+package net.evilkingdom.commons.data.objects;
+
+import com.google.gson.JsonObject;
+
+import java.util.Iterator;
+
+public interface DatapointCursor extends Iterator<JsonObject>, AutoCloseable {
+
+    /**
+     * Allows you to retrieve the identifier of the json object that was last returned.
+     *
+     * @return The identifier of the json object that was last returned.
+     */
+    String getIdentifier();
+
+    /**
+     * Allows you to close the cursor.
+     * This releases anything the cursor holds in the backend, and should always be done once you're finished with it.
+     */
+    @Override
+    void close();
+}
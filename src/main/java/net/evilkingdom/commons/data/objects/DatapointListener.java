@@ -0,0 +1,30 @@
+package net.evilkingdom.commons.data.objects;
+
+import com.google.gson.JsonObject;
+
+public interface DatapointListener {
+
+    /**
+     * Called when a json object is saved.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @param jsonObject ~ The json object.
+     */
+    void onSave(final String identifier, final JsonObject jsonObject);
+
+    /**
+     * Called when a json object is patched through update or increment.
+     *
+     * @param identifier ~ The identifier of the json object.
+     * @param fields     ~ The fields that were set.
+     * @param increments ~ The numeric fields that were incremented, mapped to their deltas.
+     */
+    void onUpdate(final String identifier, final JsonObject fields, final JsonObject increments);
+
+    /**
+     * Called when a json object is deleted.
+     *
+     * @param identifier ~ The identifier of the json object.
+     */
+    void onDelete(final String identifier);
+}
@@ -1,16 +1,27 @@
 package net.evilkingdom.commons.data.objects;
 
+import net.evilkingdom.commons.data.executor.DatasiteExecutor;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public abstract class Datasite {
 
+    /**
+     * The maximum time (in milliseconds) a terminating datasite waits for its executor's queued tasks.
+     */
+    protected static final long TERMINATION_TIMEOUT = 30000L;
+
     protected final JavaPlugin plugin;
 
     protected final String name;
     protected final String[] parameters;
-    protected final ArrayList<Datapoint> points;
+    protected final List<Datapoint> points;
+    protected DatasiteExecutor executor;
 
     /**
      * Allows you to create a datasite for a plugin.
@@ -23,7 +34,8 @@ public abstract class Datasite {
         this.plugin = plugin;
         this.name = name;
         this.parameters = new String[]{};
-        this.points = new ArrayList<>();
+        this.points = new CopyOnWriteArrayList<>();
+        this.executor = new DatasiteExecutor("Datasite-" + name);
     }
 
     /**
@@ -38,7 +50,8 @@ public abstract class Datasite {
         this.plugin = plugin;
         this.name = name;
         this.parameters = parameters;
-        this.points = new ArrayList<>();
+        this.points = new CopyOnWriteArrayList<>();
+        this.executor = new DatasiteExecutor("Datasite-" + name);
     }
 
     /**
@@ -51,6 +64,59 @@ public abstract class Datasite {
      */
     public abstract void terminate();
 
+    /**
+     * Allows you to initialize the datasite without blocking.
+     * The datasite is initialized on its executor, so connecting to a remote backend never holds up the main thread.
+     *
+     * @return When the datasite has been initialized, or the failure that stopped it.
+     */
+    public CompletableFuture<Void> initializeAsync() {
+        return CompletableFuture.runAsync(this::initialize, this.executor);
+    }
+
+    /**
+     * Allows you to register many datapoints at once.
+     * The datapoints are registered in parallel on the datasite's executor, so startup doesn't grow with the amount of datapoints.
+     * At most half of the executor's threads register at once, since registering can wait on reads that need a thread of their own.
+     *
+     * @param datapoints ~ The datapoints to register.
+     * @return When every datapoint has been registered, or the first failure that stopped one.
+     */
+    public CompletableFuture<Void> registerAll(final Collection<? extends Datapoint> datapoints) {
+        final ArrayList<Datapoint> pendingPoints = new ArrayList<>(datapoints);
+        final int lanes = Math.max(1, Math.min(pendingPoints.size(), this.executor.getThreads() / 2));
+        final ArrayList<CompletableFuture<Void>> registrations = new ArrayList<>();
+        for (int lane = 0; lane < lanes; lane++) {
+            final int firstIndex = lane;
+            registrations.add(CompletableFuture.runAsync(() -> {
+                for (int index = firstIndex; index < pendingPoints.size(); index += lanes) {
+                    pendingPoints.get(index).register();
+                }
+            }, this.executor));
+        }
+        return CompletableFuture.allOf(registrations.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Allows you to set the datasite's executor.
+     * This should be done before the datasite is initialized, the default executor is shut down and replaced.
+     *
+     * @param executor ~ The executor every blocking call of the datasite will run on.
+     */
+    public void setExecutor(final DatasiteExecutor executor) {
+        this.executor.shutdown(0L);
+        this.executor = executor;
+    }
+
+    /**
+     * Allows you to retrieve the datasite's executor.
+     *
+     * @return The datasite's executor.
+     */
+    public DatasiteExecutor getExecutor() {
+        return this.executor;
+    }
+
     /**
      * Allows you to retrieve the datasite's name.
      *
@@ -71,10 +137,11 @@ public abstract class Datasite {
 
     /**
      * Allows you to retrieve the datasite's points.
+     * The list is safe to iterate while datapoints are being registered.
      *
      * @return The datasite's points.
      */
-    public ArrayList<Datapoint> getPoints() {
+    public List<Datapoint> getPoints() {
         return this.points;
     }
 
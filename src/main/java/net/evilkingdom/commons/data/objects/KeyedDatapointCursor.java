@@ -0,0 +1,122 @@
+package net.evilkingdom.commons.data.objects;
+
+import com.google.gson.JsonObject;
+
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+public class KeyedDatapointCursor implements DatapointCursor {
+
+    private final Iterator<String> identifiers;
+    private final Function<Collection<String>, CompletableFuture<HashMap<String, Optional<JsonObject>>>> loader;
+    private final int batchSize;
+    private final ArrayDeque<Map.Entry<String, JsonObject>> buffer;
+    private String identifier;
+
+    /**
+     * Allows you to create a cursor that walks a datapoint's identifiers.
+     * The json objects are loaded a batch at a time, so at most one batch is held in memory.
+     *
+     * @param identifiers ~ The identifiers to walk.
+     * @param loader      ~ The loader that reads a batch of json objects from their identifiers.
+     * @param batchSize   ~ The amount of json objects loaded at a time.
+     */
+    public KeyedDatapointCursor(final Iterator<String> identifiers,
+                                final Function<Collection<String>, CompletableFuture<HashMap<String, Optional<JsonObject>>>> loader,
+                                final int batchSize) {
+        this.identifiers = identifiers;
+        this.loader = loader;
+        this.batchSize = Math.max(1, batchSize);
+        this.buffer = new ArrayDeque<>();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (this.buffer.isEmpty() && this.identifiers.hasNext()) {
+            final ArrayList<String> batch = new ArrayList<>(this.batchSize);
+            while (batch.size() < this.batchSize && this.identifiers.hasNext()) {
+                batch.add(this.identifiers.next());
+            }
+            final HashMap<String, Optional<JsonObject>> jsonObjects = this.loader.apply(batch).join();
+            for (final String batchIdentifier : batch) {
+                jsonObjects.getOrDefault(batchIdentifier, Optional.empty())
+                        .ifPresent(jsonObject -> this.buffer.add(new AbstractMap.SimpleEntry<>(batchIdentifier, jsonObject)));
+            }
+        }
+        return !this.buffer.isEmpty();
+    }
+
+    /**
+     * Allows you to walk the rest of the cursor without blocking.
+     * Each batch is handed over once its load completes, so no thread ever waits on a load, and loads that complete straight away are handled in a loop.
+     *
+     * @param consumer ~ The consumer of every identifier and its json object.
+     * @return When every json object has been handed over, or the failure that stopped it.
+     */
+    public CompletableFuture<Void> forEachAsync(final BiConsumer<String, JsonObject> consumer) {
+        Map.Entry<String, JsonObject> entry;
+        while ((entry = this.buffer.poll()) != null) {
+            consumer.accept(entry.getKey(), entry.getValue());
+        }
+        while (this.identifiers.hasNext()) {
+            final ArrayList<String> batch = new ArrayList<>(this.batchSize);
+            while (batch.size() < this.batchSize && this.identifiers.hasNext()) {
+                batch.add(this.identifiers.next());
+            }
+            final CompletableFuture<HashMap<String, Optional<JsonObject>>> load = this.loader.apply(batch);
+            if (!load.isDone() || load.isCompletedExceptionally()) {
+                return load.thenCompose(jsonObjects -> {
+                    this.accept(batch, jsonObjects, consumer);
+                    return this.forEachAsync(consumer);
+                });
+            }
+            this.accept(batch, load.join(), consumer);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public JsonObject next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final Map.Entry<String, JsonObject> entry = this.buffer.poll();
+        this.identifier = entry.getKey();
+        return entry.getValue();
+    }
+
+    @Override
+    public String getIdentifier() {
+        return this.identifier;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the forEachAsync method.
+     */
+    private void accept(final ArrayList<String> batch, final HashMap<String, Optional<JsonObject>> jsonObjects, final BiConsumer<String, JsonObject> consumer) {
+        for (final String batchIdentifier : batch) {
+            jsonObjects.getOrDefault(batchIdentifier, Optional.empty()).ifPresent(jsonObject -> consumer.accept(batchIdentifier, jsonObject));
+        }
+    }
+
+    @Override
+    public void close() {
+        this.buffer.clear();
+        if (this.identifiers instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) this.identifiers).close();
+            } catch (final Exception ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package net.evilkingdom.commons.data.objects;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+public class Projection {
+
+    private final ArrayList<String> fields;
+    private final HashMap<String, Projection> children;
+
+    /**
+     * Allows you to create a projection.
+     * Fields can be nested with dots, and a field that's already covered by one of its parents (like "stats.kills" next to "stats") is dropped.
+     *
+     * @param fields ~ The fields to keep.
+     */
+    public Projection(final String... fields) {
+        this.fields = new ArrayList<>();
+        this.children = new HashMap<>();
+        for (final String field : fields) {
+            this.add(field.split("\\."), 0);
+        }
+        this.collect("", this.fields);
+    }
+
+    /**
+     * Ignore this constructor, it's just an inner-working of the projection.
+     */
+    private Projection() {
+        this.fields = new ArrayList<>();
+        this.children = new HashMap<>();
+    }
+
+    /**
+     * Allows you to retrieve the projection's fields.
+     *
+     * @return The projection's fields, with dots between nested names.
+     */
+    public ArrayList<String> getFields() {
+        return this.fields;
+    }
+
+    /**
+     * Allows you to retrieve if a field is kept whole.
+     *
+     * @param name ~ The name of the field.
+     * @return If the field is kept along with everything in it.
+     */
+    public boolean includes(final String name) {
+        return this.children.containsKey(name) && this.children.get(name) == null;
+    }
+
+    /**
+     * Allows you to retrieve the projection of an object field that's only partly kept.
+     *
+     * @param name ~ The name of the field.
+     * @return The projection of the field if only some of its fields are kept.
+     */
+    public Optional<Projection> getChild(final String name) {
+        return Optional.ofNullable(this.children.get(name));
+    }
+
+    /**
+     * Allows you to apply the projection to a json object.
+     * Only the kept fields are copied, so the json object itself is never changed.
+     *
+     * @param jsonObject ~ The json object.
+     * @return A json object with only the kept fields.
+     */
+    public JsonObject apply(final JsonObject jsonObject) {
+        final JsonObject projectedJsonObject = new JsonObject();
+        for (final Map.Entry<String, Projection> entry : this.children.entrySet()) {
+            final JsonElement jsonElement = jsonObject.get(entry.getKey());
+            if (jsonElement == null) {
+                continue;
+            }
+            if (entry.getValue() == null) {
+                projectedJsonObject.add(entry.getKey(), jsonElement.deepCopy());
+            } else if (jsonElement.isJsonObject()) {
+                projectedJsonObject.add(entry.getKey(), entry.getValue().apply(jsonElement.getAsJsonObject()));
+            }
+        }
+        return projectedJsonObject;
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the constructor.
+     */
+    private void add(final String[] path, final int index) {
+        final String name = path[index];
+        if (this.includes(name)) {
+            return;
+        }
+        if (index == path.length - 1) {
+            this.children.put(name, null);
+            return;
+        }
+        this.children.computeIfAbsent(name, ignored -> new Projection()).add(path, index + 1);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the constructor.
+     */
+    private void collect(final String prefix, final ArrayList<String> fields) {
+        this.children.forEach((name, child) -> {
+            if (child == null) {
+                fields.add(prefix + name);
+            } else {
+                child.collect(prefix + name + ".", fields);
+            }
+        });
+    }
+}
@@ -0,0 +1,200 @@
+package net.evilkingdom.commons.data.objects;
+
+import com.google.gson.JsonObject;
+import net.evilkingdom.commons.data.codec.DatapointCodec;
+import net.evilkingdom.commons.data.codec.GsonCodec;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public class TypedDatapoint<T> {
+
+    private final Datapoint datapoint;
+    private final DatapointCodec<T> codec;
+
+    /**
+     * Allows you to create a typed view of a datapoint.
+     * Values are encoded and decoded by the codec, while everything else (caching, write-behind, indexes, expiry) is left to the datapoint, so its json object methods can still be used alongside.
+     *
+     * @param datapoint ~ The datapoint.
+     * @param codec     ~ The codec that turns values into json objects and back.
+     */
+    public TypedDatapoint(final Datapoint datapoint, final DatapointCodec<T> codec) {
+        this.datapoint = datapoint;
+        this.codec = codec;
+    }
+
+    /**
+     * Allows you to create a typed view of a datapoint.
+     * Values are encoded and decoded by the class's cached gson codec.
+     *
+     * @param datapoint ~ The datapoint.
+     * @param clazz     ~ The class of the values.
+     */
+    public TypedDatapoint(final Datapoint datapoint, final Class<T> clazz) {
+        this(datapoint, GsonCodec.of(clazz));
+    }
+
+    /**
+     * Allows you to retrieve the typed datapoint's datapoint.
+     *
+     * @return The typed datapoint's datapoint.
+     */
+    public Datapoint getDatapoint() {
+        return this.datapoint;
+    }
+
+    /**
+     * Allows you to retrieve the typed datapoint's codec.
+     *
+     * @return The typed datapoint's codec.
+     */
+    public DatapointCodec<T> getCodec() {
+        return this.codec;
+    }
+
+    /**
+     * Allows you to retrieve a value from an identifier.
+     *
+     * @param identifier ~ The identifier of the value.
+     * @return The value.
+     */
+    public CompletableFuture<Optional<T>> get(final String identifier) {
+        return this.datapoint.get(identifier).thenApply(optionalJsonObject -> optionalJsonObject.map(this.codec::decode));
+    }
+
+    /**
+     * Allows you to retrieve many values from their identifiers.
+     *
+     * @param identifiers ~ The identifiers of the values.
+     * @return The values, mapped by their identifiers.
+     */
+    public CompletableFuture<HashMap<String, Optional<T>>> getMany(final Collection<String> identifiers) {
+        return this.datapoint.getMany(identifiers).thenApply(jsonObjects -> {
+            final HashMap<String, Optional<T>> values = new HashMap<>();
+            jsonObjects.forEach((identifier, optionalJsonObject) -> values.put(identifier, optionalJsonObject.map(this.codec::decode)));
+            return values;
+        });
+    }
+
+    /**
+     * Allows you to retrieve all the values.
+     *
+     * @return All the values.
+     */
+    public CompletableFuture<ArrayList<T>> getAll() {
+        return this.datapoint.getAll().thenApply(this::decodeAll);
+    }
+
+    /**
+     * Allows you to find the values whose field equals a string.
+     *
+     * @param field ~ The field, which can be nested with dots (like "gang.name").
+     * @param value ~ The string.
+     * @return The values whose field equals the string.
+     */
+    public CompletableFuture<ArrayList<T>> find(final String field, final String value) {
+        return this.datapoint.find(field, value).thenApply(this::decodeAll);
+    }
+
+    /**
+     * Allows you to find the values whose field equals a number.
+     *
+     * @param field ~ The field, which can be nested with dots (like "gang.name").
+     * @param value ~ The number.
+     * @return The values whose field equals the number.
+     */
+    public CompletableFuture<ArrayList<T>> find(final String field, final Number value) {
+        return this.datapoint.find(field, value).thenApply(this::decodeAll);
+    }
+
+    /**
+     * Allows you to find the values whose field is a number within a range.
+     *
+     * @param field   ~ The field, which can be nested with dots (like "stats.kills").
+     * @param minimum ~ The minimum value (inclusive).
+     * @param maximum ~ The maximum value (inclusive).
+     * @return The values whose field is within the range.
+     */
+    public CompletableFuture<ArrayList<T>> findRange(final String field, final Number minimum, final Number maximum) {
+        return this.datapoint.findRange(field, minimum, maximum).thenApply(this::decodeAll);
+    }
+
+    /**
+     * Allows you to save a value.
+     * The value is encoded straight away, so it can be changed as soon as this returns.
+     *
+     * @param value      ~ The value to save.
+     * @param identifier ~ The identifier of the value.
+     * @return When the value has been saved (or staged), or the failure that stopped it.
+     */
+    public CompletableFuture<Void> save(final T value, final String identifier) {
+        return this.datapoint.save(this.codec.encode(value), identifier);
+    }
+
+    /**
+     * Allows you to save a value that expires.
+     *
+     * @param value      ~ The value to save.
+     * @param identifier ~ The identifier of the value.
+     * @param timeToLive ~ How long (in milliseconds) the value lives for.
+     * @return When the value has been saved (or staged), or the failure that stopped it.
+     */
+    public CompletableFuture<Void> save(final T value, final String identifier, final long timeToLive) {
+        return this.datapoint.save(this.codec.encode(value), identifier, timeToLive);
+    }
+
+    /**
+     * Allows you to save many values.
+     *
+     * @param values ~ The values to save, mapped by their identifiers.
+     * @return When every value has been saved (or staged), or the failure that stopped it.
+     */
+    public CompletableFuture<Void> saveAll(final HashMap<String, T> values) {
+        final HashMap<String, JsonObject> jsonObjects = new HashMap<>();
+        values.forEach((identifier, value) -> jsonObjects.put(identifier, this.codec.encode(value)));
+        return this.datapoint.saveAll(jsonObjects);
+    }
+
+    /**
+     * Allows you to delete a value.
+     *
+     * @param identifier ~ The identifier of the value.
+     * @return When the value has been deleted (or staged), or the failure that stopped it.
+     */
+    public CompletableFuture<Void> delete(final String identifier) {
+        return this.datapoint.delete(identifier);
+    }
+
+    /**
+     * Allows you to delete many values.
+     *
+     * @param identifiers ~ The identifiers of the values.
+     * @return When every value has been deleted (or staged), or the failure that stopped it.
+     */
+    public CompletableFuture<Void> deleteAll(final Collection<String> identifiers) {
+        return this.datapoint.deleteAll(identifiers);
+    }
+
+    /**
+     * Allows you to retrieve if a value exists from an identifier.
+     *
+     * @param identifier ~ The identifier of the value.
+     * @return If a value exists from the identifier.
+     */
+    public CompletableFuture<Boolean> exists(final String identifier) {
+        return this.datapoint.exists(identifier);
+    }
+
+    /**
+     * Ignore this method, it's just an inner-working of the typed datapoint.
+     */
+    private ArrayList<T> decodeAll(final ArrayList<JsonObject> jsonObjects) {
+        final ArrayList<T> values = new ArrayList<>(jsonObjects.size());
+        jsonObjects.forEach(jsonObject -> values.add(this.codec.decode(jsonObject)));
+        return values;
+    }
+}
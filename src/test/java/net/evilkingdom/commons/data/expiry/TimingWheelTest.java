@@ -0,0 +1,73 @@
+package net.evilkingdom.commons.data.expiry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelTest {
+
+    private TimingWheel timingWheel;
+    private long start;
+
+    @BeforeEach
+    public void setUp() {
+        this.timingWheel = new TimingWheel(1L);
+        this.start = System.currentTimeMillis() + 1000L;
+        this.timingWheel.advance(this.start);
+    }
+
+    @Test
+    public void deadlinesCascadeDownEveryLevel() {
+        final long[] delays = {1L, 63L, 64L, 65L, 4095L, 4096L, 4097L, 262143L, 262144L, 300000L, 16777215L};
+        for (final long delay : delays) {
+            this.timingWheel.schedule("delay-" + delay, this.start + delay);
+        }
+        for (final long delay : delays) {
+            final String identifier = "delay-" + delay;
+            assertFalse(this.timingWheel.advance(this.start + delay - 1L).contains(identifier));
+            assertFalse(this.timingWheel.isExpired(identifier, this.start + delay - 1L));
+            assertEquals(List.of(identifier), this.timingWheel.advance(this.start + delay));
+            assertTrue(this.timingWheel.isExpired(identifier, this.start + delay));
+        }
+    }
+
+    @Test
+    public void deadlinesPastTheTopLevelAreCarriedAround() {
+        final long delay = 3L * 16777216L + 12345L;
+        this.timingWheel.schedule("far", this.start + delay);
+        assertTrue(this.timingWheel.advance(this.start + delay - 1L).isEmpty());
+        assertEquals(List.of("far"), this.timingWheel.advance(this.start + delay));
+    }
+
+    @Test
+    public void expiredIdentifiersComeOutInOrder() {
+        this.timingWheel.schedule("third", this.start + 5000L);
+        this.timingWheel.schedule("first", this.start + 10L);
+        this.timingWheel.schedule("second", this.start + 100L);
+        assertEquals(List.of("first", "second", "third"), this.timingWheel.advance(this.start + 10000L));
+    }
+
+    @Test
+    public void cancelledAndReplacedDeadlinesAreSkipped() {
+        this.timingWheel.schedule("cancelled", this.start + 100L);
+        this.timingWheel.schedule("moved", this.start + 5000L);
+        this.timingWheel.cancel("cancelled");
+        this.timingWheel.schedule("moved", this.start + 200L);
+        assertEquals(List.of("moved"), this.timingWheel.advance(this.start + 1000L));
+        this.timingWheel.cancel("moved");
+        assertTrue(this.timingWheel.advance(this.start + 10000L).isEmpty());
+        assertEquals(0, this.timingWheel.size());
+    }
+
+    @Test
+    public void pastDeadlinesExpireOnTheNextTick() {
+        this.timingWheel.schedule("late", this.start - 5000L);
+        assertEquals(List.of("late"), this.timingWheel.advance(this.start + 1L));
+    }
+
+}
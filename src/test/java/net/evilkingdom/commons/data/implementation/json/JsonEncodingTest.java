@@ -0,0 +1,89 @@
+package net.evilkingdom.commons.data.implementation.json;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.evilkingdom.commons.data.implementation.json.enums.JsonFormat;
+import net.evilkingdom.commons.data.objects.Projection;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JsonEncodingTest {
+
+    @Test
+    public void everyFormatRoundTrips() {
+        final JsonObject jsonObject = this.sample();
+        for (final JsonFormat format : JsonFormat.values()) {
+            final byte[] bytes = JsonEncoding.encode(jsonObject, format);
+            assertEquals(format, JsonEncoding.detect(bytes));
+            assertEquals(jsonObject.toString(), JsonEncoding.decode(bytes).toString());
+        }
+    }
+
+    @Test
+    public void binaryKeepsNumbersExactly() {
+        final JsonObject jsonObject = JsonParser.parseString("{\"zero\":0,\"negative\":-1,\"smallest\":-9223372036854775808,\"largest\":9223372036854775807,"
+                + "\"tooLarge\":92233720368547758070,\"fraction\":0.1,\"exponent\":1.0E300,\"precise\":1.00000000000000000001,\"trailing\":2.50}").getAsJsonObject();
+        final JsonObject decoded = JsonEncoding.decode(JsonEncoding.encode(jsonObject, JsonFormat.BINARY));
+        assertEquals(jsonObject.toString(), decoded.toString());
+    }
+
+    @Test
+    public void binaryStoresRepeatedNamesOnce() {
+        final JsonArray players = new JsonArray();
+        for (int index = 0; index < 100; index++) {
+            players.add(this.sample());
+        }
+        final JsonObject jsonObject = new JsonObject();
+        jsonObject.add("players", players);
+        final byte[] plain = JsonEncoding.encode(jsonObject, JsonFormat.PLAIN);
+        final byte[] binary = JsonEncoding.encode(jsonObject, JsonFormat.BINARY);
+        assertTrue(binary.length < plain.length / 2);
+        assertEquals(jsonObject.toString(), JsonEncoding.decode(binary).toString());
+    }
+
+    @Test
+    public void binaryProjectionSkipsTheRest() {
+        final JsonObject jsonObject = this.sample();
+        final Projection projection = new Projection("name", "statistics.kills", "missing");
+        for (final JsonFormat format : JsonFormat.values()) {
+            final JsonObject projected = JsonEncoding.decode(JsonEncoding.encode(jsonObject, format), projection);
+            assertEquals(projection.apply(jsonObject).toString(), projected.toString());
+        }
+    }
+
+    @Test
+    public void plainFilesWrittenBeforeFormatsStillDecode() {
+        final byte[] bytes = "{\"name\":\"player\",\"level\":3}".getBytes(StandardCharsets.UTF_8);
+        assertEquals(JsonFormat.PLAIN, JsonEncoding.detect(bytes));
+        assertEquals("player", JsonEncoding.decode(bytes).get("name").getAsString());
+    }
+
+    private JsonObject sample() {
+        final JsonObject statistics = new JsonObject();
+        statistics.addProperty("kills", 120);
+        statistics.addProperty("deaths", 43);
+        statistics.addProperty("ratio", 2.7906976744186047);
+        final JsonArray friends = new JsonArray();
+        friends.add("Notch");
+        friends.add("jeb_");
+        friends.add(JsonNull.INSTANCE);
+        friends.add(new JsonObject());
+        final JsonObject jsonObject = new JsonObject();
+        jsonObject.addProperty("name", "player \u00e9\u4e16\ud83d\ude00");
+        jsonObject.addProperty("online", true);
+        jsonObject.addProperty("banned", false);
+        jsonObject.addProperty("balance", -1250.5);
+        jsonObject.addProperty("joined", 1700000000000L);
+        jsonObject.add("statistics", statistics);
+        jsonObject.add("friends", friends);
+        jsonObject.add("empty", new JsonArray());
+        return jsonObject;
+    }
+
+}
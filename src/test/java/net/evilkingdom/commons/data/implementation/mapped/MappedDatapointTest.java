@@ -0,0 +1,117 @@
+package net.evilkingdom.commons.data.implementation.mapped;
+
+import com.google.gson.JsonObject;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MappedDatapointTest {
+
+    @TempDir
+    public File folder;
+
+    private MappedDatasite datasite;
+    private MappedDatapoint datapoint;
+
+    @BeforeEach
+    public void setUp() {
+        final JavaPlugin plugin = mock(JavaPlugin.class);
+        when(plugin.getDataFolder()).thenReturn(this.folder);
+        this.datasite = new MappedDatasite(plugin, "mapped");
+        this.datasite.initialize();
+        this.datapoint = this.open();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.datasite.terminate();
+    }
+
+    @Test
+    public void deletingKeepsEveryProbeSequenceIntact() {
+        final ArrayList<String> identifiers = this.fill(700);
+        Collections.shuffle(identifiers, new Random(0L));
+        final HashSet<String> deleted = new HashSet<>();
+        for (int index = 0; index < identifiers.size(); index += 2) {
+            this.datapoint.delete(identifiers.get(index)).join();
+            deleted.add(identifiers.get(index));
+            if (index % 50 == 0) {
+                this.assertContents(identifiers, deleted);
+            }
+        }
+        this.assertContents(identifiers, deleted);
+        this.datapoint.close();
+        this.datasite.getPoints().remove(this.datapoint);
+        this.datapoint = this.open();
+        this.assertContents(identifiers, deleted);
+    }
+
+    @Test
+    public void deletedSlotsAreReusedWithoutRehashing() {
+        final long size = this.datapoint.getFile().length();
+        for (int round = 0; round < 5; round++) {
+            final ArrayList<String> identifiers = this.fill(600);
+            this.datapoint.deleteAll(identifiers).join();
+            assertEquals(0L, this.datapoint.countAll().join());
+        }
+        this.datapoint.compact();
+        assertEquals(size, this.datapoint.getFile().length());
+    }
+
+    @Test
+    public void rehashingKeepsTheSurvivors() {
+        final ArrayList<String> identifiers = this.fill(3000);
+        final HashSet<String> deleted = new HashSet<>(identifiers.subList(0, 1500));
+        this.datapoint.deleteAll(deleted).join();
+        this.datapoint.compact();
+        this.assertContents(identifiers, deleted);
+    }
+
+    private MappedDatapoint open() {
+        final MappedDatapoint datapoint = new MappedDatapoint(this.datasite, "points");
+        datapoint.register();
+        return datapoint;
+    }
+
+    private ArrayList<String> fill(final int amount) {
+        final ArrayList<String> identifiers = new ArrayList<>();
+        final HashMap<String, JsonObject> jsonObjects = new HashMap<>();
+        for (int index = 0; index < amount; index++) {
+            final String identifier = "point-" + index;
+            final JsonObject jsonObject = new JsonObject();
+            jsonObject.addProperty("value", identifier);
+            identifiers.add(identifier);
+            jsonObjects.put(identifier, jsonObject);
+        }
+        this.datapoint.saveAll(jsonObjects).join();
+        return identifiers;
+    }
+
+    private void assertContents(final ArrayList<String> identifiers, final HashSet<String> deleted) {
+        for (final String identifier : identifiers) {
+            if (deleted.contains(identifier)) {
+                assertFalse(this.datapoint.exists(identifier).join());
+            } else {
+                assertEquals(identifier, this.datapoint.get(identifier).join().orElseThrow().get("value").getAsString());
+            }
+        }
+        assertEquals(identifiers.size() - deleted.size(), this.datapoint.countAll().join());
+        assertTrue(this.datapoint.getAll().join().stream().noneMatch(jsonObject -> deleted.contains(jsonObject.get("value").getAsString())));
+    }
+
+}
@@ -0,0 +1,73 @@
+package net.evilkingdom.commons.data.implementation.mongodb;
+
+import com.google.gson.JsonObject;
+import org.bson.BsonBinary;
+import org.bson.BsonBoolean;
+import org.bson.BsonDateTime;
+import org.bson.BsonDecimal128;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonJavaScript;
+import org.bson.BsonMaxKey;
+import org.bson.BsonMinKey;
+import org.bson.BsonNull;
+import org.bson.BsonObjectId;
+import org.bson.BsonRegularExpression;
+import org.bson.BsonString;
+import org.bson.BsonSymbol;
+import org.bson.BsonTimestamp;
+import org.bson.BsonUndefined;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class JsonObjectCodecTest {
+
+    private final JsonObjectCodec codec = new JsonObjectCodec();
+
+    @Test
+    public void everyDecodedTypeIsEncodedBack() {
+        final BsonDocument document = new BsonDocument()
+                .append("string", new BsonString("value"))
+                .append("int32", new BsonInt32(7))
+                .append("double", new BsonDouble(1.5))
+                .append("nan", new BsonDouble(Double.NaN))
+                .append("boolean", BsonBoolean.TRUE)
+                .append("null", BsonNull.VALUE)
+                .append("objectId", new BsonObjectId(new ObjectId()))
+                .append("date", new BsonDateTime(1700000000000L))
+                .append("earlyDate", new BsonDateTime(-1000L))
+                .append("decimal", new BsonDecimal128(Decimal128.parse("1.10")))
+                .append("binary", new BsonBinary((byte) 0x80, new byte[]{1, 2, -3}))
+                .append("timestamp", new BsonTimestamp(-5, 7))
+                .append("regularExpression", new BsonRegularExpression("^a.*", "i"))
+                .append("symbol", new BsonSymbol("symbol"))
+                .append("code", new BsonJavaScript("run()"))
+                .append("minKey", new BsonMinKey())
+                .append("maxKey", new BsonMaxKey())
+                .append("undefined", new BsonUndefined())
+                .append("nested", new BsonDocument("binary", new BsonBinary(new byte[]{4})));
+        assertEquals(document, this.roundTrip(document));
+    }
+
+    @Test
+    public void unparsableWrapperIsWrittenAsDocument() {
+        final BsonDocument document = new BsonDocument("field", new BsonDocument("$binary", new BsonString("not a wrapper")));
+        assertEquals(document, this.roundTrip(document));
+    }
+
+    private BsonDocument roundTrip(final BsonDocument document) {
+        final JsonObject jsonObject = this.codec.decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+        final BsonDocument encodedDocument = new BsonDocument();
+        this.codec.encode(new BsonDocumentWriter(encodedDocument), jsonObject, EncoderContext.builder().build());
+        return encodedDocument;
+    }
+
+}
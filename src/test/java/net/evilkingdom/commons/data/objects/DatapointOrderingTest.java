@@ -0,0 +1,56 @@
+package net.evilkingdom.commons.data.objects;
+
+import com.google.gson.JsonObject;
+import net.evilkingdom.commons.data.implementation.memory.MemoryDatapoint;
+import net.evilkingdom.commons.data.implementation.memory.MemoryDatasite;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DatapointOrderingTest {
+
+    private MemoryDatasite datasite;
+    private MemoryDatapoint datapoint;
+
+    @BeforeEach
+    public void setUp() {
+        this.datasite = new MemoryDatasite(null, "ordering");
+        this.datapoint = new MemoryDatapoint(this.datasite, "points");
+        this.datapoint.register();
+        this.datasite.setLatency(20L, 40L);
+    }
+
+    @Test
+    public void saveQueuedBehindSaveAllWins() {
+        final HashMap<String, JsonObject> jsonObjects = new HashMap<>();
+        jsonObjects.put("key", this.value(1));
+        jsonObjects.put("other", this.value(1));
+        final CompletableFuture<Void> batch = this.datapoint.saveAll(jsonObjects);
+        final CompletableFuture<Void> single = this.datapoint.save(this.value(2), "key");
+        CompletableFuture.allOf(batch, single).join();
+        assertEquals(2, this.datapoint.get("key").join().orElseThrow().get("value").getAsInt());
+        assertEquals(1, this.datapoint.get("other").join().orElseThrow().get("value").getAsInt());
+    }
+
+    @Test
+    public void saveQueuedBehindDeleteAllWins() {
+        this.datapoint.save(this.value(1), "key").join();
+        final CompletableFuture<Void> batch = this.datapoint.deleteAll(List.of("key"));
+        final CompletableFuture<Void> single = this.datapoint.save(this.value(2), "key");
+        CompletableFuture.allOf(batch, single).join();
+        assertTrue(this.datapoint.exists("key").join());
+    }
+
+    private JsonObject value(final int value) {
+        final JsonObject jsonObject = new JsonObject();
+        jsonObject.addProperty("value", value);
+        return jsonObject;
+    }
+
+}